@@ -1,22 +1,42 @@
 package com.projedata.inputmanager.controller;
 
+import com.projedata.inputmanager.dto.OptimizationCacheStatsDTO;
+import com.projedata.inputmanager.dto.OptimizationEventDTO;
+import com.projedata.inputmanager.dto.OptimizationJobDTO;
 import com.projedata.inputmanager.dto.OptimizationResultDTO;
+import com.projedata.inputmanager.dto.OptimizationScenarioBatchDTO;
+import com.projedata.inputmanager.dto.OptimizationScenarioResultDTO;
+import com.projedata.inputmanager.service.OptimizationJobService;
+import com.projedata.inputmanager.service.OptimizationResultCache;
 import com.projedata.inputmanager.service.ProductionOptimizationService;
+import com.projedata.inputmanager.service.ScenarioOptimizationService;
+import io.smallrye.mutiny.Multi;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import java.net.URI;
+import java.util.List;
 
 // PT-BR: Controlador REST para a otimizacao de producao. Recebe um POST e retorna
 //        o plano otimo de producao baseado no estoque atual de materias-primas.
 //        E um endpoint simples porque toda a complexidade esta no service.
-//        Nao usa @Consumes pois o endpoint nao recebe body.
+//        So o lote de cenarios recebe body (@Consumes no proprio metodo).
 // EN-US: REST controller for production optimization. Receives a POST and returns
 //        the optimal production plan based on the current raw material stock.
 //        It's a simple endpoint because all the complexity lives in the service.
-//        No @Consumes since the endpoint receives no body.
+//        Only the scenario batch receives a body (@Consumes on the method itself).
 @Path("/api/optimization")
 @Produces(MediaType.APPLICATION_JSON)
 @PermitAll
@@ -25,9 +45,84 @@ public class ProductionOptimizationResource {
     @Inject
     ProductionOptimizationService service;
 
+    @Inject
+    OptimizationResultCache resultCache;
+
+    @Inject
+    OptimizationJobService jobService;
+
+    @Inject
+    ScenarioOptimizationService scenarioService;
+
+    // PT-BR: maxNodes e maxTimeMs (opcionais) trocam latencia por qualidade por chamada;
+    //        o resultado traz em diagnostics se o plano e otimo ou o gap que sobrou.
+    // EN-US: maxNodes and maxTimeMs (optional) trade latency for quality per call; the
+    //        result's diagnostics say whether the plan is optimal or the gap left over.
     @POST
     @Path("/optimize")
-    public OptimizationResultDTO optimize() {
-        return service.optimize();
+    public OptimizationResultDTO optimize(@QueryParam("maxNodes") Integer maxNodes,
+                                          @QueryParam("maxTimeMs") Long maxTimeMs) {
+        return service.optimize(service.options(maxNodes, maxTimeMs));
+    }
+
+    // PT-BR: Stream SSE dos incumbentes: o primeiro plano utilizavel aparece em
+    //        milissegundos e os seguintes chegam conforme a busca melhora. Usa GET para
+    //        funcionar com o EventSource do navegador.
+    // EN-US: SSE stream of incumbents: the first usable plan shows up within milliseconds
+    //        and the next ones arrive as the search improves. Uses GET so it works with
+    //        the browser's EventSource.
+    @GET
+    @Path("/optimize/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<OptimizationEventDTO> optimizeStream(@QueryParam("maxNodes") Integer maxNodes,
+                                                     @QueryParam("maxTimeMs") Long maxTimeMs) {
+        return jobService.stream(maxNodes, maxTimeMs);
+    }
+
+    // PT-BR: Versao assincrona: responde 202 com o id do job e o Location para consultar
+    //        o status. Com a fila cheia, responde 503.
+    // EN-US: Asynchronous version: answers 202 with the job id and the Location to poll
+    //        the status. When the queue is full, answers 503.
+    @POST
+    @Path("/jobs")
+    public Response submitJob(@QueryParam("maxNodes") Integer maxNodes,
+                              @QueryParam("maxTimeMs") Long maxTimeMs) {
+        OptimizationJobDTO job = jobService.submit(maxNodes, maxTimeMs);
+        return Response.accepted(job)
+            .location(URI.create("/api/optimization/jobs/" + job.id))
+            .build();
+    }
+
+    // PT-BR: Lote de cenarios "e se" (trocas de estoque e preco) sobre o catalogo atual.
+    //        O orcamento vale para cada cenario. Com a fila de cenarios cheia, responde 503.
+    // EN-US: Batch of "what if" scenarios (stock and price overrides) over the current
+    //        catalog. The budget applies to each scenario. When the scenario queue is
+    //        full, answers 503.
+    @POST
+    @Path("/scenarios")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public List<OptimizationScenarioResultDTO> optimizeScenarios(@Valid OptimizationScenarioBatchDTO batch,
+                                                                 @QueryParam("maxNodes") Integer maxNodes,
+                                                                 @QueryParam("maxTimeMs") Long maxTimeMs) {
+        return scenarioService.optimize(batch, maxNodes, maxTimeMs);
+    }
+
+    @GET
+    @Path("/jobs/{id}")
+    public OptimizationJobDTO getJob(@PathParam("id") Long id) {
+        return jobService.findById(id);
+    }
+
+    @DELETE
+    @Path("/jobs/{id}")
+    public OptimizationJobDTO cancelJob(@PathParam("id") Long id) {
+        return jobService.cancel(id);
+    }
+
+    @GET
+    @Path("/cache/stats")
+    public OptimizationCacheStatsDTO cacheStats() {
+        return resultCache.stats();
     }
 }
@@ -0,0 +1,14 @@
+package com.projedata.inputmanager.dto;
+
+// PT-BR: Contadores do cache de resultados da otimizacao, para acompanhar se o cache
+//        esta realmente evitando recalculos (hitRate alto) ou sendo invalidado o tempo todo.
+// EN-US: Counters of the optimization result cache, to check whether the cache is really
+//        avoiding recomputation (high hitRate) or being invalidated all the time.
+public class OptimizationCacheStatsDTO {
+
+    public long hits;
+    public long misses;
+    public long invalidations;
+    public int entries;
+    public double hitRate;
+}
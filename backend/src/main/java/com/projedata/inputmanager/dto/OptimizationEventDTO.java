@@ -0,0 +1,24 @@
+package com.projedata.inputmanager.dto;
+
+// PT-BR: Evento do stream de otimizacao (SSE). INCUMBENT traz o melhor plano encontrado
+//        ate agora, ja utilizavel, enquanto a prova de otimalidade continua; COMPLETED e
+//        CANCELLED trazem o resultado final. gap e a distancia relativa entre a receita do
+//        plano e o melhor limite da fronteira (0 = otimo provado; null = ainda sem limite).
+// EN-US: Optimization stream event (SSE). INCUMBENT carries the best plan found so far,
+//        already usable, while the optimality proof goes on; COMPLETED and CANCELLED carry
+//        the final result. gap is the relative distance between the plan's revenue and the
+//        frontier's best bound (0 = proven optimal; null = no bound yet).
+public class OptimizationEventDTO {
+
+    public Type type;
+    public Long jobId;
+    public long elapsedMs;
+    public Double gap;
+    public OptimizationResultDTO result;
+
+    public enum Type {
+        INCUMBENT,
+        COMPLETED,
+        CANCELLED
+    }
+}
@@ -0,0 +1,32 @@
+package com.projedata.inputmanager.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// PT-BR: Estado de um job assincrono de otimizacao. Enquanto a busca roda, nodesExplored,
+//        incumbentRevenue e bestBound mostram o progresso (a receita otima esta sempre
+//        entre os dois valores). Quando o job termina, result traz o plano completo.
+// EN-US: State of an asynchronous optimization job. While the search runs, nodesExplored,
+//        incumbentRevenue and bestBound show the progress (the optimal revenue is always
+//        between the two values). When the job finishes, result carries the full plan.
+public class OptimizationJobDTO {
+
+    public Long id;
+    public Status status;
+    public Instant submittedAt;
+    public Instant startedAt;
+    public Instant finishedAt;
+    public long nodesExplored;
+    public BigDecimal incumbentRevenue;
+    public BigDecimal bestBound;
+    public OptimizationResultDTO result;
+    public String error;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+}
@@ -1,5 +1,8 @@
 package com.projedata.inputmanager.dto;
 
+import com.projedata.inputmanager.service.optimization.SolverEngine;
+import com.projedata.inputmanager.service.optimization.TerminationReason;
+
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -16,6 +19,14 @@ public class OptimizationResultDTO {
     public List<MaterialUsage> materialUsage;
     public long computationTimeMs;
 
+    // PT-BR: true quando o plano veio do cache (nada mudou desde o ultimo calculo)
+    // EN-US: true when the plan came from the cache (nothing changed since the last run)
+    public boolean cached;
+
+    // PT-BR: Como a busca terminou (null nos planos parciais do stream)
+    // EN-US: How the search ended (null on the stream's partial plans)
+    public Diagnostics diagnostics;
+
     // PT-BR: Item do plano de producao -- quanto fabricar de cada produto
     // EN-US: Production plan item -- how much to manufacture of each product
     public static class ProductionItem {
@@ -25,6 +36,12 @@ public class OptimizationResultDTO {
         public int quantityToProduce;
         public BigDecimal unitPrice;
         public BigDecimal subtotal;
+
+        // PT-BR: Custo reduzido da relaxacao linear: preco menos o valor, aos precos
+        //        sombra, dos insumos de uma unidade (null nos planos parciais do stream)
+        // EN-US: Linear relaxation reduced cost: price minus the value, at shadow prices,
+        //        of one unit's inputs (null on the stream's partial plans)
+        public BigDecimal reducedCost;
     }
 
     // PT-BR: Uso de materia-prima -- quanto foi consumido vs. quanto estava disponivel
@@ -37,5 +54,35 @@ public class OptimizationResultDTO {
         public BigDecimal remaining;
         public String unit;
         public double usagePercentage;
+
+        // PT-BR: Receita extra por unidade a mais deste insumo, segundo a relaxacao linear,
+        //        e se ele se esgota nela (null/false nos planos parciais do stream)
+        // EN-US: Extra revenue per additional unit of this input, according to the linear
+        //        relaxation, and whether it runs out there (null/false on the stream's
+        //        partial plans)
+        public BigDecimal shadowPrice;
+        public boolean binding;
+    }
+
+    // PT-BR: Diagnostico da busca -- se o plano e comprovadamente otimo e, se nao for,
+    //        quanto ainda poderia faltar (gap relativo entre a receita e o limite superior)
+    // EN-US: Search diagnostics -- whether the plan is proven optimal and, if not, how
+    //        much could still be missing (relative gap between the revenue and the upper bound)
+    public static class Diagnostics {
+        public TerminationReason terminationReason;
+        public SolverEngine engine;
+        public int components;
+        public int coverCuts;
+        public Double transpositionHitRate;
+        public long transpositionPrunes;
+        public BigDecimal bestBound;
+        public Double optimalityGap;
+        public long nodesExplored;
+        public long nodesPruned;
+        public long nodesEvicted;
+        public long nodesSpilled;
+        public long allocatedBytes;
+        public int maxNodes;
+        public long maxTimeMs;
     }
 }
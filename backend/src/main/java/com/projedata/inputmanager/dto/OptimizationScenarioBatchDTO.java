@@ -0,0 +1,17 @@
+package com.projedata.inputmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+// PT-BR: Pedido de otimizacao em lote: os cenarios sao resolvidos sobre um unico
+//        carregamento do catalogo. O limite de cenarios por pedido e configuravel.
+// EN-US: Batch optimization request: the scenarios are solved over a single load of the
+//        catalog. The number of scenarios per request is configurable.
+public class OptimizationScenarioBatchDTO {
+
+    @NotEmpty(message = "At least one scenario is required")
+    @Valid
+    public List<OptimizationScenarioDTO> scenarios;
+}
@@ -0,0 +1,49 @@
+package com.projedata.inputmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// PT-BR: Cenario "e se" para a otimizacao em lote: o catalogo atual com alguns estoques e
+//        precos trocados. Cada troca informa um valor absoluto OU um fator sobre o valor
+//        atual (por exemplo, factor 1.1 = estoque +10%).
+// EN-US: "What if" scenario for batch optimization: the current catalog with some stocks
+//        and prices replaced. Each override gives an absolute value OR a factor over the
+//        current value (for example, factor 1.1 = stock +10%).
+public class OptimizationScenarioDTO {
+
+    @NotBlank(message = "Scenario name is required")
+    public String name;
+
+    @Valid
+    public List<StockOverride> stockOverrides;
+
+    @Valid
+    public List<PriceOverride> priceOverrides;
+
+    public static class StockOverride {
+        @NotNull(message = "Raw material ID is required")
+        public Long rawMaterialId;
+
+        @DecimalMin(value = "0", message = "Stock quantity cannot be negative")
+        public BigDecimal stockQuantity;
+
+        @DecimalMin(value = "0", message = "Factor cannot be negative")
+        public BigDecimal factor;
+    }
+
+    public static class PriceOverride {
+        @NotNull(message = "Product ID is required")
+        public Long productId;
+
+        @DecimalMin(value = "0.01", message = "Sale price must be greater than zero")
+        public BigDecimal salePrice;
+
+        @DecimalMin(value = "0", inclusive = false, message = "Factor must be greater than zero")
+        public BigDecimal factor;
+    }
+}
@@ -0,0 +1,12 @@
+package com.projedata.inputmanager.dto;
+
+// PT-BR: Resultado de um cenario do lote. warmStartFrom diz de qual cenario ja resolvido
+//        veio o plano usado como incumbente inicial (null se nenhum servia).
+// EN-US: Result of one scenario in the batch. warmStartFrom tells which already solved
+//        scenario provided the plan used as the initial incumbent (null if none fit).
+public class OptimizationScenarioResultDTO {
+
+    public String name;
+    public String warmStartFrom;
+    public OptimizationResultDTO result;
+}
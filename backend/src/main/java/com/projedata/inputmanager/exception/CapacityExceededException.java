@@ -0,0 +1,14 @@
+package com.projedata.inputmanager.exception;
+
+// PT-BR: Excecao lancada quando um recurso limitado (como a fila de jobs de otimizacao)
+//        esta cheio. Mapeada para HTTP 503 pelo GlobalExceptionHandler -- o cliente pode
+//        tentar de novo mais tarde.
+// EN-US: Exception thrown when a bounded resource (like the optimization job queue) is
+//        full. Mapped to HTTP 503 by the GlobalExceptionHandler -- the client may retry
+//        later.
+public class CapacityExceededException extends RuntimeException {
+
+    public CapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -36,6 +36,10 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
             return buildResponse(Response.Status.NOT_FOUND, exception.getMessage());
         }
 
+        if (exception instanceof CapacityExceededException) {
+            return buildResponse(Response.Status.SERVICE_UNAVAILABLE, exception.getMessage());
+        }
+
         if (exception instanceof ConstraintViolationException cve) {
             return handleConstraintViolation(cve);
         }
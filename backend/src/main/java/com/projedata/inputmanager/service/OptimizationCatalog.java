@@ -0,0 +1,137 @@
+package com.projedata.inputmanager.service;
+
+import com.projedata.inputmanager.model.Product;
+import com.projedata.inputmanager.model.ProductComposition;
+import com.projedata.inputmanager.model.RawMaterial;
+import com.projedata.inputmanager.service.optimization.OptimizationProblem;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// PT-BR: Catalogo carregado uma vez para a otimizacao: as entidades (para montar o
+//        resultado), os precos e estoques em BigDecimal (para os valores exibidos) e o
+//        modelo numerico do solver. Os cenarios "e se" derivam novos catalogos daqui com
+//        withOverrides, sem voltar ao banco nem remontar a matriz.
+//        Depois de montado, nada aqui acessa o Hibernate, entao o catalogo pode ser usado
+//        por outras threads.
+// EN-US: Catalog loaded once for the optimization: the entities (to build the result),
+//        the prices and stocks as BigDecimal (for the displayed values) and the solver's
+//        numeric model. "What if" scenarios derive new catalogs from here with
+//        withOverrides, without going back to the database or rebuilding the matrix.
+//        Once built, nothing here touches Hibernate, so the catalog can be used from
+//        other threads.
+final class OptimizationCatalog {
+
+    final List<Product> products;
+    final List<RawMaterial> materials;
+    final BigDecimal[] salePrices;
+    final BigDecimal[] stockQuantities;
+    final Map<Long, Integer> productIndex;
+    final Map<Long, Integer> materialIndex;
+
+    // PT-BR: null quando nao ha produtos com receita ou nao ha insumos.
+    // EN-US: null when there are no products with a recipe or no inputs.
+    final OptimizationProblem problem;
+
+    private OptimizationCatalog(List<Product> products, List<RawMaterial> materials,
+                                BigDecimal[] salePrices, BigDecimal[] stockQuantities,
+                                Map<Long, Integer> productIndex, Map<Long, Integer> materialIndex,
+                                OptimizationProblem problem) {
+        this.products = products;
+        this.materials = materials;
+        this.salePrices = salePrices;
+        this.stockQuantities = stockQuantities;
+        this.productIndex = productIndex;
+        this.materialIndex = materialIndex;
+        this.problem = problem;
+    }
+
+    static OptimizationCatalog build(List<Product> allProducts, List<RawMaterial> allMaterials) {
+        // PT-BR: Filtramos apenas os produtos que tem composicao definida.
+        //        Um produto sem receita nao faz sentido na otimizacao.
+        // EN-US: We filter only products that have a defined composition.
+        //        A product without a recipe doesn't make sense in the optimization.
+        List<Product> products = allProducts.stream()
+            .filter(p -> p.compositions != null && !p.compositions.isEmpty())
+            .toList();
+
+        int n = products.size();
+        int m = allMaterials.size();
+
+        // PT-BR: Construimos um mapa de indice para acessar rapidamente os dados das
+        //        materias-primas. Isso evita buscas O(n) repetidas durante a otimizacao.
+        // EN-US: We build an index map for quick access to raw material data.
+        //        This avoids repeated O(n) lookups during optimization.
+        Map<Long, Integer> materialIndex = new HashMap<>();
+        BigDecimal[] stockQuantities = new BigDecimal[m];
+        for (int j = 0; j < m; j++) {
+            materialIndex.put(allMaterials.get(j).id, j);
+            stockQuantities[j] = allMaterials.get(j).stockQuantity;
+        }
+        Map<Long, Integer> productIndex = new HashMap<>();
+        BigDecimal[] salePrices = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            productIndex.put(products.get(i).id, i);
+            salePrices[i] = products.get(i).salePrice;
+        }
+
+        if (n == 0 || m == 0) {
+            return new OptimizationCatalog(products, allMaterials, salePrices, stockQuantities,
+                productIndex, materialIndex, null);
+        }
+
+        // PT-BR: A matriz de consumo e montada esparsa (uma entrada por linha de composicao),
+        //        coluna a coluna: o TreeMap ordena os insumos de cada receita.
+        // EN-US: The consumption matrix is built sparse (one entry per composition row),
+        //        column by column: the TreeMap sorts each recipe's inputs.
+        int[] columnStart = new int[n + 1];
+        List<Integer> columnMaterial = new ArrayList<>();
+        List<Double> columnAmount = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            TreeMap<Integer, Double> recipe = new TreeMap<>();
+            for (ProductComposition comp : products.get(i).compositions) {
+                Integer matIndex = materialIndex.get(comp.rawMaterial.id);
+                if (matIndex != null) {
+                    recipe.put(matIndex, comp.requiredQuantity.doubleValue());
+                }
+            }
+            recipe.forEach((matIndex, amount) -> {
+                columnMaterial.add(matIndex);
+                columnAmount.add(amount);
+            });
+            columnStart[i + 1] = columnMaterial.size();
+        }
+
+        OptimizationProblem problem = new OptimizationProblem(toDoubles(salePrices), toDoubles(stockQuantities),
+            columnStart,
+            columnMaterial.stream().mapToInt(Integer::intValue).toArray(),
+            columnAmount.stream().mapToDouble(Double::doubleValue).toArray());
+        return new OptimizationCatalog(products, allMaterials, salePrices, stockQuantities,
+            productIndex, materialIndex, problem);
+    }
+
+    boolean isEmpty() {
+        return problem == null;
+    }
+
+    // PT-BR: Mesmo catalogo com outros precos e estoques; as receitas sao compartilhadas.
+    // EN-US: Same catalog with other prices and stocks; the recipes are shared.
+    OptimizationCatalog withOverrides(BigDecimal[] newSalePrices, BigDecimal[] newStockQuantities) {
+        OptimizationProblem derived = problem == null ? null
+            : problem.withPricesAndStock(toDoubles(newSalePrices), toDoubles(newStockQuantities));
+        return new OptimizationCatalog(products, materials, newSalePrices, newStockQuantities,
+            productIndex, materialIndex, derived);
+    }
+
+    private static double[] toDoubles(BigDecimal[] values) {
+        double[] result = new double[values.length];
+        for (int k = 0; k < values.length; k++) {
+            result[k] = values[k].doubleValue();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,273 @@
+package com.projedata.inputmanager.service;
+
+import com.projedata.inputmanager.dto.OptimizationEventDTO;
+import com.projedata.inputmanager.dto.OptimizationJobDTO;
+import com.projedata.inputmanager.dto.OptimizationResultDTO;
+import com.projedata.inputmanager.exception.CapacityExceededException;
+import com.projedata.inputmanager.exception.ResourceNotFoundException;
+import com.projedata.inputmanager.service.optimization.SearchProgress;
+import com.projedata.inputmanager.service.optimization.SolverOptions;
+import com.projedata.inputmanager.service.optimization.SolverResult;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// PT-BR: Jobs assincronos de otimizacao. O POST sincrono segura uma thread HTTP por ate
+//        10 segundos, e um cliente que desiste continua gastando CPU. Aqui o envio
+//        devolve um id na hora, a busca roda em um executor proprio e limitado (threads
+//        e fila fixas, para que solves longos nao roubem as threads do CRUD), o status
+//        mostra o progresso e o cancelamento e cooperativo via SearchProgress.
+//
+//        Jobs finalizados ficam guardados por um tempo (retention) e depois sao removidos
+//        no proximo envio, entao o mapa nao cresce sem limite.
+// EN-US: Asynchronous optimization jobs. The synchronous POST holds an HTTP thread for
+//        up to 10 seconds, and a client that gives up keeps burning CPU. Here submission
+//        returns an id right away, the search runs on its own bounded executor (fixed
+//        threads and queue, so long solves don't steal the CRUD threads), the status
+//        shows the progress and cancellation is cooperative through SearchProgress.
+//
+//        Finished jobs are kept for a while (retention) and then removed on the next
+//        submission, so the map doesn't grow without bound.
+@ApplicationScoped
+public class OptimizationJobService {
+
+    private static final Logger LOG = Logger.getLogger(OptimizationJobService.class.getName());
+
+    @Inject
+    ProductionOptimizationService optimizationService;
+
+    @ConfigProperty(name = "optimization.jobs.threads", defaultValue = "2")
+    int threads;
+
+    @ConfigProperty(name = "optimization.jobs.queue-capacity", defaultValue = "16")
+    int queueCapacity;
+
+    @ConfigProperty(name = "optimization.jobs.retention", defaultValue = "PT30M")
+    Duration retention;
+
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "optimization-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(job -> job.progress.cancel());
+        executor.shutdownNow();
+    }
+
+    // PT-BR: maxNodes/maxTimeMs: orcamento da busca pedido pelo cliente (null = padrao).
+    // EN-US: maxNodes/maxTimeMs: search budget asked for by the client (null = default).
+    public OptimizationJobDTO submit(Integer maxNodes, Long maxTimeMs) {
+        return toDTO(start(optimizationService.options(maxNodes, maxTimeMs), null));
+    }
+
+    // PT-BR: Versao em stream do job: cada novo incumbente vira um evento INCUMBENT e o
+    //        stream termina com COMPLETED ou CANCELLED. O job tambem aparece na API de
+    //        status, e se o cliente fechar a conexao a busca e cancelada.
+    // EN-US: Streaming version of the job: each new incumbent becomes an INCUMBENT event
+    //        and the stream ends with COMPLETED or CANCELLED. The job also shows up in the
+    //        status API, and if the client closes the connection the search is cancelled.
+    public Multi<OptimizationEventDTO> stream(Integer maxNodes, Long maxTimeMs) {
+        SolverOptions options = optimizationService.options(maxNodes, maxTimeMs);
+        return Multi.createFrom().emitter(emitter -> {
+            try {
+                Job job = start(options, emitter);
+                emitter.onTermination(job.progress::cancel);
+            } catch (CapacityExceededException e) {
+                emitter.fail(e);
+            }
+        });
+    }
+
+    private Job start(SolverOptions options, MultiEmitter<? super OptimizationEventDTO> emitter) {
+        evictExpired();
+
+        Job job = new Job(nextId.getAndIncrement(), emitter);
+        options.progress = job.progress;
+
+        // PT-BR: O job so entra no mapa depois de ter o future: um cancel(id) nunca ve um
+        //        job sem future. O run so usa o proprio job, entao pode comecar (ou ate
+        //        terminar) antes da publicacao.
+        // EN-US: The job only goes into the map once it has its future: a cancel(id) never
+        //        sees a job without a future. run only uses the job itself, so it may start
+        //        (or even finish) before publication.
+        try {
+            job.future = executor.submit(() -> run(job, options));
+        } catch (RejectedExecutionException e) {
+            throw new CapacityExceededException("The optimization job queue is full, please retry later");
+        }
+        jobs.put(job.id, job);
+        return job;
+    }
+
+    public OptimizationJobDTO findById(Long id) {
+        return toDTO(getJob(id));
+    }
+
+    // PT-BR: Um job na fila e removido do executor; um job rodando recebe o pedido de
+    //        cancelamento e termina no proximo no, guardando o melhor plano ate ali.
+    // EN-US: A queued job is removed from the executor; a running job receives the
+    //        cancellation request and stops at the next node, keeping the best plan so far.
+    public OptimizationJobDTO cancel(Long id) {
+        Job job = getJob(id);
+        job.progress.cancel();
+        synchronized (job) {
+            if (job.status == OptimizationJobDTO.Status.QUEUED) {
+                job.future.cancel(false);
+                executor.purge();
+                job.status = OptimizationJobDTO.Status.CANCELLED;
+                job.finishedAt = Instant.now();
+                finishStream(job, OptimizationEventDTO.Type.CANCELLED, null);
+            }
+        }
+        return toDTO(job);
+    }
+
+    private void run(Job job, SolverOptions options) {
+        synchronized (job) {
+            if (job.status != OptimizationJobDTO.Status.QUEUED) {
+                return;
+            }
+            job.status = OptimizationJobDTO.Status.RUNNING;
+            job.startedAt = Instant.now();
+        }
+        Consumer<OptimizationResultDTO> onImprovement = job.emitter == null ? null
+            : partial -> job.emitter.emit(event(job, OptimizationEventDTO.Type.INCUMBENT, partial));
+        try {
+            OptimizationResultDTO result = optimizationService.optimize(options, onImprovement);
+            synchronized (job) {
+                job.result = result;
+                boolean cancelled = job.progress.isCancelled();
+                job.status = cancelled
+                    ? OptimizationJobDTO.Status.CANCELLED
+                    : OptimizationJobDTO.Status.COMPLETED;
+                job.finishedAt = Instant.now();
+                finishStream(job, cancelled
+                    ? OptimizationEventDTO.Type.CANCELLED
+                    : OptimizationEventDTO.Type.COMPLETED, result);
+            }
+        } catch (RuntimeException e) {
+            LOG.log(Level.SEVERE, "Optimization job " + job.id + " failed", e);
+            synchronized (job) {
+                job.error = "The optimization failed. Please try again later.";
+                job.status = OptimizationJobDTO.Status.FAILED;
+                job.finishedAt = Instant.now();
+                if (job.emitter != null) {
+                    job.emitter.fail(e);
+                }
+            }
+        }
+    }
+
+    private void finishStream(Job job, OptimizationEventDTO.Type type, OptimizationResultDTO result) {
+        if (job.emitter != null) {
+            job.emitter.emit(event(job, type, result));
+            job.emitter.complete();
+        }
+    }
+
+    private OptimizationEventDTO event(Job job, OptimizationEventDTO.Type type, OptimizationResultDTO result) {
+        OptimizationEventDTO event = new OptimizationEventDTO();
+        event.type = type;
+        event.jobId = job.id;
+        event.elapsedMs = Duration.between(job.submittedAt, Instant.now()).toMillis();
+        event.result = result;
+        if (result != null) {
+            event.gap = SolverResult.relativeGap(result.totalRevenue.doubleValue(), job.progress.bestBound());
+        }
+        return event;
+    }
+
+    private Job getJob(Long id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Optimization job", id);
+        }
+        return job;
+    }
+
+    private void evictExpired() {
+        Instant limit = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(limit));
+    }
+
+    private OptimizationJobDTO toDTO(Job job) {
+        OptimizationJobDTO dto = new OptimizationJobDTO();
+        synchronized (job) {
+            dto.id = job.id;
+            dto.status = job.status;
+            dto.submittedAt = job.submittedAt;
+            dto.startedAt = job.startedAt;
+            dto.finishedAt = job.finishedAt;
+            dto.result = job.result;
+            dto.error = job.error;
+        }
+        SearchProgress progress = job.progress;
+        dto.nodesExplored = progress.nodesExplored();
+        dto.incumbentRevenue = dto.result != null
+            ? dto.result.totalRevenue
+            : toMoney(progress.incumbentRevenue());
+        dto.bestBound = toMoney(progress.bestBound());
+        return dto;
+    }
+
+    // PT-BR: Limite infinito (raiz ainda nao avaliada) vira null no JSON.
+    // EN-US: An infinite bound (root not evaluated yet) becomes null in the JSON.
+    private static BigDecimal toMoney(double value) {
+        if (Double.isInfinite(value) || Double.isNaN(value)) {
+            return null;
+        }
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static final class Job {
+
+        final Long id;
+        final Instant submittedAt = Instant.now();
+        final SearchProgress progress = new SearchProgress();
+        final MultiEmitter<? super OptimizationEventDTO> emitter;
+        volatile Future<?> future;
+        OptimizationJobDTO.Status status = OptimizationJobDTO.Status.QUEUED;
+        Instant startedAt;
+        volatile Instant finishedAt;
+        OptimizationResultDTO result;
+        String error;
+
+        Job(Long id, MultiEmitter<? super OptimizationEventDTO> emitter) {
+            this.id = id;
+            this.emitter = emitter;
+        }
+    }
+}
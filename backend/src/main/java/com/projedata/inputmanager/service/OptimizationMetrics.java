@@ -0,0 +1,111 @@
+package com.projedata.inputmanager.service;
+
+import com.projedata.inputmanager.service.optimization.SolverResult;
+import com.projedata.inputmanager.service.optimization.TerminationReason;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// PT-BR: Metricas do solver, publicadas pela extensao Micrometer do Quarkus (Prometheus em
+//        /q/metrics). Cada solve que chega na arvore ou na programacao dinamica registra
+//        um ponto; acertos do cache nao contam, pois nao houve busca. As requisicoes HTTP
+//        ja sao medidas pela propria extensao (http_server_requests_seconds).
+//          - optimization_solve_duration_seconds: histograma, por motor e motivo de parada;
+//          - optimization_nodes_explored / _pruned, optimization_frontier_peak e
+//            optimization_incumbent_improvements: distribuicao por solve;
+//          - optimization_transposition_lookups_total / _hits_total: consultas e acertos
+//            da tabela de transposicao (a razao e a taxa de acerto);
+//          - optimization_budget_exhausted_total: solves que pararam por NODE_LIMIT,
+//            TIME_LIMIT ou FRONTIER_LIMIT, por motivo. Os contadores ja nascem em zero
+//            (@Startup cria o bean na subida, nao no primeiro solve), para que um alerta
+//            como rate(...{reason="NODE_LIMIT"}[15m]) > 0 funcione antes do primeiro
+//            estouro.
+// EN-US: Solver metrics, published by the Quarkus Micrometer extension (Prometheus at
+//        /q/metrics). Each solve that reaches the tree or dynamic programming records a
+//        point; cache hits don't count, since there was no search. HTTP requests are
+//        already measured by the extension itself (http_server_requests_seconds).
+//          - optimization_solve_duration_seconds: histogram, by engine and stop reason;
+//          - optimization_nodes_explored / _pruned, optimization_frontier_peak and
+//            optimization_incumbent_improvements: distribution per solve;
+//          - optimization_transposition_lookups_total / _hits_total: transposition table
+//            lookups and hits (the ratio is the hit rate);
+//          - optimization_budget_exhausted_total: solves that stopped on NODE_LIMIT,
+//            TIME_LIMIT or FRONTIER_LIMIT, by reason. The counters start at zero
+//            (@Startup creates the bean at boot, not on the first solve), so an alert
+//            like rate(...{reason="NODE_LIMIT"}[15m]) > 0 works before the first overrun.
+@Startup
+@ApplicationScoped
+public class OptimizationMetrics {
+
+    @Inject
+    MeterRegistry registry;
+
+    private DistributionSummary nodesExplored;
+    private DistributionSummary nodesPruned;
+    private DistributionSummary frontierPeak;
+    private DistributionSummary incumbentImprovements;
+    private Counter transpositionLookups;
+    private Counter transpositionHits;
+    private final Map<TerminationReason, Counter> budgetExhausted = new EnumMap<>(TerminationReason.class);
+
+    @PostConstruct
+    void init() {
+        nodesExplored = DistributionSummary.builder("optimization.nodes.explored")
+            .description("Branch and Bound nodes explored per solve")
+            .baseUnit("nodes")
+            .register(registry);
+        nodesPruned = DistributionSummary.builder("optimization.nodes.pruned")
+            .description("Nodes discarded by the bound per solve")
+            .baseUnit("nodes")
+            .register(registry);
+        frontierPeak = DistributionSummary.builder("optimization.frontier.peak")
+            .description("Largest number of open nodes per solve")
+            .baseUnit("nodes")
+            .register(registry);
+        incumbentImprovements = DistributionSummary.builder("optimization.incumbent.improvements")
+            .description("Times the best known plan improved per solve")
+            .register(registry);
+        transpositionLookups = Counter.builder("optimization.transposition.lookups")
+            .description("Transposition table lookups")
+            .register(registry);
+        transpositionHits = Counter.builder("optimization.transposition.hits")
+            .description("Transposition table lookups that found an already seen state")
+            .register(registry);
+        for (TerminationReason reason : new TerminationReason[] {
+            TerminationReason.NODE_LIMIT, TerminationReason.TIME_LIMIT, TerminationReason.FRONTIER_LIMIT}) {
+            budgetExhausted.put(reason, Counter.builder("optimization.budget.exhausted")
+                .description("Solves that stopped before proving the optimum because a budget ran out")
+                .tag("reason", reason.name())
+                .register(registry));
+        }
+    }
+
+    public void record(SolverResult solved, long durationNanos) {
+        Timer.builder("optimization.solve.duration")
+            .description("Solver time per optimization, without loading the catalog")
+            .tag("engine", solved.engine.name())
+            .tag("termination", solved.terminationReason.name())
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+        nodesExplored.record(solved.nodesExplored);
+        nodesPruned.record(solved.nodesPruned);
+        frontierPeak.record(solved.peakFrontierSize);
+        incumbentImprovements.record(solved.incumbentImprovements);
+        transpositionLookups.increment(solved.transpositionLookups);
+        transpositionHits.increment(solved.transpositionHits);
+        Counter exhausted = budgetExhausted.get(solved.terminationReason);
+        if (exhausted != null) {
+            exhausted.increment();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.projedata.inputmanager.service;
+
+import com.projedata.inputmanager.dto.OptimizationCacheStatsDTO;
+import com.projedata.inputmanager.dto.OptimizationResultDTO;
+import com.projedata.inputmanager.service.optimization.SolverOptions;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// PT-BR: Cache dos resultados da otimizacao. O dashboard e os planejadores chamam o
+//        otimizador varias vezes por minuto e, na maioria das vezes, nada mudou entre
+//        uma chamada e outra. A chave e a versao do catalogo mais as opcoes do solver: os
+//        services chamam invalidate() a cada escrita em produtos, composicoes ou estoque,
+//        o que incrementa a versao. Assim uma consulta ao cache custa uma leitura de um
+//        contador, sem nenhuma consulta ao banco. Escritas que nao passam pelos services
+//        (scripts, outra instancia) precisam chamar invalidate() tambem.
+// EN-US: Cache of optimization results. The dashboard and planners call the optimizer
+//        many times a minute and, most of the time, nothing changed between one call and
+//        the next. The key is the catalog version plus the solver options: the services
+//        call invalidate() on every write to products, compositions or stock, which bumps
+//        the version. So a cache lookup costs one counter read, with no database query.
+//        Writes that bypass the services (scripts, another instance) must call
+//        invalidate() as well.
+@ApplicationScoped
+public class OptimizationResultCache {
+
+    @Inject
+    TransactionSynchronizationRegistry transactions;
+
+    @ConfigProperty(name = "optimization.cache.max-entries", defaultValue = "32")
+    int maxEntries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
+
+    // PT-BR: LRU pequeno: a chave inclui as opcoes do solver, entao o mesmo catalogo pode
+    //        ter mais de uma entrada (por exemplo, orcamentos diferentes).
+    // EN-US: Small LRU: the key includes the solver options, so the same catalog may have
+    //        more than one entry (for example, different budgets).
+    private final Map<String, OptimizationResultDTO> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, OptimizationResultDTO> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    public String keyFor(SolverOptions options) {
+        return version.get() + "/" + options.signature();
+    }
+
+    // PT-BR: Retorna uma copia do resultado guardado (com o tempo da consulta ao cache e
+    //        cached = true), ou null se nao houver entrada para a chave. A copia inclui as
+    //        listas e os itens, entao quem recebe pode altera-la sem mexer no cache.
+    // EN-US: Returns a copy of the stored result (with the cache lookup time and
+    //        cached = true), or null if there's no entry for the key. The copy includes
+    //        the lists and their items, so the caller may change it without touching
+    //        the cache.
+    public OptimizationResultDTO get(String key, long startTime) {
+        OptimizationResultDTO stored;
+        synchronized (entries) {
+            stored = entries.get(key);
+        }
+        if (stored == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+
+        OptimizationResultDTO copy = copyOf(stored);
+        copy.computationTimeMs = System.currentTimeMillis() - startTime;
+        copy.cached = true;
+        return copy;
+    }
+
+    // PT-BR: Guarda uma copia: o chamador ainda devolve o proprio resultado para o cliente.
+    // EN-US: Stores a copy: the caller still hands its own result to the client.
+    public void put(String key, OptimizationResultDTO result) {
+        OptimizationResultDTO copy = copyOf(result);
+        synchronized (entries) {
+            entries.put(key, copy);
+        }
+    }
+
+    // PT-BR: Incrementa a versao agora e, dentro de uma transacao, de novo depois que ela
+    //        termina: uma otimizacao que leu a versao nova mas carregou o catalogo antes
+    //        do commit guardaria dados antigos sob essa versao.
+    // EN-US: Bumps the version now and, inside a transaction, again once it completes: an
+    //        optimization that read the new version but loaded the catalog before the
+    //        commit would store old data under that version.
+    public void invalidate() {
+        bump();
+        invalidations.incrementAndGet();
+        if (transactions.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            transactions.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    bump();
+                }
+            });
+        }
+    }
+
+    private void bump() {
+        synchronized (entries) {
+            version.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public OptimizationCacheStatsDTO stats() {
+        OptimizationCacheStatsDTO stats = new OptimizationCacheStatsDTO();
+        stats.hits = hits.get();
+        stats.misses = misses.get();
+        stats.invalidations = invalidations.get();
+        synchronized (entries) {
+            stats.entries = entries.size();
+        }
+        long lookups = stats.hits + stats.misses;
+        stats.hitRate = lookups > 0 ? (double) stats.hits / lookups : 0.0;
+        return stats;
+    }
+
+    private static OptimizationResultDTO copyOf(OptimizationResultDTO source) {
+        OptimizationResultDTO copy = new OptimizationResultDTO();
+        copy.totalRevenue = source.totalRevenue;
+        copy.computationTimeMs = source.computationTimeMs;
+        copy.cached = source.cached;
+        copy.productionPlan = new ArrayList<>(source.productionPlan.size());
+        for (OptimizationResultDTO.ProductionItem item : source.productionPlan) {
+            OptimizationResultDTO.ProductionItem itemCopy = new OptimizationResultDTO.ProductionItem();
+            itemCopy.productId = item.productId;
+            itemCopy.productName = item.productName;
+            itemCopy.productCode = item.productCode;
+            itemCopy.quantityToProduce = item.quantityToProduce;
+            itemCopy.unitPrice = item.unitPrice;
+            itemCopy.subtotal = item.subtotal;
+            itemCopy.reducedCost = item.reducedCost;
+            copy.productionPlan.add(itemCopy);
+        }
+        copy.materialUsage = new ArrayList<>(source.materialUsage.size());
+        for (OptimizationResultDTO.MaterialUsage usage : source.materialUsage) {
+            OptimizationResultDTO.MaterialUsage usageCopy = new OptimizationResultDTO.MaterialUsage();
+            usageCopy.rawMaterialId = usage.rawMaterialId;
+            usageCopy.rawMaterialName = usage.rawMaterialName;
+            usageCopy.totalAvailable = usage.totalAvailable;
+            usageCopy.totalUsed = usage.totalUsed;
+            usageCopy.remaining = usage.remaining;
+            usageCopy.unit = usage.unit;
+            usageCopy.usagePercentage = usage.usagePercentage;
+            usageCopy.shadowPrice = usage.shadowPrice;
+            usageCopy.binding = usage.binding;
+            copy.materialUsage.add(usageCopy);
+        }
+        copy.diagnostics = copyOf(source.diagnostics);
+        return copy;
+    }
+
+    private static OptimizationResultDTO.Diagnostics copyOf(OptimizationResultDTO.Diagnostics source) {
+        if (source == null) {
+            return null;
+        }
+        OptimizationResultDTO.Diagnostics copy = new OptimizationResultDTO.Diagnostics();
+        copy.terminationReason = source.terminationReason;
+        copy.engine = source.engine;
+        copy.components = source.components;
+        copy.coverCuts = source.coverCuts;
+        copy.transpositionHitRate = source.transpositionHitRate;
+        copy.transpositionPrunes = source.transpositionPrunes;
+        copy.bestBound = source.bestBound;
+        copy.optimalityGap = source.optimalityGap;
+        copy.nodesExplored = source.nodesExplored;
+        copy.nodesPruned = source.nodesPruned;
+        copy.nodesEvicted = source.nodesEvicted;
+        copy.nodesSpilled = source.nodesSpilled;
+        copy.allocatedBytes = source.allocatedBytes;
+        copy.maxNodes = source.maxNodes;
+        copy.maxTimeMs = source.maxTimeMs;
+        return copy;
+    }
+}
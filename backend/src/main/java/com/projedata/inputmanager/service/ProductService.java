@@ -36,6 +36,9 @@ public class ProductService {
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    OptimizationResultCache resultCache;
+
     public List<ProductDTO> listAll() {
         return repository.listAll().stream()
             .map(this::toDTO)
@@ -77,6 +80,7 @@ public class ProductService {
         }
 
         repository.persist(entity);
+        resultCache.invalidate();
         return toDTO(entity);
     }
 
@@ -117,6 +121,7 @@ public class ProductService {
         }
 
         repository.persist(entity);
+        resultCache.invalidate();
         return toDTO(entity);
     }
 
@@ -127,6 +132,7 @@ public class ProductService {
             throw new ResourceNotFoundException("Product", id);
         }
         repository.delete(entity);
+        resultCache.invalidate();
     }
 
     // PT-BR: Monta uma composicao a partir do DTO, validando que a materia-prima existe
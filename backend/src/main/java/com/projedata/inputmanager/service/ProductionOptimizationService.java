@@ -2,22 +2,38 @@ package com.projedata.inputmanager.service;
 
 import com.projedata.inputmanager.dto.OptimizationResultDTO;
 import com.projedata.inputmanager.model.Product;
-import com.projedata.inputmanager.model.ProductComposition;
 import com.projedata.inputmanager.model.RawMaterial;
 import com.projedata.inputmanager.repository.ProductRepository;
 import com.projedata.inputmanager.repository.RawMaterialRepository;
+import com.projedata.inputmanager.service.optimization.BoundStrategy;
+import com.projedata.inputmanager.service.optimization.BranchAndBoundSolver;
+import com.projedata.inputmanager.service.optimization.BranchingMode;
+import com.projedata.inputmanager.service.optimization.BranchingOrder;
+import com.projedata.inputmanager.service.optimization.KernelMode;
+import com.projedata.inputmanager.service.optimization.Kernels;
+import com.projedata.inputmanager.service.optimization.OptimizationProblem;
+import com.projedata.inputmanager.service.optimization.PrimalHeuristic;
+import com.projedata.inputmanager.service.optimization.SearchProgress;
+import com.projedata.inputmanager.service.optimization.Sensitivity;
+import com.projedata.inputmanager.service.optimization.SolverOptions;
+import com.projedata.inputmanager.service.optimization.SolverResult;
+import com.projedata.inputmanager.service.optimization.TerminationReason;
+import com.projedata.inputmanager.service.optimization.ValueOrder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Map;
-import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
 
 // PT-BR: Servico de otimizacao de producao. Este e o coracao do sistema -- o algoritmo
 //        que decide o que a fabrica deve produzir para maximizar o lucro com os insumos
@@ -39,8 +55,7 @@ import java.util.PriorityQueue;
 @ApplicationScoped
 public class ProductionOptimizationService {
 
-    private static final int MAX_NODES = 100_000;
-    private static final long MAX_COMPUTATION_TIME_MS = 10_000;
+    private static final Logger LOG = Logger.getLogger(ProductionOptimizationService.class.getName());
 
     @Inject
     ProductRepository productRepository;
@@ -48,268 +63,262 @@ public class ProductionOptimizationService {
     @Inject
     RawMaterialRepository rawMaterialRepository;
 
-    // PT-BR: Nodo na arvore de busca do Branch and Bound. Cada nodo representa uma decisao
-    //        parcial: para os primeiros 'level' produtos, ja decidimos quantas unidades
-    //        fabricar. O upperBound nos diz o melhor cenario possivel a partir deste nodo.
-    // EN-US: Node in the Branch and Bound search tree. Each node represents a partial
-    //        decision: for the first 'level' products, we've already decided how many units
-    //        to manufacture. The upperBound tells us the best possible scenario from this node.
-    private static class BBNode {
-        int[] production;
-        int level;
-        double currentRevenue;
-        double upperBound;
-
-        BBNode(int[] production, int level, double currentRevenue) {
-            this.production = production;
-            this.level = level;
-            this.currentRevenue = currentRevenue;
-        }
-    }
+    @Inject
+    OptimizationResultCache resultCache;
 
-    public OptimizationResultDTO optimize() {
-        long startTime = System.currentTimeMillis();
+    @Inject
+    OptimizationMetrics metrics;
 
-        List<Product> allProducts = productRepository.listAll();
-        List<RawMaterial> allMaterials = rawMaterialRepository.listAll();
+    // PT-BR: Orcamento padrao da busca e o teto que uma requisicao pode pedir.
+    // EN-US: Default search budget and the ceiling a request may ask for.
+    @ConfigProperty(name = "optimization.max-nodes", defaultValue = "100000")
+    int maxNodes;
 
-        // PT-BR: Filtramos apenas os produtos que tem composicao definida.
-        //        Um produto sem receita nao faz sentido na otimizacao.
-        // EN-US: We filter only products that have a defined composition.
-        //        A product without a recipe doesn't make sense in the optimization.
-        List<Product> products = allProducts.stream()
-            .filter(p -> p.compositions != null && !p.compositions.isEmpty())
-            .toList();
+    @ConfigProperty(name = "optimization.max-time-ms", defaultValue = "10000")
+    long maxTimeMs;
 
-        if (products.isEmpty() || allMaterials.isEmpty()) {
-            return buildEmptyResult(allMaterials, startTime);
-        }
+    @ConfigProperty(name = "optimization.max-nodes-limit", defaultValue = "5000000")
+    int maxNodesLimit;
 
-        // PT-BR: Construimos um mapa de indice para acessar rapidamente os dados das
-        //        materias-primas. Isso evita buscas O(n) repetidas durante a otimizacao.
-        // EN-US: We build an index map for quick access to raw material data.
-        //        This avoids repeated O(n) lookups during optimization.
-        Map<Long, Integer> materialIndexMap = new HashMap<>();
-        for (int j = 0; j < allMaterials.size(); j++) {
-            materialIndexMap.put(allMaterials.get(j).id, j);
-        }
+    @ConfigProperty(name = "optimization.max-time-ms-limit", defaultValue = "300000")
+    long maxTimeMsLimit;
 
-        int n = products.size();
-        int m = allMaterials.size();
+    @ConfigProperty(name = "optimization.branching-mode", defaultValue = "INTERVAL")
+    BranchingMode branchingMode;
 
-        double[] prices = new double[n];
-        double[] stock = new double[m];
-        double[][] consumption = new double[m][n];
+    @ConfigProperty(name = "optimization.bound-strategy", defaultValue = "LP_RELAXATION")
+    BoundStrategy boundStrategy;
 
-        for (int j = 0; j < m; j++) {
-            stock[j] = allMaterials.get(j).stockQuantity.doubleValue();
-        }
+    @ConfigProperty(name = "optimization.branching-order", defaultValue = "PSEUDO_COST")
+    BranchingOrder branchingOrder;
 
-        for (int i = 0; i < n; i++) {
-            prices[i] = products.get(i).salePrice.doubleValue();
+    @ConfigProperty(name = "optimization.value-order", defaultValue = "ASCENDING")
+    ValueOrder valueOrder;
 
-            for (ProductComposition comp : products.get(i).compositions) {
-                Integer matIndex = materialIndexMap.get(comp.rawMaterial.id);
-                if (matIndex != null) {
-                    consumption[matIndex][i] = comp.requiredQuantity.doubleValue();
-                }
-            }
-        }
+    @ConfigProperty(name = "optimization.primal-heuristics",
+                    defaultValue = "GREEDY,RELAXATION_ROUNDING,LOCAL_SEARCH")
+    List<PrimalHeuristic> primalHeuristics;
 
-        // PT-BR: Calculamos o maximo de unidades que cada produto pode ter individualmente,
-        //        considerando cada materia-prima como gargalo potencial.
-        // EN-US: We calculate the maximum units each product can have individually,
-        //        considering each raw material as a potential bottleneck.
-        int[] maxUnits = new int[n];
-        for (int i = 0; i < n; i++) {
-            maxUnits[i] = Integer.MAX_VALUE;
-            for (int j = 0; j < m; j++) {
-                if (consumption[j][i] > 0) {
-                    maxUnits[i] = Math.min(maxUnits[i], (int) (stock[j] / consumption[j][i]));
-                }
-            }
-            if (maxUnits[i] == Integer.MAX_VALUE) {
-                maxUnits[i] = 0;
-            }
-        }
+    @ConfigProperty(name = "optimization.presolve", defaultValue = "true")
+    boolean presolve;
 
-        int[] bestSolution = branchAndBound(n, m, prices, stock, consumption, maxUnits, startTime);
-        double bestRevenue = 0;
-        for (int i = 0; i < n; i++) {
-            bestRevenue += prices[i] * bestSolution[i];
-        }
+    @ConfigProperty(name = "optimization.max-frontier-nodes", defaultValue = "20000")
+    int maxFrontierNodes;
 
-        return buildResult(products, allMaterials, bestSolution, bestRevenue,
-                          consumption, stock, materialIndexMap, startTime);
-    }
+    @ConfigProperty(name = "optimization.frontier-spill-mb", defaultValue = "0")
+    int frontierSpillMb;
 
-    // PT-BR: O Branch and Bound funciona assim: exploramos uma arvore de decisoes onde
-    //        cada nivel decide quantas unidades de um produto fabricar. Em cada nodo,
-    //        calculamos um limite superior (usando relaxacao linear) do melhor resultado
-    //        possivel. Se esse limite e pior que a melhor solucao ja encontrada, podamos
-    //        esse ramo inteiro -- nao vale a pena explorar mais.
-    //
-    //        Usamos busca pelo melhor primeiro (best-first search) para encontrar boas
-    //        solucoes rapidamente, o que melhora a poda e acelera a convergencia.
-    //
-    // EN-US: Branch and Bound works like this: we explore a decision tree where each
-    //        level decides how many units of a product to manufacture. At each node,
-    //        we calculate an upper bound (using linear relaxation) of the best possible
-    //        result. If this bound is worse than the best solution already found, we prune
-    //        that entire branch -- it's not worth exploring further.
-    //
-    //        We use best-first search to find good solutions quickly, which improves
-    //        pruning and accelerates convergence.
-    private int[] branchAndBound(int n, int m, double[] prices, double[] stock,
-                                  double[][] consumption, int[] maxUnits, long startTime) {
-
-        PriorityQueue<BBNode> queue = new PriorityQueue<>(
-            Comparator.comparingDouble(node -> -node.upperBound)
-        );
-
-        int[] rootProduction = new int[n];
-        BBNode root = new BBNode(rootProduction, 0, 0.0);
-        root.upperBound = calculateUpperBound(root, n, m, prices, stock, consumption);
-        queue.add(root);
-
-        double bestRevenue = 0;
-        int[] bestSolution = new int[n];
-        int nodesExplored = 0;
-
-        while (!queue.isEmpty()) {
-            // PT-BR: Verificamos os limites de tempo e nos para evitar travar o servidor
-            // EN-US: Check time and node limits to avoid locking up the server
-            if (nodesExplored >= MAX_NODES) break;
-            if (System.currentTimeMillis() - startTime > MAX_COMPUTATION_TIME_MS) break;
-
-            BBNode node = queue.poll();
-            nodesExplored++;
-
-            if (node.upperBound <= bestRevenue) continue;
-
-            if (node.level == n) {
-                if (node.currentRevenue > bestRevenue) {
-                    bestRevenue = node.currentRevenue;
-                    bestSolution = Arrays.copyOf(node.production, n);
-                }
-                continue;
-            }
+    @ConfigProperty(name = "optimization.dynamic-programming", defaultValue = "true")
+    boolean dynamicProgramming;
 
-            int productIndex = node.level;
+    @ConfigProperty(name = "optimization.decompose", defaultValue = "true")
+    boolean decompose;
 
-            for (int qty = 0; qty <= maxUnits[productIndex]; qty++) {
-                boolean feasible = checkFeasibility(node, productIndex, qty, m, consumption, stock);
+    @ConfigProperty(name = "optimization.cover-cuts", defaultValue = "true")
+    boolean coverCuts;
 
-                if (!feasible) break;
+    @ConfigProperty(name = "optimization.transposition-table-mb", defaultValue = "0")
+    int transpositionTableMb;
 
-                int[] childProd = Arrays.copyOf(node.production, n);
-                childProd[productIndex] = qty;
-                double childRevenue = node.currentRevenue + prices[productIndex] * qty;
+    @ConfigProperty(name = "optimization.parallelism", defaultValue = "1")
+    int parallelism;
 
-                BBNode child = new BBNode(childProd, node.level + 1, childRevenue);
-                child.upperBound = calculateUpperBound(child, n, m, prices, stock, consumption);
+    @ConfigProperty(name = "optimization.kernels", defaultValue = "SCALAR")
+    KernelMode kernels;
 
-                if (child.upperBound > bestRevenue) {
-                    queue.add(child);
-                }
-            }
+    // PT-BR: Pool compartilhado pelas buscas paralelas. Criado uma unica vez para que cada
+    //        requisicao nao pague o custo de subir threads, e para que varias otimizacoes
+    //        simultaneas dividam o mesmo numero limitado de threads.
+    // EN-US: Pool shared by the parallel searches. Created only once so each request
+    //        doesn't pay the cost of starting threads, and so several simultaneous
+    //        optimizations share the same bounded number of threads.
+    private ForkJoinPool forkJoinPool;
+
+    @PostConstruct
+    void init() {
+        if (Kernels.select(kernels) != kernels) {
+            LOG.warning("optimization.kernels=" + kernels + " needs a -Pvector build and --add-modules jdk.incubator.vector;"
+                + " using " + Kernels.mode());
+        }
+        if (parallelism > 1) {
+            forkJoinPool = new ForkJoinPool(parallelism);
         }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (forkJoinPool != null) {
+            forkJoinPool.shutdownNow();
+        }
+    }
 
-        return bestSolution;
+    public OptimizationResultDTO optimize() {
+        return optimize(defaultOptions());
     }
 
-    // PT-BR: Verifica se produzir 'qty' unidades do produto 'productIndex' e viavel,
-    //        considerando o que ja foi decidido nos niveis anteriores da arvore.
-    // EN-US: Checks if producing 'qty' units of product 'productIndex' is feasible,
-    //        considering what was already decided in previous tree levels.
-    private boolean checkFeasibility(BBNode node, int productIndex, int qty,
-                                      int m, double[][] consumption, double[] stock) {
-        for (int j = 0; j < m; j++) {
-            double used = 0;
-            for (int i = 0; i < node.level; i++) {
-                used += consumption[j][i] * node.production[i];
+    // PT-BR: Opcoes do solver conforme o application.properties.
+    // EN-US: Solver options as configured in application.properties.
+    public SolverOptions defaultOptions() {
+        SolverOptions options = new SolverOptions();
+        options.maxNodes = maxNodes;
+        options.maxTimeMs = maxTimeMs;
+        options.branchingMode = branchingMode;
+        options.boundStrategy = boundStrategy;
+        options.branchingOrder = branchingOrder;
+        options.valueOrder = valueOrder;
+        options.heuristics = EnumSet.copyOf(primalHeuristics);
+        options.presolve = presolve;
+        options.maxFrontierNodes = maxFrontierNodes;
+        options.frontierSpillBytes = frontierSpillMb * 1024L * 1024L;
+        options.dynamicProgramming = dynamicProgramming;
+        options.decompose = decompose;
+        options.coverCuts = coverCuts;
+        options.sensitivity = true;
+        options.transpositionTableBytes = transpositionTableMb * 1024L * 1024L;
+        options.parallelism = parallelism;
+        options.forkJoinPool = forkJoinPool;
+        return options;
+    }
+
+    // PT-BR: Opcoes com o orcamento pedido pela requisicao (null = padrao). Um painel pode
+    //        pedir poucos milissegundos e aceitar um plano com gap; o planejamento noturno
+    //        pode pedir minutos para provar o otimo. Valores fora de (0, teto] sao
+    //        rejeitados com 400.
+    // EN-US: Options with the budget asked for by the request (null = default). A dashboard
+    //        may ask for a few milliseconds and accept a plan with a gap; nightly planning
+    //        may ask for minutes to prove the optimum. Values outside (0, ceiling] are
+    //        rejected with 400.
+    public SolverOptions options(Integer requestedMaxNodes, Long requestedMaxTimeMs) {
+        SolverOptions options = defaultOptions();
+        if (requestedMaxNodes != null) {
+            if (requestedMaxNodes <= 0 || requestedMaxNodes > maxNodesLimit) {
+                throw new IllegalArgumentException("maxNodes must be between 1 and " + maxNodesLimit);
             }
-            used += consumption[j][productIndex] * qty;
-            if (used > stock[j] + 1e-9) {
-                return false;
+            options.maxNodes = requestedMaxNodes;
+        }
+        if (requestedMaxTimeMs != null) {
+            if (requestedMaxTimeMs <= 0 || requestedMaxTimeMs > maxTimeMsLimit) {
+                throw new IllegalArgumentException("maxTimeMs must be between 1 and " + maxTimeMsLimit);
             }
+            options.maxTimeMs = requestedMaxTimeMs;
         }
-        return true;
+        return options;
     }
 
-    // PT-BR: Calcula o limite superior (upper bound) valido para o problema da mochila
-    //        multidimensional. Para cada produto ainda nao decidido, calculamos
-    //        independentemente o maximo fracionario que ele poderia produzir com os
-    //        recursos restantes, SEM consumir esses recursos (permitindo "duplicacao").
-    //        Isso garante uma SUPERESTIMATIVA -- o bound nunca e menor que a solucao
-    //        otima real, portanto nunca podamos um ramo que contenha a solucao otima.
-    //
-    //        A versao anterior usava preenchimento sequencial (consomia recursos para cada
-    //        produto antes de calcular o proximo), o que gerava um bound SUBESTIMADO.
-    //        Isso fazia o algoritmo podar ramos com a solucao otima, retornando resultado
-    //        subotimo (ex: so produzia o primeiro produto, ignorando combinacoes melhores).
-    //
-    // EN-US: Calculates a valid upper bound for the multi-dimensional knapsack problem.
-    //        For each undecided product, we independently calculate the maximum fractional
-    //        units it could produce with the remaining resources, WITHOUT consuming those
-    //        resources (allowing "overlap"). This guarantees an OVERESTIMATE -- the bound
-    //        is never less than the real optimal solution, so we never prune a branch
-    //        that contains the optimal solution.
-    //
-    //        The previous version used sequential fill (consuming resources for each product
-    //        before calculating the next), which generated an UNDERESTIMATE. This caused the
-    //        algorithm to prune branches containing the optimal solution, returning suboptimal
-    //        results (e.g., only producing the first product, ignoring better combinations).
-    private double calculateUpperBound(BBNode node, int n, int m,
-                                        double[] prices, double[] stock,
-                                        double[][] consumption) {
-        double bound = node.currentRevenue;
-        double[] remaining = Arrays.copyOf(stock, m);
-
-        for (int i = 0; i < node.level; i++) {
-            for (int j = 0; j < m; j++) {
-                remaining[j] -= consumption[j][i] * node.production[i];
-            }
+    public OptimizationResultDTO optimize(SolverOptions options) {
+        return optimize(options, null);
+    }
+
+    // PT-BR: Consulta o cache antes de carregar o catalogo. A chave depende da versao do
+    //        catalogo e das opcoes, entao um acerto devolve exatamente o plano que seria
+    //        recalculado.
+    //        So planos comprovadamente otimos entram no cache: uma busca cancelada ou que
+    //        parou num limite tem um plano parcial, que outra tentativa pode melhorar. A
+    //        chave e conferida de novo antes de guardar (uma leitura do contador): se os dados
+    //        mudaram enquanto o catalogo era carregado, o plano nao corresponde a chave antiga.
+    //        Se onImprovement for informado, cada novo incumbente e entregue como um
+    //        resultado parcial completo (plano e uso de materiais) enquanto a busca segue.
+    //        @ActivateRequestContext permite chamar este metodo das threads dos jobs
+    //        assincronos, que nao tem contexto de requisicao para o Hibernate.
+    // EN-US: Checks the cache before loading the catalog. The key depends on the catalog
+    //        version and the options, so a hit returns exactly the plan that would be
+    //        recomputed.
+    //        Only proven optimal plans go into the cache: a search that was cancelled or
+    //        stopped at a limit has a partial plan, which another attempt may improve. The
+    //        key is checked again before storing (one counter read): if the data changed
+    //        while the catalog was being loaded, the plan doesn't match the old key.
+    //        If onImprovement is given, each new incumbent is delivered as a complete
+    //        partial result (plan and material usage) while the search goes on.
+    //        @ActivateRequestContext allows calling this method from the asynchronous job
+    //        threads, which have no request context for Hibernate.
+    @ActivateRequestContext
+    public OptimizationResultDTO optimize(SolverOptions options,
+                                          Consumer<OptimizationResultDTO> onImprovement) {
+        long startTime = System.currentTimeMillis();
+
+        String cacheKey = resultCache.keyFor(options);
+        OptimizationResultDTO cached = resultCache.get(cacheKey, startTime);
+        if (cached != null) {
+            return cached;
         }
 
-        // PT-BR: Para cada produto restante, calculamos o maximo INDEPENDENTE que ele
-        //        poderia produzir com os recursos disponiveis. Nao atualizamos remaining
-        //        porque cada produto calcula isoladamente -- isso da um bound valido
-        //        (superestimado) que nunca poda a solucao otima.
-        // EN-US: For each remaining product, we calculate the INDEPENDENT maximum it could
-        //        produce with available resources. We don't update remaining because each
-        //        product calculates in isolation -- this gives a valid (overestimated) bound
-        //        that never prunes the optimal solution.
-        for (int i = node.level; i < n; i++) {
-            double maxFractionalUnits = Double.MAX_VALUE;
-            boolean hasConstraint = false;
-
-            for (int j = 0; j < m; j++) {
-                if (consumption[j][i] > 1e-9) {
-                    hasConstraint = true;
-                    maxFractionalUnits = Math.min(maxFractionalUnits, remaining[j] / consumption[j][i]);
-                }
-            }
+        OptimizationResultDTO result = solve(options, onImprovement, startTime);
+        if (result.diagnostics.terminationReason == TerminationReason.OPTIMAL
+                && (options.progress == null || !options.progress.isCancelled())
+                && cacheKey.equals(resultCache.keyFor(options))) {
+            resultCache.put(cacheKey, result);
+        }
+        return result;
+    }
 
-            if (!hasConstraint) continue;
+    private OptimizationResultDTO solve(SolverOptions options,
+                                        Consumer<OptimizationResultDTO> onImprovement,
+                                        long startTime) {
+        return solve(loadCatalog(), options, onImprovement, startTime);
+    }
 
-            if (maxFractionalUnits > 0) {
-                bound += prices[i] * maxFractionalUnits;
-                // PT-BR: NAO atualizamos remaining[] aqui! Cada produto usa o estoque
-                //        completo independentemente. Isso garante um upper bound valido.
-                // EN-US: We do NOT update remaining[] here! Each product uses the full
-                //        stock independently. This ensures a valid upper bound.
+    // PT-BR: Carrega produtos e insumos e monta o modelo numerico (uma consulta por tabela).
+    // EN-US: Loads products and inputs and builds the numeric model (one query per table).
+    OptimizationCatalog loadCatalog() {
+        return OptimizationCatalog.build(productRepository.listAll(), rawMaterialRepository.listAll());
+    }
+
+    // PT-BR: Resolve um catalogo ja carregado. Nao acessa o banco, entao pode rodar fora da
+    //        thread da requisicao (os cenarios em lote usam isso). O ouvinte e preso a uma
+    //        copia das opcoes: as de quem chamou nao mudam.
+    // EN-US: Solves an already loaded catalog. Doesn't touch the database, so it may run
+    //        outside the request thread (the batch scenarios rely on that). The listener
+    //        is attached to a copy of the options: the caller's ones don't change.
+    OptimizationResultDTO solve(OptimizationCatalog catalog, SolverOptions options,
+                                Consumer<OptimizationResultDTO> onImprovement, long startTime) {
+        if (catalog.isEmpty()) {
+            return buildEmptyResult(catalog, options, startTime);
+        }
+
+        SolverOptions solveOptions = options.copy();
+        if (onImprovement != null) {
+            if (solveOptions.progress == null) {
+                solveOptions.progress = new SearchProgress();
             }
+            solveOptions.progress.setIncumbentListener((revenue, production) ->
+                onImprovement.accept(buildResult(catalog, production, revenue, startTime)));
+        }
+        long solveStart = System.nanoTime();
+        SolverResult solved = new BranchAndBoundSolver(catalog.problem, solveOptions).solve(startTime);
+        metrics.record(solved, System.nanoTime() - solveStart);
+
+        OptimizationResultDTO result = buildResult(catalog, solved.solution, solved.revenue, startTime);
+        result.diagnostics = diagnostics(solved, options);
+        if (solved.sensitivity != null) {
+            applySensitivity(result, solved.sensitivity);
+        }
+        return result;
+    }
+
+    // PT-BR: Precos sombra, insumos esgotados e custos reduzidos da relaxacao da raiz, que
+    //        o solver ja guardou ao resolve-la. So o resultado final recebe: os parciais do
+    //        stream sairiam iguais a cada melhoria.
+    // EN-US: Shadow prices, exhausted inputs and reduced costs from the root relaxation,
+    //        which the solver already kept while solving it. Only the final result gets
+    //        them: the stream's partials would repeat them on every improvement.
+    private static void applySensitivity(OptimizationResultDTO result, Sensitivity sensitivity) {
+        for (int i = 0; i < result.productionPlan.size(); i++) {
+            result.productionPlan.get(i).reducedCost = scaled(sensitivity.reducedCosts[i]);
+        }
+        for (int j = 0; j < result.materialUsage.size(); j++) {
+            OptimizationResultDTO.MaterialUsage usage = result.materialUsage.get(j);
+            usage.shadowPrice = scaled(sensitivity.shadowPrices[j]);
+            usage.binding = sensitivity.binding[j];
         }
+    }
 
-        return bound;
+    private static BigDecimal scaled(double value) {
+        return BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP);
     }
 
-    private OptimizationResultDTO buildResult(List<Product> products, List<RawMaterial> materials,
-                                               int[] solution, double revenue,
-                                               double[][] consumption, double[] stock,
-                                               Map<Long, Integer> materialIndexMap,
+    private OptimizationResultDTO buildResult(OptimizationCatalog catalog, int[] solution, double revenue,
                                                long startTime) {
+        OptimizationProblem problem = catalog.problem;
         OptimizationResultDTO result = new OptimizationResultDTO();
         result.totalRevenue = BigDecimal.valueOf(revenue).setScale(2, RoundingMode.HALF_UP);
         result.computationTimeMs = System.currentTimeMillis() - startTime;
@@ -317,62 +326,93 @@ public class ProductionOptimizationService {
         // PT-BR: Montamos o plano de producao com detalhes de cada produto
         // EN-US: We build the production plan with details for each product
         result.productionPlan = new ArrayList<>();
-        for (int i = 0; i < products.size(); i++) {
-            Product p = products.get(i);
+        for (int i = 0; i < catalog.products.size(); i++) {
+            Product p = catalog.products.get(i);
             OptimizationResultDTO.ProductionItem item = new OptimizationResultDTO.ProductionItem();
             item.productId = p.id;
             item.productName = p.name;
             item.productCode = p.code;
             item.quantityToProduce = solution[i];
-            item.unitPrice = p.salePrice;
-            item.subtotal = p.salePrice.multiply(BigDecimal.valueOf(solution[i]));
+            item.unitPrice = catalog.salePrices[i];
+            item.subtotal = catalog.salePrices[i].multiply(BigDecimal.valueOf(solution[i]));
             result.productionPlan.add(item);
         }
 
         // PT-BR: Calculamos o uso de cada materia-prima para dar visibilidade ao gerente
         // EN-US: We calculate the usage of each raw material to give visibility to the manager
         result.materialUsage = new ArrayList<>();
-        for (int j = 0; j < materials.size(); j++) {
-            RawMaterial mat = materials.get(j);
+        for (int j = 0; j < catalog.materials.size(); j++) {
+            RawMaterial mat = catalog.materials.get(j);
+            BigDecimal available = catalog.stockQuantities[j];
             double totalUsed = 0;
 
-            for (int i = 0; i < products.size(); i++) {
-                totalUsed += consumption[j][i] * solution[i];
+            for (int r = problem.rowStart[j]; r < problem.rowStart[j + 1]; r++) {
+                totalUsed += problem.rowAmount[r] * solution[problem.rowProduct[r]];
             }
 
             OptimizationResultDTO.MaterialUsage usage = new OptimizationResultDTO.MaterialUsage();
             usage.rawMaterialId = mat.id;
             usage.rawMaterialName = mat.name;
-            usage.totalAvailable = mat.stockQuantity;
+            usage.totalAvailable = available;
             usage.totalUsed = BigDecimal.valueOf(totalUsed).setScale(4, RoundingMode.HALF_UP);
-            usage.remaining = mat.stockQuantity.subtract(usage.totalUsed);
+            usage.remaining = available.subtract(usage.totalUsed);
             usage.unit = mat.unit;
-            usage.usagePercentage = stock[j] > 0 ? (totalUsed / stock[j]) * 100.0 : 0.0;
+            usage.usagePercentage = problem.stock[j] > 0 ? (totalUsed / problem.stock[j]) * 100.0 : 0.0;
             result.materialUsage.add(usage);
         }
 
         return result;
     }
 
-    private OptimizationResultDTO buildEmptyResult(List<RawMaterial> materials, long startTime) {
+    private static OptimizationResultDTO.Diagnostics diagnostics(SolverResult solved, SolverOptions options) {
+        OptimizationResultDTO.Diagnostics diagnostics = new OptimizationResultDTO.Diagnostics();
+        diagnostics.terminationReason = solved.terminationReason;
+        diagnostics.engine = solved.engine;
+        diagnostics.components = solved.components;
+        diagnostics.coverCuts = solved.coverCuts;
+        diagnostics.transpositionHitRate = solved.transpositionLookups > 0
+            ? (double) solved.transpositionHits / solved.transpositionLookups
+            : null;
+        diagnostics.transpositionPrunes = solved.transpositionPrunes;
+        diagnostics.bestBound = BigDecimal.valueOf(solved.bestBound).setScale(2, RoundingMode.HALF_UP);
+        diagnostics.optimalityGap = SolverResult.relativeGap(solved.revenue, solved.bestBound);
+        diagnostics.nodesExplored = solved.nodesExplored;
+        diagnostics.nodesPruned = solved.nodesPruned;
+        diagnostics.nodesEvicted = solved.nodesEvicted;
+        diagnostics.nodesSpilled = solved.nodesSpilled;
+        diagnostics.allocatedBytes = solved.allocatedBytes;
+        diagnostics.maxNodes = options.maxNodes;
+        diagnostics.maxTimeMs = options.maxTimeMs;
+        return diagnostics;
+    }
+
+    private OptimizationResultDTO buildEmptyResult(OptimizationCatalog catalog, SolverOptions options,
+                                                   long startTime) {
         OptimizationResultDTO result = new OptimizationResultDTO();
         result.totalRevenue = BigDecimal.ZERO;
         result.computationTimeMs = System.currentTimeMillis() - startTime;
         result.productionPlan = new ArrayList<>();
 
         result.materialUsage = new ArrayList<>();
-        for (RawMaterial mat : materials) {
+        for (int j = 0; j < catalog.materials.size(); j++) {
+            RawMaterial mat = catalog.materials.get(j);
             OptimizationResultDTO.MaterialUsage usage = new OptimizationResultDTO.MaterialUsage();
             usage.rawMaterialId = mat.id;
             usage.rawMaterialName = mat.name;
-            usage.totalAvailable = mat.stockQuantity;
+            usage.totalAvailable = catalog.stockQuantities[j];
             usage.totalUsed = BigDecimal.ZERO;
-            usage.remaining = mat.stockQuantity;
+            usage.remaining = catalog.stockQuantities[j];
             usage.unit = mat.unit;
             usage.usagePercentage = 0.0;
+            usage.shadowPrice = BigDecimal.ZERO;
             result.materialUsage.add(usage);
         }
 
+        // PT-BR: Sem produtos ou insumos nao ha busca: o plano vazio e trivialmente otimo.
+        // EN-US: Without products or inputs there is no search: the empty plan is trivially optimal.
+        SolverResult nothing = new SolverResult();
+        nothing.terminationReason = TerminationReason.OPTIMAL;
+        result.diagnostics = diagnostics(nothing, options);
         return result;
     }
 }
@@ -27,6 +27,9 @@ public class RawMaterialService {
     @Inject
     ProductCompositionRepository compositionRepository;
 
+    @Inject
+    OptimizationResultCache resultCache;
+
     public List<RawMaterialDTO> listAll() {
         return repository.listAll().stream()
             .map(this::toDTO)
@@ -54,6 +57,7 @@ public class RawMaterialService {
 
         RawMaterial entity = toEntity(dto);
         repository.persist(entity);
+        resultCache.invalidate();
         return toDTO(entity);
     }
 
@@ -78,6 +82,7 @@ public class RawMaterialService {
         entity.stockQuantity = dto.stockQuantity;
         entity.unit = dto.unit;
         repository.persist(entity);
+        resultCache.invalidate();
         return toDTO(entity);
     }
 
@@ -103,6 +108,7 @@ public class RawMaterialService {
         }
 
         repository.delete(entity);
+        resultCache.invalidate();
     }
 
     private RawMaterialDTO toDTO(RawMaterial entity) {
@@ -0,0 +1,298 @@
+package com.projedata.inputmanager.service;
+
+import com.projedata.inputmanager.dto.OptimizationResultDTO;
+import com.projedata.inputmanager.dto.OptimizationScenarioBatchDTO;
+import com.projedata.inputmanager.dto.OptimizationScenarioDTO;
+import com.projedata.inputmanager.dto.OptimizationScenarioResultDTO;
+import com.projedata.inputmanager.exception.CapacityExceededException;
+import com.projedata.inputmanager.service.optimization.OptimizationProblem;
+import com.projedata.inputmanager.service.optimization.SearchProgress;
+import com.projedata.inputmanager.service.optimization.SolverOptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+// PT-BR: Otimizacao "e se" em lote. O gerente quer comparar varios cenarios (estoque de
+//        aco +20%, preco da mesa -10%, ...) e, chamando /optimize uma vez por cenario,
+//        cada chamada recarregava o catalogo e remontava a matriz. Aqui:
+//          1. o catalogo e carregado uma unica vez e cada cenario so troca os vetores de
+//             preco e estoque (as receitas esparsas sao compartilhadas);
+//          2. os cenarios rodam em paralelo num executor proprio;
+//          3. os cenarios sao disparados do mais parecido com o atual para o mais
+//             diferente, e cada um comeca com o melhor plano ja encontrado por outro
+//             cenario que continue viavel nos seus estoques. Cenarios parecidos tem
+//             otimos parecidos, entao esse incumbente inicial poda boa parte da arvore.
+//        O cache nao e usado: os cenarios nao correspondem aos dados gravados.
+// EN-US: Batch "what if" optimization. The manager wants to compare several scenarios
+//        (steel stock +20%, table price -10%, ...) and, calling /optimize once per
+//        scenario, each call reloaded the catalog and rebuilt the matrix. Here:
+//          1. the catalog is loaded only once and each scenario only swaps the price and
+//             stock vectors (the sparse recipes are shared);
+//          2. the scenarios run in parallel on their own executor;
+//          3. the scenarios are started from the most similar to the current data to the
+//             most different, and each one starts with the best plan already found by
+//             another scenario that is still feasible on its stocks. Similar scenarios
+//             have similar optima, so that initial incumbent prunes much of the tree.
+//        The cache isn't used: the scenarios don't match the stored data.
+//
+//        A fila do executor e limitada: cada lote espera a resposta na thread HTTP, entao
+//        uma fila sem limite deixaria pedidos se acumularem (e threads presas) sem fim.
+//        Se os cenarios de um lote nao cabem, os que ja entraram sao cancelados e o
+//        pedido responde 503, como a fila dos jobs.
+//        Cada cenario tem o seu SearchProgress, como os jobs: um lote abortado (fila cheia,
+//        interrupcao ou falha de um cenario) cancela tambem as buscas que ja estao
+//        rodando, que param no proximo no em vez de gastar o orcamento inteiro.
+// EN-US: The executor's queue is bounded: each batch waits for the answer on the HTTP
+//        thread, so an unbounded queue would let requests (and blocked threads) pile up
+//        without end. If a batch's scenarios don't fit, the ones already in are cancelled
+//        and the request answers 503, like the job queue.
+//        Each scenario has its own SearchProgress, like the jobs: an aborted batch (full
+//        queue, interruption or a failed scenario) also cancels the searches already
+//        running, which stop at the next node instead of spending their whole budget.
+@ApplicationScoped
+public class ScenarioOptimizationService {
+
+    @Inject
+    ProductionOptimizationService optimizationService;
+
+    @ConfigProperty(name = "optimization.scenarios.threads", defaultValue = "2")
+    int threads;
+
+    @ConfigProperty(name = "optimization.scenarios.max-batch", defaultValue = "50")
+    int maxBatch;
+
+    @ConfigProperty(name = "optimization.scenarios.queue-capacity", defaultValue = "100")
+    int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "optimization-scenario-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // PT-BR: Devolve um resultado por cenario, na ordem do pedido. Trocas invalidas
+    //        (insumo ou produto fora da otimizacao, valor e fator juntos ou nenhum dos
+    //        dois) rejeitam o lote inteiro com 400 antes de qualquer busca.
+    // EN-US: Returns one result per scenario, in request order. Invalid overrides (input
+    //        or product outside the optimization, both value and factor or neither)
+    //        reject the whole batch with 400 before any search.
+    @ActivateRequestContext
+    public List<OptimizationScenarioResultDTO> optimize(OptimizationScenarioBatchDTO batch,
+                                                        Integer maxNodes, Long maxTimeMs) {
+        if (batch.scenarios.size() > maxBatch) {
+            throw new IllegalArgumentException("A batch may have at most " + maxBatch + " scenarios");
+        }
+        optimizationService.options(maxNodes, maxTimeMs);
+
+        OptimizationCatalog base = optimizationService.loadCatalog();
+        int count = batch.scenarios.size();
+        List<OptimizationCatalog> catalogs = new ArrayList<>(count);
+        for (OptimizationScenarioDTO scenario : batch.scenarios) {
+            catalogs.add(applyOverrides(base, scenario));
+        }
+
+        double[] distance = new double[count];
+        for (int s = 0; s < count; s++) {
+            distance[s] = distance(base, catalogs.get(s));
+        }
+        int[] order = IntStream.range(0, count)
+            .boxed()
+            .sorted(Comparator.comparingDouble((Integer s) -> distance[s]))
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+        List<FinishedPlan> finished = new ArrayList<>();
+        List<Future<OptimizationScenarioResultDTO>> futures = new ArrayList<>(count);
+        List<SearchProgress> progresses = new ArrayList<>(count);
+        for (int s = 0; s < count; s++) {
+            futures.add(null);
+        }
+        for (int s : order) {
+            String name = batch.scenarios.get(s).name;
+            OptimizationCatalog catalog = catalogs.get(s);
+            SolverOptions options = optimizationService.options(maxNodes, maxTimeMs);
+            options.progress = new SearchProgress();
+            progresses.add(options.progress);
+            try {
+                futures.set(s, executor.submit(() -> solve(name, catalog, options, finished)));
+            } catch (RejectedExecutionException e) {
+                cancel(futures, progresses);
+                throw new CapacityExceededException("The scenario optimization queue is full, please retry later");
+            }
+        }
+
+        List<OptimizationScenarioResultDTO> results = new ArrayList<>(count);
+        try {
+            for (Future<OptimizationScenarioResultDTO> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            cancel(futures, progresses);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Scenario optimization was interrupted", e);
+        } catch (ExecutionException e) {
+            cancel(futures, progresses);
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Scenario optimization failed", e.getCause());
+        }
+        return results;
+    }
+
+    // PT-BR: Cancela os cenarios do lote: os que rodam param no proximo no (o solver nao
+    //        olha a interrupcao da thread, so o SearchProgress) e os que ainda estavam na
+    //        fila saem dela, liberando o espaco para outros pedidos.
+    // EN-US: Cancels the batch's scenarios: the running ones stop at the next node (the
+    //        solver doesn't look at the thread's interrupt, only at the SearchProgress)
+    //        and the ones still queued leave it, freeing the room for other requests.
+    private void cancel(List<Future<OptimizationScenarioResultDTO>> futures, List<SearchProgress> progresses) {
+        progresses.forEach(SearchProgress::cancel);
+        for (Future<OptimizationScenarioResultDTO> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+        executor.purge();
+    }
+
+    private OptimizationScenarioResultDTO solve(String name, OptimizationCatalog catalog, SolverOptions options,
+                                                List<FinishedPlan> finished) {
+        long startTime = System.currentTimeMillis();
+        OptimizationScenarioResultDTO dto = new OptimizationScenarioResultDTO();
+        dto.name = name;
+
+        FinishedPlan warmStart = catalog.isEmpty() ? null : bestFeasible(catalog.problem, finished);
+        if (warmStart != null) {
+            options.warmStart = warmStart.solution;
+            dto.warmStartFrom = warmStart.name;
+        }
+        dto.result = optimizationService.solve(catalog, options, null, startTime);
+
+        if (!catalog.isEmpty()) {
+            int[] solution = new int[catalog.products.size()];
+            for (int i = 0; i < solution.length; i++) {
+                solution[i] = dto.result.productionPlan.get(i).quantityToProduce;
+            }
+            synchronized (finished) {
+                finished.add(new FinishedPlan(name, solution));
+            }
+        }
+        return dto;
+    }
+
+    // PT-BR: O plano ja encontrado que rende mais nos precos deste cenario e cabe nos
+    //        seus estoques (null se nenhum cabe).
+    // EN-US: The plan already found that earns the most at this scenario's prices and fits
+    //        its stocks (null if none fits).
+    private static FinishedPlan bestFeasible(OptimizationProblem problem, List<FinishedPlan> finished) {
+        List<FinishedPlan> candidates;
+        synchronized (finished) {
+            candidates = new ArrayList<>(finished);
+        }
+        FinishedPlan best = null;
+        double bestRevenue = 0.0;
+        for (FinishedPlan plan : candidates) {
+            double revenue = problem.revenueOf(plan.solution);
+            if (revenue > bestRevenue && problem.isFeasible(plan.solution)) {
+                best = plan;
+                bestRevenue = revenue;
+            }
+        }
+        return best;
+    }
+
+    private static OptimizationCatalog applyOverrides(OptimizationCatalog base, OptimizationScenarioDTO scenario) {
+        BigDecimal[] stock = base.stockQuantities.clone();
+        if (scenario.stockOverrides != null) {
+            for (OptimizationScenarioDTO.StockOverride override : scenario.stockOverrides) {
+                Integer j = base.materialIndex.get(override.rawMaterialId);
+                if (j == null) {
+                    throw new IllegalArgumentException("Scenario '" + scenario.name + "': raw material "
+                        + override.rawMaterialId + " does not exist");
+                }
+                stock[j] = override(scenario.name, stock[j], override.stockQuantity, override.factor, 4);
+            }
+        }
+
+        BigDecimal[] prices = base.salePrices.clone();
+        if (scenario.priceOverrides != null) {
+            for (OptimizationScenarioDTO.PriceOverride override : scenario.priceOverrides) {
+                Integer i = base.productIndex.get(override.productId);
+                if (i == null) {
+                    throw new IllegalArgumentException("Scenario '" + scenario.name + "': product "
+                        + override.productId + " does not exist or has no composition");
+                }
+                prices[i] = override(scenario.name, prices[i], override.salePrice, override.factor, 2);
+            }
+        }
+        return base.withOverrides(prices, stock);
+    }
+
+    private static BigDecimal override(String scenario, BigDecimal current, BigDecimal value, BigDecimal factor,
+                                       int scale) {
+        if ((value == null) == (factor == null)) {
+            throw new IllegalArgumentException("Scenario '" + scenario
+                + "': each override needs either an absolute value or a factor");
+        }
+        return value != null ? value : current.multiply(factor).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    // PT-BR: Distancia relativa dos precos e estoques do cenario ate os dados atuais.
+    // EN-US: Relative distance of the scenario's prices and stocks to the current data.
+    private static double distance(OptimizationCatalog base, OptimizationCatalog scenario) {
+        double total = 0.0;
+        for (int i = 0; i < base.salePrices.length; i++) {
+            total += relativeChange(base.salePrices[i], scenario.salePrices[i]);
+        }
+        for (int j = 0; j < base.stockQuantities.length; j++) {
+            total += relativeChange(base.stockQuantities[j], scenario.stockQuantities[j]);
+        }
+        return total;
+    }
+
+    private static double relativeChange(BigDecimal before, BigDecimal after) {
+        double reference = Math.max(Math.abs(before.doubleValue()), 1.0);
+        return Math.abs(after.doubleValue() - before.doubleValue()) / reference;
+    }
+
+    private static final class FinishedPlan {
+
+        final String name;
+        final int[] solution;
+
+        FinishedPlan(String name, int[] solution) {
+            this.name = name;
+            this.solution = solution;
+        }
+    }
+}
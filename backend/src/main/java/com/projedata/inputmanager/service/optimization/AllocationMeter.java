@@ -0,0 +1,38 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.lang.management.ManagementFactory;
+
+// PT-BR: Bytes alocados pela thread atual, pelo ThreadMXBean da HotSpot. Devolve -1 em
+//        JVMs que nao expoem (ou desligaram) a medicao; quem soma precisa tratar esse caso.
+// EN-US: Bytes allocated by the current thread, through HotSpot's ThreadMXBean. Returns
+//        -1 on JVMs that don't expose (or have turned off) the measurement; callers that
+//        add it up must handle that case.
+final class AllocationMeter {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private AllocationMeter() {
+    }
+
+    static long currentThread() {
+        if (THREADS == null) {
+            return -1;
+        }
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // PT-BR: Diferenca desde 'start', ou -1 se a medicao nao esta disponivel.
+    // EN-US: Difference since 'start', or -1 if the measurement isn't available.
+    static long since(long start) {
+        long now = currentThread();
+        return start < 0 || now < 0 ? -1 : now - start;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+}
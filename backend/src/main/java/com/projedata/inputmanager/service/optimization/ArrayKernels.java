@@ -0,0 +1,42 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Lacos densos que dominam o tempo da busca: as operacoes de linha do tableau do
+//        BoundedSimplex (o bound por relaxacao linear), o estoque restante dos nos (long,
+//        produto por produto na matriz CSC) e a viabilidade. Os esparsos recebem os
+//        indices da coluna do produto (columnMaterial) e leem/escrevem por gather/scatter.
+//        Toda operacao e elemento a elemento (ou um minimo, que nao depende da ordem),
+//        entao as implementacoes dao resultados identicos bit a bit.
+// EN-US: Dense loops that dominate the search time: the BoundedSimplex tableau row
+//        operations (the linear relaxation bound), the nodes' remaining stock (long,
+//        product by product in the CSC matrix) and feasibility. The sparse ones take the
+//        product's column indices (columnMaterial) and read/write by gather/scatter.
+//        Every operation is element-wise (or a minimum, which doesn't depend on order),
+//        so the implementations give bit-identical results.
+interface ArrayKernels {
+
+    // PT-BR: values[from..from+length) /= divisor.
+    // EN-US: values[from..from+length) /= divisor.
+    void divide(double[] values, int from, int length, double divisor);
+
+    // PT-BR: target[targetFrom + k] -= factor * source[sourceFrom + k], sem FMA.
+    // EN-US: target[targetFrom + k] -= factor * source[sourceFrom + k], without FMA.
+    void subtractScaled(double[] target, int targetFrom, double[] source, int sourceFrom, int length, double factor);
+
+    // PT-BR: out[k] = units[from + k] / scale, de ponto fixo para double.
+    // EN-US: out[k] = units[from + k] / scale, from fixed point to double.
+    void toDecimal(long[] units, int from, double[] out, int length, long scale);
+
+    // PT-BR: target[offset + index[k]] -= values[k] * multiplier para k em [from, to). Os
+    //        indices de uma coluna sao distintos, entao o scatter nunca colide.
+    // EN-US: target[offset + index[k]] -= values[k] * multiplier for k in [from, to). A
+    //        column's indices are distinct, so the scatter never collides.
+    void subtractScattered(long[] target, int offset, int[] index, long[] values, int from, int to, long multiplier);
+
+    // PT-BR: min(cap, numerators[offset + index[k]] / denominators[k]) para k em [from, to).
+    // EN-US: min(cap, numerators[offset + index[k]] / denominators[k]) for k in [from, to).
+    double minQuotient(long[] numerators, int offset, int[] index, long[] denominators, int from, int to, double cap);
+
+    // PT-BR: used[k] <= limit[k] para todo k < length?
+    // EN-US: used[k] <= limit[k] for every k < length?
+    boolean fitsWithin(long[] used, long[] limit, int length);
+}
@@ -0,0 +1,16 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Como o solver calcula o limite superior de cada no.
+//        INDEPENDENT: cada produto restante usa todo o estoque sozinho (barato, mas
+//        frouxo quando ha muitos produtos competindo pelos mesmos insumos).
+//        LP_RELAXATION: relaxacao linear exata resolvida pelo BoundedSimplex, com warm
+//        start a partir da base do no pai.
+// EN-US: How the solver computes each node's upper bound.
+//        INDEPENDENT: each remaining product uses the whole stock on its own (cheap, but
+//        loose when many products compete for the same inputs).
+//        LP_RELAXATION: exact linear relaxation solved by BoundedSimplex, warm started
+//        from the parent node's basis.
+public enum BoundStrategy {
+    INDEPENDENT,
+    LP_RELAXATION
+}
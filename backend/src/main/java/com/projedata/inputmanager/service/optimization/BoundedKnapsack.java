@@ -0,0 +1,187 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Motor de programacao dinamica para instancias de dimensao baixa. Na pratica
+//        muitos catalogos tem so um ou dois insumos que realmente limitam (o forno, a
+//        farinha); os demais sobram mesmo com todos os produtos no teto. Nesses casos o
+//        problema e uma mochila limitada em 1 ou 2 dimensoes, que a programacao dinamica
+//        resolve de forma exata em O(produtos x estados), sem arvore.
+//
+//        As capacidades sao inteiras: cada linha em ponto fixo (UNIT_SCALE) e dividida
+//        pelo mdc dos consumos, o que encolhe a tabela sem perder exatidao.
+//        Cada produto e um item com ate maxUnits copias; para nao pagar O(copias) por
+//        estado, a transicao percorre cada linha de estados na direcao do consumo do
+//        item com uma fila monotona (maximo em janela deslizante), o que custa O(1)
+//        amortizado por estado.
+//
+//        prepare() devolve null se mais de dois insumos limitam ou se a tabela de
+//        escolhas passaria de MAX_TABLE_CELLS (o solver entao segue com o Branch and
+//        Bound).
+//
+// EN-US: Dynamic programming engine for low-dimension instances. In practice many
+//        catalogs have only one or two inputs that really bind (the oven, the flour);
+//        the others are left over even with every product at its cap. In those cases
+//        the problem is a bounded knapsack in 1 or 2 dimensions, which dynamic
+//        programming solves exactly in O(products x states), without a tree.
+//
+//        The capacities are integers: each fixed-point row (UNIT_SCALE) is divided by the
+//        gcd of its consumptions, which shrinks the table without losing exactness. Each
+//        product is an item with up to maxUnits copies; to avoid paying
+//        O(copies) per state, the transition walks each line of states in the item's
+//        consumption direction with a monotone queue (sliding window maximum), which
+//        costs O(1) amortized per state.
+//
+//        prepare() returns null if more than two inputs bind or if the choice table would
+//        go over MAX_TABLE_CELLS (the solver then goes on with Branch and Bound).
+final class BoundedKnapsack {
+
+    static final int MAX_DIMENSION = 2;
+
+    // PT-BR: Produtos x estados: 2 milhoes de ints = 8 MB de escolhas por solve.
+    // EN-US: Products x states: 2 million ints = 8 MB of choices per solve.
+    static final long MAX_TABLE_CELLS = 2_000_000;
+
+    private final OptimizationProblem problem;
+    private final int[] capacity;
+    private final int[][] weight;
+    private final int stride;
+    private final int states;
+
+    private BoundedKnapsack(OptimizationProblem problem, int[] capacity, int[][] weight) {
+        this.problem = problem;
+        this.capacity = capacity;
+        this.weight = weight;
+        this.stride = capacity[0] + 1;
+        this.states = stride * (capacity[1] + 1);
+    }
+
+    static BoundedKnapsack prepare(OptimizationProblem problem) {
+        int n = problem.productCount;
+
+        // PT-BR: Mesmo criterio do Presolve: o insumo limita se os tetos nao cabem nele.
+        // EN-US: Same criterion as Presolve: the input binds if the caps don't fit it.
+        int[] binding = new int[MAX_DIMENSION];
+        int dimension = 0;
+        for (int j = 0; j < problem.materialCount; j++) {
+            long worstCase = 0;
+            for (int r = problem.rowStart[j]; r < problem.rowStart[j + 1]; r++) {
+                worstCase += problem.rowUnits[r] * problem.maxUnits[problem.rowProduct[r]];
+            }
+            if (worstCase > problem.stockUnits[j]) {
+                if (dimension == MAX_DIMENSION) {
+                    return null;
+                }
+                binding[dimension++] = j;
+            }
+        }
+
+        int[] capacity = new int[MAX_DIMENSION];
+        int[][] weight = new int[MAX_DIMENSION][n];
+        long states = 1;
+        for (int d = 0; d < dimension; d++) {
+            int j = binding[d];
+            long divisor = 0;
+            for (int r = problem.rowStart[j]; r < problem.rowStart[j + 1]; r++) {
+                divisor = gcd(divisor, problem.rowUnits[r]);
+            }
+            long scaledCapacity = Math.max(problem.stockUnits[j], 0) / divisor;
+            if (scaledCapacity >= MAX_TABLE_CELLS) {
+                return null;
+            }
+            states *= scaledCapacity + 1;
+            if (states * n > MAX_TABLE_CELLS) {
+                return null;
+            }
+            capacity[d] = (int) scaledCapacity;
+            for (int r = problem.rowStart[j]; r < problem.rowStart[j + 1]; r++) {
+                weight[d][problem.rowProduct[r]] = (int) (problem.rowUnits[r] / divisor);
+            }
+        }
+        return new BoundedKnapsack(problem, capacity, weight);
+    }
+
+    // PT-BR: Devolve o vetor de producao otimo (indices do problema recebido).
+    // EN-US: Returns the optimal production vector (indices of the given problem).
+    int[] solve() {
+        int n = problem.productCount;
+        double[] value = new double[states];
+        int[] choice = new int[n * states];
+        int lineLength = Math.max(capacity[0], capacity[1]) + 1;
+        int[] queueUnits = new int[lineLength];
+        double[] queueKey = new double[lineLength];
+
+        for (int i = 0; i < n; i++) {
+            int copies = problem.maxUnits[i];
+            double price = problem.prices[i];
+            if (copies == 0 || price <= 0) {
+                continue;
+            }
+            int w0 = weight[0][i];
+            int w1 = weight[1][i];
+            int offset = i * states;
+            if (w0 == 0 && w1 == 0) {
+                // PT-BR: Nao consome nenhum insumo que limita: todas as copias sempre cabem.
+                // EN-US: Consumes no binding input: every copy always fits.
+                for (int s = 0; s < states; s++) {
+                    value[s] += price * copies;
+                    choice[offset + s] = copies;
+                }
+                continue;
+            }
+
+            // PT-BR: Cada linha comeca num estado sem antecessor (x < w0 ou y < w1) e anda
+            //        de (w0, w1) em (w0, w1). Na posicao t, usar k copias vem do estado
+            //        t - k da mesma linha: novo[t] = max(velho[t - k] - (t - k) * preco)
+            //        + t * preco, com t - k na janela [t - copies, t]. A fila guarda as
+            //        chaves velho[u] - u * preco em ordem decrescente.
+            // EN-US: Each line starts at a state with no predecessor (x < w0 or y < w1) and
+            //        walks by (w0, w1). At position t, using k copies comes from state
+            //        t - k of the same line: new[t] = max(old[t - k] - (t - k) * price)
+            //        + t * price, with t - k in the window [t - copies, t]. The queue keeps
+            //        the keys old[u] - u * price in decreasing order.
+            for (int y = 0; y <= capacity[1]; y++) {
+                for (int x = 0; x <= capacity[0]; x++) {
+                    if (x >= w0 && y >= w1) {
+                        continue;
+                    }
+                    int head = 0;
+                    int tail = 0;
+                    for (int t = 0, px = x, py = y; px <= capacity[0] && py <= capacity[1];
+                         t++, px += w0, py += w1) {
+                        int state = px + stride * py;
+                        double key = value[state] - t * price;
+                        while (tail > head && queueKey[tail - 1] <= key) {
+                            tail--;
+                        }
+                        queueKey[tail] = key;
+                        queueUnits[tail++] = t;
+                        if (queueUnits[head] < t - copies) {
+                            head++;
+                        }
+                        value[state] = queueKey[head] + t * price;
+                        choice[offset + state] = t - queueUnits[head];
+                    }
+                }
+            }
+        }
+
+        // PT-BR: Reconstrucao de tras para frente a partir da capacidade cheia.
+        // EN-US: Backwards reconstruction from the full capacity.
+        int[] solution = new int[n];
+        int state = states - 1;
+        for (int i = n - 1; i >= 0; i--) {
+            int units = choice[i * states + state];
+            solution[i] = units;
+            state -= units * (weight[0][i] + stride * weight[1][i]);
+        }
+        return solution;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long next = a % b;
+            a = b;
+            b = next;
+        }
+        return a;
+    }
+}
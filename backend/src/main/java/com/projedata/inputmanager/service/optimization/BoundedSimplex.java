@@ -0,0 +1,446 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Arrays;
+
+// PT-BR: Simplex dual com variaveis limitadas, embutido no solver para calcular a
+//        relaxacao linear de cada no:
+//
+//            max  sum(preco[i] * x[i])
+//            s.a. sum(consumo[j][i] * x[i]) <= restante[j]   para cada materia-prima j
+//                 0 <= x[i] <= u[i]
+//
+//        As variaveis ja estao deslocadas pelo limite inferior do no (o que ja foi
+//        decidido esta na receita e no estoque restante do no), entao produtos fixados
+//        simplesmente tem u = 0. Com isso todos os nos compartilham a mesma indexacao e a
+//        base otima do pai pode ser reaproveitada nos filhos (warm start): ramificar so
+//        muda limites e o lado direito, entao a base do pai continua dual-viavel e o
+//        simplex dual normalmente termina em poucas iteracoes.
+//
+//        O valor devolvido nao e o objetivo primal, e sim o objetivo dual
+//        y.b + sum(u[i] * max(0, preco[i] - y.A[i])) com y >= 0. Pela dualidade fraca
+//        ele e um limite superior valido para QUALQUER y >= 0, entao mesmo se o simplex
+//        parar pelo limite de iteracoes ou sofrer erro numerico o bound nunca corta a
+//        solucao otima.
+//
+// EN-US: Bounded-variable dual simplex, embedded in the solver to compute the linear
+//        relaxation of each node:
+//
+//            max  sum(price[i] * x[i])
+//            s.t. sum(consumption[j][i] * x[i]) <= remaining[j]   for each material j
+//                 0 <= x[i] <= u[i]
+//
+//        Variables are already shifted by the node's lower bound (what was decided is in
+//        the node's revenue and remaining stock), so fixed products simply have u = 0.
+//        This way every node shares the same indexing and the parent's optimal basis can
+//        be reused by its children (warm start): branching only changes bounds and the
+//        right-hand side, so the parent's basis stays dual feasible and the dual simplex
+//        usually finishes in a few iterations.
+//
+//        The returned value is not the primal objective but the dual objective
+//        y.b + sum(u[i] * max(0, price[i] - y.A[i])) with y >= 0. By weak duality it is a
+//        valid upper bound for ANY y >= 0, so even if the simplex stops at the iteration
+//        limit or suffers numerical error the bound never cuts off the optimal solution.
+final class BoundedSimplex {
+
+    private static final double PIVOT_TOLERANCE = 1e-9;
+    private static final double FEASIBILITY_TOLERANCE = 1e-7;
+    private static final double DUAL_TOLERANCE = 1e-9;
+
+    private final int rows;
+    private final int structurals;
+    private final int cols;
+    private final int[] columnStart;
+    private final int[] columnMaterial;
+    private final double[] columnAmount;
+    private final double[] prices;
+    private final int maxIterations;
+    private final ArrayKernels kernels;
+
+    // PT-BR: Tableau B^-1 [A | I] em ordem de linha. As colunas das folgas guardam B^-1.
+    // EN-US: Row-major tableau B^-1 [A | I]. The slack columns hold B^-1.
+    private final double[] tableau;
+    private final int[] basic;
+    private final int[] rowOf;
+    private final double[] reduced;
+    private final boolean[] atUpper;
+
+    // PT-BR: Copia da base fatorada do pai, restaurada antes de resolver cada filho.
+    // EN-US: Copy of the parent's factored basis, restored before solving each child.
+    private final double[] factoredTableau;
+    private final int[] factoredBasic;
+    private final double[] factoredReduced;
+    private final boolean[] factoredAtUpper;
+
+    private final double[] upper;
+    private final double[] rhs;
+    private final double[] adjusted;
+    private final double[] values;
+    private final double[] duals;
+    private final boolean[] hinted;
+
+    private long iterations;
+
+    BoundedSimplex(OptimizationProblem problem) {
+        this.rows = problem.materialCount;
+        this.structurals = problem.productCount;
+        this.cols = structurals + rows;
+        this.columnStart = problem.columnStart;
+        this.columnMaterial = problem.columnMaterial;
+        this.columnAmount = problem.columnAmount;
+        this.prices = problem.prices;
+        this.maxIterations = 50 * cols;
+        this.kernels = Kernels.current();
+
+        this.tableau = new double[rows * cols];
+        this.basic = new int[rows];
+        this.rowOf = new int[cols];
+        this.reduced = new double[cols];
+        this.atUpper = new boolean[cols];
+
+        this.factoredTableau = new double[rows * cols];
+        this.factoredBasic = new int[rows];
+        this.factoredReduced = new double[cols];
+        this.factoredAtUpper = new boolean[cols];
+
+        this.upper = new double[cols];
+        this.rhs = new double[rows];
+        this.adjusted = new double[rows];
+        this.values = new double[rows];
+        this.duals = new double[rows];
+        this.hinted = new boolean[cols];
+        Arrays.fill(upper, structurals, cols, Double.POSITIVE_INFINITY);
+    }
+
+    // PT-BR: Limites superiores da raiz: o teto (maxUnits) de cada produto.
+    // EN-US: Upper bounds at the root: each product's cap (maxUnits).
+    static double[] caps(OptimizationProblem problem) {
+        double[] upper = new double[problem.productCount];
+        for (int i = 0; i < upper.length; i++) {
+            upper[i] = problem.maxUnits[i];
+        }
+        return upper;
+    }
+
+    // PT-BR: Base de folgas (partida a frio). Todos os produtos comecam no limite
+    //        superior, o que torna a base dual-viavel ja que os precos sao positivos.
+    // EN-US: Slack basis (cold start). Every product starts at its upper bound, which
+    //        makes the basis dual feasible since prices are positive.
+    void factorSlackBasis() {
+        loadSlackBasis();
+        Arrays.fill(atUpper, 0, structurals, true);
+        snapshot();
+    }
+
+    // PT-BR: Refatora a base guardada em um no (partida a quente). Partimos da base de
+    //        folgas e pivotamos cada produto basico do no para dentro, escolhendo a linha
+    //        de maior pivo. Produtos que nao entram (pivo numericamente nulo) ficam fora
+    //        da base -- o resultado continua sendo uma base valida.
+    // EN-US: Refactors the basis stored in a node (warm start). We start from the slack
+    //        basis and pivot each of the node's basic products in, choosing the row with
+    //        the largest pivot. Products that don't enter (numerically null pivot) stay
+    //        out of the basis -- the result is still a valid basis.
+    void factor(int[] basisSlab, int basisOffset, boolean[] statusSlab, int statusOffset) {
+        loadSlackBasis();
+        Arrays.fill(hinted, false);
+        for (int r = 0; r < rows; r++) {
+            hinted[basisSlab[basisOffset + r]] = true;
+        }
+
+        for (int r = 0; r < rows; r++) {
+            int var = basisSlab[basisOffset + r];
+            if (var >= structurals) {
+                continue;
+            }
+            int pivotRow = -1;
+            double best = PIVOT_TOLERANCE;
+            for (int i = 0; i < rows; i++) {
+                int current = basic[i];
+                if (current < structurals) {
+                    continue;
+                }
+                double candidate = Math.abs(tableau[i * cols + var]);
+                if (hinted[current]) {
+                    candidate *= 1e-3;
+                }
+                if (candidate > best) {
+                    best = candidate;
+                    pivotRow = i;
+                }
+            }
+            if (pivotRow >= 0) {
+                double ratio = reduced[var] / tableau[pivotRow * cols + var];
+                subtractRow(reduced, 0, pivotRow, ratio);
+                pivot(pivotRow, var);
+            }
+        }
+
+        System.arraycopy(statusSlab, statusOffset, atUpper, 0, structurals);
+        Arrays.fill(atUpper, structurals, cols, false);
+        snapshot();
+    }
+
+    // PT-BR: Resolve a relaxacao para o lado direito e os limites dados, partindo da base
+    //        fatorada por ultimo. Devolve o limite dual (ver comentario da classe).
+    // EN-US: Solves the relaxation for the given right-hand side and bounds, starting
+    //        from the last factored basis. Returns the dual bound (see class comment).
+    double solve(double[] remaining, double[] productUpper) {
+        restore();
+        for (int j = 0; j < rows; j++) {
+            rhs[j] = Math.max(0.0, remaining[j]);
+        }
+        System.arraycopy(productUpper, 0, upper, 0, structurals);
+
+        if (!makeDualFeasible()) {
+            loadSlackBasis();
+            Arrays.fill(atUpper, 0, structurals, true);
+        }
+        computeBasicValues();
+        runDualSimplex();
+        return dualBound();
+    }
+
+    void storeBasis(int[] basisSlab, int basisOffset, boolean[] statusSlab, int statusOffset) {
+        System.arraycopy(basic, 0, basisSlab, basisOffset, rows);
+        System.arraycopy(atUpper, 0, statusSlab, statusOffset, structurals);
+    }
+
+    // PT-BR: Valor primal da variavel na ultima solucao (usado para escolher o ponto de
+    //        divisao na ramificacao por intervalos).
+    // EN-US: Primal value of the variable in the last solution (used to choose the split
+    //        point in interval branching).
+    double primalValue(int var) {
+        int row = rowOf[var];
+        if (row >= 0) {
+            return Math.max(0.0, Math.min(values[row], upper[var]));
+        }
+        return atUpper[var] ? upper[var] : 0.0;
+    }
+
+    long iterations() {
+        return iterations;
+    }
+
+    // PT-BR: Preco sombra do insumo na ultima solucao: quanto a receita relaxada sobe por
+    //        unidade extra de estoque (y do limite dual, >= 0).
+    // EN-US: Shadow price of the input in the last solution: how much the relaxed revenue
+    //        goes up per extra unit of stock (the dual bound's y, >= 0).
+    double dual(int material) {
+        return duals[material];
+    }
+
+    // PT-BR: Folga do insumo na ultima solucao (0 quando a restricao esta ativa).
+    // EN-US: Slack of the input in the last solution (0 when the constraint is active).
+    double slack(int material) {
+        return primalValue(structurals + material);
+    }
+
+    // PT-BR: Custo reduzido do produto: preco menos o valor, aos precos sombra, dos
+    //        insumos que uma unidade consome.
+    // EN-US: Reduced cost of the product: price minus the value, at shadow prices, of the
+    //        inputs one unit consumes.
+    double reducedCost(int product) {
+        double reducedPrice = prices[product];
+        for (int k = columnStart[product]; k < columnStart[product + 1]; k++) {
+            reducedPrice -= duals[columnMaterial[k]] * columnAmount[k];
+        }
+        return reducedPrice;
+    }
+
+    private void loadSlackBasis() {
+        Arrays.fill(tableau, 0.0);
+        for (int i = 0; i < structurals; i++) {
+            for (int k = columnStart[i]; k < columnStart[i + 1]; k++) {
+                tableau[columnMaterial[k] * cols + i] = columnAmount[k];
+            }
+        }
+        for (int j = 0; j < rows; j++) {
+            tableau[j * cols + structurals + j] = 1.0;
+            basic[j] = structurals + j;
+        }
+        Arrays.fill(rowOf, -1);
+        for (int j = 0; j < rows; j++) {
+            rowOf[structurals + j] = j;
+        }
+        System.arraycopy(prices, 0, reduced, 0, structurals);
+        Arrays.fill(reduced, structurals, cols, 0.0);
+        Arrays.fill(atUpper, false);
+    }
+
+    private void snapshot() {
+        System.arraycopy(tableau, 0, factoredTableau, 0, tableau.length);
+        System.arraycopy(basic, 0, factoredBasic, 0, rows);
+        System.arraycopy(reduced, 0, factoredReduced, 0, cols);
+        System.arraycopy(atUpper, 0, factoredAtUpper, 0, cols);
+    }
+
+    private void restore() {
+        System.arraycopy(factoredTableau, 0, tableau, 0, tableau.length);
+        System.arraycopy(factoredBasic, 0, basic, 0, rows);
+        System.arraycopy(factoredReduced, 0, reduced, 0, cols);
+        System.arraycopy(factoredAtUpper, 0, atUpper, 0, cols);
+        Arrays.fill(rowOf, -1);
+        for (int r = 0; r < rows; r++) {
+            rowOf[basic[r]] = r;
+        }
+    }
+
+    // PT-BR: Para variaveis limitadas a viabilidade dual e so uma questao de escolher o
+    //        limite certo. Uma folga nao-basica com custo reduzido positivo nao tem como
+    //        ser corrigida, e ai caimos para a partida a frio.
+    // EN-US: For bounded variables dual feasibility is just a matter of picking the right
+    //        bound. A nonbasic slack with a positive reduced cost can't be fixed, and then
+    //        we fall back to a cold start.
+    private boolean makeDualFeasible() {
+        for (int k = 0; k < cols; k++) {
+            if (rowOf[k] >= 0) {
+                continue;
+            }
+            if (k < structurals) {
+                if (reduced[k] > DUAL_TOLERANCE) {
+                    atUpper[k] = true;
+                } else if (reduced[k] < -DUAL_TOLERANCE) {
+                    atUpper[k] = false;
+                }
+            } else if (reduced[k] > DUAL_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // PT-BR: x_B = B^-1 (b - soma das colunas nao-basicas no limite superior * u).
+    // EN-US: x_B = B^-1 (b - sum of nonbasic columns at upper bound * u).
+    private void computeBasicValues() {
+        System.arraycopy(rhs, 0, adjusted, 0, rows);
+        for (int k = 0; k < structurals; k++) {
+            if (rowOf[k] < 0 && atUpper[k] && upper[k] > 0) {
+                double u = upper[k];
+                for (int e = columnStart[k]; e < columnStart[k + 1]; e++) {
+                    adjusted[columnMaterial[e]] -= columnAmount[e] * u;
+                }
+            }
+        }
+        for (int r = 0; r < rows; r++) {
+            int base = r * cols + structurals;
+            double value = 0.0;
+            for (int j = 0; j < rows; j++) {
+                value += tableau[base + j] * adjusted[j];
+            }
+            values[r] = value;
+        }
+    }
+
+    private void runDualSimplex() {
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            // PT-BR: Linha que sai: a variavel basica mais violada.
+            // EN-US: Leaving row: the most violated basic variable.
+            int leavingRow = -1;
+            boolean below = false;
+            double worst = FEASIBILITY_TOLERANCE;
+            for (int r = 0; r < rows; r++) {
+                double value = values[r];
+                double excess = value - upper[basic[r]];
+                if (-value > worst) {
+                    worst = -value;
+                    leavingRow = r;
+                    below = true;
+                } else if (excess > worst) {
+                    worst = excess;
+                    leavingRow = r;
+                    below = false;
+                }
+            }
+            if (leavingRow < 0) {
+                return;
+            }
+
+            // PT-BR: Coluna que entra: teste da razao dual, preservando a viabilidade dual.
+            // EN-US: Entering column: dual ratio test, preserving dual feasibility.
+            int rowBase = leavingRow * cols;
+            int entering = -1;
+            double bestRatio = Double.POSITIVE_INFINITY;
+            double bestPivot = 0.0;
+            for (int k = 0; k < cols; k++) {
+                if (rowOf[k] >= 0 || upper[k] <= 0) {
+                    continue;
+                }
+                double alpha = tableau[rowBase + k];
+                if (Math.abs(alpha) < PIVOT_TOLERANCE) {
+                    continue;
+                }
+                boolean eligible = below == (atUpper[k] ? alpha > 0 : alpha < 0);
+                if (!eligible) {
+                    continue;
+                }
+                double ratio = Math.abs(reduced[k] / alpha);
+                if (ratio < bestRatio - DUAL_TOLERANCE
+                        || (ratio <= bestRatio + DUAL_TOLERANCE && Math.abs(alpha) > Math.abs(bestPivot))) {
+                    bestRatio = ratio;
+                    bestPivot = alpha;
+                    entering = k;
+                }
+            }
+            if (entering < 0) {
+                return;
+            }
+            iterations++;
+
+            int leaving = basic[leavingRow];
+            double target = below ? 0.0 : upper[leaving];
+            double theta = (values[leavingRow] - target) / bestPivot;
+            for (int r = 0; r < rows; r++) {
+                values[r] -= tableau[r * cols + entering] * theta;
+            }
+            values[leavingRow] = (atUpper[entering] ? upper[entering] : 0.0) + theta;
+
+            subtractRow(reduced, 0, leavingRow, reduced[entering] / bestPivot);
+            pivot(leavingRow, entering);
+            atUpper[leaving] = !below;
+            atUpper[entering] = false;
+        }
+    }
+
+    private void pivot(int pivotRow, int entering) {
+        int pivotBase = pivotRow * cols;
+        kernels.divide(tableau, pivotBase, cols, tableau[pivotBase + entering]);
+        for (int r = 0; r < rows; r++) {
+            if (r == pivotRow) {
+                continue;
+            }
+            double factor = tableau[r * cols + entering];
+            if (factor != 0.0) {
+                subtractRow(tableau, r * cols, pivotRow, factor);
+            }
+        }
+        rowOf[basic[pivotRow]] = -1;
+        basic[pivotRow] = entering;
+        rowOf[entering] = pivotRow;
+    }
+
+    private void subtractRow(double[] target, int targetBase, int sourceRow, double factor) {
+        kernels.subtractScaled(target, targetBase, tableau, sourceRow * cols, cols, factor);
+    }
+
+    // PT-BR: Limite dual com y = max(0, -custo reduzido das folgas).
+    // EN-US: Dual bound with y = max(0, -slack reduced cost).
+    private double dualBound() {
+        double bound = 0.0;
+        for (int j = 0; j < rows; j++) {
+            duals[j] = Math.max(0.0, -reduced[structurals + j]);
+            bound += duals[j] * rhs[j];
+        }
+        for (int i = 0; i < structurals; i++) {
+            if (upper[i] <= 0) {
+                continue;
+            }
+            double reducedPrice = prices[i];
+            for (int k = columnStart[i]; k < columnStart[i + 1]; k++) {
+                reducedPrice -= duals[columnMaterial[k]] * columnAmount[k];
+            }
+            if (reducedPrice > 0) {
+                bound += reducedPrice * upper[i];
+            }
+        }
+        return bound;
+    }
+}
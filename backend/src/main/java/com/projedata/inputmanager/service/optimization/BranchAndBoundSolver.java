@@ -0,0 +1,225 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: O Branch and Bound funciona assim: exploramos uma arvore de decisoes onde
+//        cada nivel decide quantas unidades de um produto fabricar. Em cada nodo,
+//        calculamos um limite superior (usando relaxacao linear) do melhor resultado
+//        possivel. Se esse limite e pior que a melhor solucao ja encontrada, podamos
+//        esse ramo inteiro -- nao vale a pena explorar mais.
+//
+//        Usamos busca pelo melhor primeiro (best-first search) para encontrar boas
+//        solucoes rapidamente, o que melhora a poda e acelera a convergencia. Com
+//        maxFrontierNodes a fronteira tem limite: ao atingi-lo a busca mergulha em
+//        profundidade e descarta os nos de menor bound (SequentialSearch).
+//
+//        Cada no carrega o seu proprio vetor de estoque restante, derivado do pai de
+//        forma incremental (estoque do pai menos o consumo da quantidade escolhida).
+//        Assim a viabilidade e o bound custam O(m) e O(m * produtos restantes), em vez
+//        de recalcular o consumo de todos os niveis anteriores a cada filho.
+//
+//        Antes da arvore, o Presolve (se habilitado) remove produtos dominados e insumos
+//        que nunca limitam; se sobram no maximo dois insumos que limitam, a programacao
+//        dinamica (BoundedKnapsack) resolve sem arvore. Com decompose, grupos de produtos
+//        que nao compartilham insumos viram problemas separados (ComponentSearch), cada
+//        um passando por este mesmo caminho. Senao, a partida a quente
+//        (warmStart) e as heuristicas primais habilitadas (PrimalHeuristics) semeiam o
+//        incumbente, para que a poda funcione desde a raiz, e os cortes de cobertura
+//        (CoverCuts) apertam a relaxacao antes da arvore.
+//
+// EN-US: Branch and Bound works like this: we explore a decision tree where each
+//        level decides how many units of a product to manufacture. At each node,
+//        we calculate an upper bound (using linear relaxation) of the best possible
+//        result. If this bound is worse than the best solution already found, we prune
+//        that entire branch -- it's not worth exploring further.
+//
+//        We use best-first search to find good solutions quickly, which improves
+//        pruning and accelerates convergence. With maxFrontierNodes the frontier is
+//        bounded: once it's reached the search dives depth-first and evicts the
+//        lowest-bound nodes (SequentialSearch).
+//
+//        Each node carries its own remaining-stock vector, derived incrementally from
+//        its parent (parent stock minus the consumption of the chosen quantity). This
+//        way feasibility and the bound cost O(m) and O(m * remaining products), instead
+//        of recomputing the consumption of every previous level for each child.
+//
+//        Before the tree, Presolve (if enabled) drops dominated products and inputs that
+//        never bind; if at most two binding inputs are left, dynamic programming
+//        (BoundedKnapsack) solves it without a tree. With decompose, groups of products
+//        that share no input become separate problems (ComponentSearch), each going
+//        through this same path. Otherwise, the warm start
+//        (warmStart) and the enabled primal heuristics (PrimalHeuristics) seed the
+//        incumbent, so pruning works from the root on, and the cover cuts (CoverCuts)
+//        tighten the relaxation before the tree.
+public class BranchAndBoundSolver {
+
+    private final OptimizationProblem problem;
+    private final SolverOptions options;
+
+    public BranchAndBoundSolver(OptimizationProblem problem, SolverOptions options) {
+        this.problem = problem;
+        this.options = options;
+    }
+
+    public SolverResult solve(long startTime) {
+        long allocationStart = AllocationMeter.currentThread();
+        Presolve presolve = options.presolve ? Presolve.reduce(problem) : null;
+        OptimizationProblem model = presolve != null ? presolve.reduced : problem;
+
+        Incumbent incumbent = new Incumbent(model.productCount, options.progress, presolve);
+        SolverResult result = new SolverResult();
+        long searchAllocated = 0;
+        Decomposition decomposition = options.decompose && model.materialCount > 0
+            ? Decomposition.split(model)
+            : null;
+        // PT-BR: A relaxacao da raiz do modelo da busca e resolvida uma vez so: dela saem a
+        //        sensibilidade e o ponto de partida dos cortes de cobertura.
+        // EN-US: The search model's root relaxation is solved only once: the sensitivity
+        //        and the cover cuts' starting point both come from it.
+        BoundedSimplex root = null;
+        double rootValue = Double.NaN;
+        if (options.sensitivity && model.materialCount > 0 && model.productCount > 0) {
+            root = new BoundedSimplex(model);
+            root.factorSlackBasis();
+            rootValue = root.solve(model.stock, BoundedSimplex.caps(model));
+        }
+        if (options.sensitivity) {
+            result.sensitivity = Sensitivity.fromRoot(problem, presolve, root);
+        }
+        if (model.materialCount == 0 || model.productCount == 0) {
+            // PT-BR: Nenhum insumo limita: o otimo e produzir o teto de cada produto.
+            // EN-US: No input binds: the optimum is to produce each product's cap.
+            incumbent.offer(model.revenueOf(model.maxUnits), model.maxUnits, 0);
+            result.terminationReason = TerminationReason.OPTIMAL;
+            result.bestBound = incumbent.revenue();
+        } else if (decomposition != null) {
+            ComponentSearch search = new ComponentSearch(decomposition, options, incumbent,
+                options.warmStart != null ? warmStart(model, presolve) : null);
+            search.run(startTime);
+            result.engine = search.engine();
+            result.components = decomposition.components.length;
+            result.nodesExplored = search.nodesExplored();
+            result.nodesPruned = search.nodesPruned();
+            result.nodesEvicted = search.nodesEvicted();
+            result.nodesSpilled = search.nodesSpilled();
+            result.peakFrontierSize = search.peakFrontierSize();
+            result.heuristicRevenue = search.heuristicRevenue();
+            result.coverCuts = search.coverCuts();
+            result.transpositionLookups = search.transpositionLookups();
+            result.transpositionHits = search.transpositionHits();
+            result.transpositionPrunes = search.transpositionPrunes();
+            result.terminationReason = search.terminationReason();
+            result.bestBound = Math.max(incumbent.revenue(), search.bestBound());
+            searchAllocated = search.allocatedBytes();
+        } else if (options.dynamicProgramming && solveByDynamicProgramming(model, incumbent)) {
+            result.engine = SolverEngine.DYNAMIC_PROGRAMMING;
+            result.terminationReason = TerminationReason.OPTIMAL;
+            result.bestBound = incumbent.revenue();
+        } else {
+            int[] start = options.warmStart != null ? warmStart(model, presolve) : null;
+            if (start != null) {
+                incumbent.offer(model.revenueOf(start), start, 0);
+            }
+            result.heuristicRevenue = options.heuristics.isEmpty()
+                ? 0.0
+                : new PrimalHeuristics(model).seed(options.heuristics, incumbent);
+            OptimizationProblem searchModel = model;
+            if (options.coverCuts) {
+                CoverCuts cuts = root != null
+                    ? CoverCuts.separate(model, root, rootValue)
+                    : CoverCuts.separate(model);
+                searchModel = cuts.strengthened;
+                result.coverCuts = cuts.cutCount;
+                result.rootBound = cuts.rootBound;
+                result.rootBoundWithCuts = cuts.strengthenedBound;
+            }
+            if (options.parallelism > 1) {
+                ParallelSearch search = new ParallelSearch(searchModel, options, incumbent);
+                search.run(startTime);
+                result.nodesExplored = search.nodesExplored();
+                result.nodesPruned = search.nodesPruned();
+                result.terminationReason = search.terminationReason();
+                result.bestBound = search.bestBound();
+                result.nodesEvicted = search.nodesEvicted();
+                result.nodesSpilled = search.nodesSpilled();
+                result.peakFrontierSize = search.peakFrontierSize();
+                result.transpositionLookups = search.transpositionLookups();
+                result.transpositionHits = search.transpositionHits();
+                result.transpositionPrunes = search.transpositionPrunes();
+                searchAllocated = search.allocatedBytes();
+            } else {
+                SequentialSearch search = new SequentialSearch(searchModel, options, incumbent);
+                search.run(startTime);
+                result.nodesExplored = search.nodesExplored();
+                result.nodesPruned = search.nodesPruned();
+                result.nodesEvicted = search.nodesEvicted();
+                result.nodesSpilled = search.nodesSpilled();
+                result.peakFrontierSize = search.peakFrontierSize();
+                result.transpositionLookups = search.transpositionLookups();
+                result.transpositionHits = search.transpositionHits();
+                result.transpositionPrunes = search.transpositionPrunes();
+                result.terminationReason = search.terminationReason();
+                result.bestBound = search.bestBound();
+            }
+        }
+
+        result.solution = presolve != null ? presolve.expand(incumbent.solution()) : incumbent.solution();
+        result.revenue = incumbent.revenue();
+        result.incumbentImprovements = incumbent.improvements();
+        long allocated = AllocationMeter.since(allocationStart);
+        result.allocatedBytes = allocated < 0 || searchAllocated < 0 ? -1 : allocated + searchAllocated;
+        if (presolve != null) {
+            result.presolveRemovedProducts = presolve.removedProducts;
+            result.presolveRemovedMaterials = presolve.removedMaterials;
+        }
+        return result;
+    }
+
+    // PT-BR: Qual limite da busca foi atingido (nos, tempo ou cancelamento), ou null se a
+    //        busca pode continuar. Compartilhado pelas buscas sequencial e paralela; com
+    //        sharedNodes os nos contados sao os de todas as arvores que dividem o orcamento.
+    // EN-US: Which search limit was reached (nodes, time or cancellation), or null if the
+    //        search may go on. Shared by the sequential and parallel searches; with
+    //        sharedNodes the nodes counted are those of every tree sharing the budget.
+    static TerminationReason limitReached(SolverOptions options, long nodesExplored, long startTime) {
+        long explored = options.sharedNodes != null ? options.sharedNodes.get() : nodesExplored;
+        if (explored >= options.maxNodes) {
+            return TerminationReason.NODE_LIMIT;
+        }
+        if (System.currentTimeMillis() - startTime > options.maxTimeMs) {
+            return TerminationReason.TIME_LIMIT;
+        }
+        if (options.progress != null && options.progress.isCancelled()) {
+            return TerminationReason.CANCELLED;
+        }
+        return null;
+    }
+
+    // PT-BR: Com ate dois insumos limitando, a programacao dinamica da o otimo direto. A
+    //        verificacao final e so uma rede de seguranca: a aritmetica inteira ja
+    //        garante a viabilidade, mas se algo escapar a arvore resolve como antes.
+    // EN-US: With up to two binding inputs, dynamic programming gives the optimum
+    //        directly. The final check is only a safety net: integer arithmetic already
+    //        guarantees feasibility, but if something slips through the tree solves it
+    //        as before.
+    private boolean solveByDynamicProgramming(OptimizationProblem model, Incumbent incumbent) {
+        BoundedKnapsack knapsack = BoundedKnapsack.prepare(model);
+        if (knapsack == null) {
+            return false;
+        }
+        int[] plan = knapsack.solve();
+        if (!model.isFeasible(plan)) {
+            return false;
+        }
+        incumbent.offer(model.revenueOf(plan), plan, 0);
+        return true;
+    }
+
+    // PT-BR: A partida a quente nos indices do modelo, ou null se ela nao for viavel.
+    // EN-US: The warm start in the model's indices, or null if it isn't feasible.
+    private int[] warmStart(OptimizationProblem model, Presolve presolve) {
+        if (options.warmStart.length != problem.productCount) {
+            throw new IllegalArgumentException("warmStart must have one entry per product");
+        }
+        int[] start = presolve != null ? presolve.compress(options.warmStart) : options.warmStart;
+        return start != null && model.isFeasible(start) ? start : null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Como o solver ramifica o produto do nivel atual.
+//        ENUMERATE: um filho para cada quantidade 0..max (comportamento original).
+//        INTERVAL: divide o dominio [lo, hi] em dois intervalos, x <= k e x >= k + 1,
+//        entao a profundidade cresce com log2 do estoque e nao linearmente.
+// EN-US: How the solver branches on the current level's product.
+//        ENUMERATE: one child per quantity 0..max (original behavior).
+//        INTERVAL: splits the domain [lo, hi] into two ranges, x <= k and x >= k + 1,
+//        so the depth grows with log2 of the stock instead of linearly.
+public enum BranchingMode {
+    ENUMERATE,
+    INTERVAL
+}
@@ -0,0 +1,31 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Em que ordem o solver decide os produtos (qual produto cada nivel da arvore fixa).
+//        CATALOG: a ordem do catalogo (comportamento original).
+//        BOTTLENECK_DENSITY: ordem fixa por receita por unidade do insumo gargalo, a
+//        mesma do guloso; os produtos que mais pesam na receita sao decididos primeiro.
+//        MOST_FRACTIONAL: em cada no escolhe o produto livre cujo valor relaxado esta
+//        mais longe de um inteiro.
+//        PSEUDO_COST: em cada no escolhe o produto livre cuja ramificacao mais derrubou
+//        o bound ate agora (custos aprendidos durante a busca, por worker).
+// EN-US: In which order the solver decides the products (which product each tree level
+//        fixes).
+//        CATALOG: the catalog order (original behavior).
+//        BOTTLENECK_DENSITY: fixed order by revenue per unit of the bottleneck input, the
+//        same as the greedy; the products that weigh most on the revenue go first.
+//        MOST_FRACTIONAL: at each node picks the free product whose relaxed value is
+//        farthest from an integer.
+//        PSEUDO_COST: at each node picks the free product whose branching has lowered the
+//        bound the most so far (costs learned during the search, per worker).
+public enum BranchingOrder {
+    CATALOG,
+    BOTTLENECK_DENSITY,
+    MOST_FRACTIONAL,
+    PSEUDO_COST;
+
+    // PT-BR: As ordens dinamicas guardam a permutacao dos produtos em cada no.
+    // EN-US: The dynamic orders keep the product permutation in each node.
+    boolean isDynamic() {
+        return this == MOST_FRACTIONAL || this == PSEUDO_COST;
+    }
+}
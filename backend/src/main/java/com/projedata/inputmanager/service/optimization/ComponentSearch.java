@@ -0,0 +1,339 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+// PT-BR: Resolve cada componente da Decomposition com o seu proprio BranchAndBoundSolver
+//        (programacao dinamica, heuristicas e arvore, como um problema qualquer) e junta
+//        os planos. Com parallelism > 1 os componentes rodam ao mesmo tempo no
+//        forkJoinPool, cada um com uma busca sequencial; com 1 rodam um depois do outro.
+//
+//        Os orcamentos de nos e de tempo valem para o pedido inteiro: os componentes
+//        contam os nos em um contador compartilhado (sharedNodes) e todos partem do mesmo
+//        startTime. Em sequencia, cada componente pode ir ate a sua parte do que sobrou
+//        (o restante dividido pelos componentes que faltam), entao um componente dificil
+//        no comeco nao deixa os seguintes sem nada e o que um componente facil nao usa
+//        passa para os proximos; em paralelo todos consomem do mesmo total. Antes de
+//        resolver, o bound de cada componente e o independente da raiz (cada produto no
+//        teto), entao o bound somado e finito desde o primeiro relatorio. Cada
+//        componente tem um SearchProgress proprio: cada melhoria dele vira na hora um
+//        novo plano completo no incumbente do problema inteiro (e assim no stream), e o
+//        cancelamento do pedido chega a todos. O motivo de parada e o mais grave entre os
+//        componentes e o bound final e a soma dos bounds.
+// EN-US: Solves each Decomposition component with its own BranchAndBoundSolver (dynamic
+//        programming, heuristics and tree, like any other problem) and joins the plans.
+//        With parallelism > 1 the components run at the same time on the forkJoinPool,
+//        each with a sequential search; with 1 they run one after the other.
+//
+//        The node and time budgets apply to the whole request: the components count nodes
+//        in a shared counter (sharedNodes) and all start from the same startTime. In
+//        sequence, each component may go up to its share of what is left (the remainder
+//        divided by the components still to run), so a hard component early on doesn't
+//        leave the next ones with nothing and what an easy component doesn't use passes
+//        on to the next ones; in parallel they all draw from the same total. Before
+//        solving, each component's bound is the root's independent bound (every product
+//        at its cap), so the summed bound is finite from the first report. Each
+//        component has its own SearchProgress: each improvement of it immediately becomes
+//        a new complete plan in the whole problem's incumbent (and so in the stream), and
+//        the request's cancellation reaches all of them. The stop reason is the most
+//        severe among the components and the final bound is the sum of the bounds.
+final class ComponentSearch {
+
+    private static final TerminationReason[] SEVERITY = {
+        TerminationReason.CANCELLED, TerminationReason.TIME_LIMIT,
+        TerminationReason.NODE_LIMIT, TerminationReason.FRONTIER_LIMIT};
+
+    private final Decomposition decomposition;
+    private final SolverOptions options;
+    private final Incumbent incumbent;
+    private final int[] warmStart;
+    private final int[] merged;
+    private final double[] componentRevenue;
+    private final long[] componentNodes;
+    private final double[] componentBound;
+    private final SolverResult[] results;
+    private final AtomicLong sharedNodes = new AtomicLong();
+
+    ComponentSearch(Decomposition decomposition, SolverOptions options, Incumbent incumbent, int[] warmStart) {
+        this.decomposition = decomposition;
+        this.options = options;
+        this.incumbent = incumbent;
+        this.warmStart = warmStart;
+        int count = decomposition.components.length;
+        this.merged = new int[decomposition.productCount()];
+        this.componentRevenue = new double[count];
+        this.componentNodes = new long[count];
+        this.componentBound = new double[count];
+        for (int c = 0; c < count; c++) {
+            componentBound[c] = rootBound(decomposition.components[c]);
+        }
+        this.results = new SolverResult[count];
+    }
+
+    void run(long startTime) {
+        int count = decomposition.components.length;
+        if (options.parallelism <= 1) {
+            for (int c = 0; c < count; c++) {
+                solve(c, startTime);
+            }
+        } else {
+            ForkJoinPool executor = options.forkJoinPool;
+            boolean temporary = executor == null;
+            if (temporary) {
+                executor = new ForkJoinPool(Math.min(options.parallelism, count));
+            }
+            try {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>();
+                for (int c = 0; c < count; c++) {
+                    int component = c;
+                    tasks.add(executor.submit(() -> solve(component, startTime)));
+                }
+                for (ForkJoinTask<?> task : tasks) {
+                    task.join();
+                }
+            } finally {
+                if (temporary) {
+                    executor.shutdown();
+                }
+            }
+        }
+        if (options.progress != null) {
+            options.progress.report(nodesExplored(), incumbent.revenue(), bestBound());
+        }
+    }
+
+    private void solve(int component, long startTime) {
+        SolverOptions componentOptions = options.copy();
+        componentOptions.presolve = false;
+        componentOptions.decompose = false;
+        componentOptions.parallelism = 1;
+        componentOptions.transpositionTableBytes = options.parallelism > 1
+            ? options.transpositionTableBytes / Math.min(options.parallelism, decomposition.components.length)
+            : options.transpositionTableBytes;
+        componentOptions.frontierSpillBytes = options.parallelism > 1
+            ? options.frontierSpillBytes / Math.min(options.parallelism, decomposition.components.length)
+            : options.frontierSpillBytes;
+        componentOptions.forkJoinPool = null;
+        componentOptions.warmStart = warmStart != null ? decomposition.slice(component, warmStart) : null;
+        componentOptions.progress = new ComponentProgress(component);
+        componentOptions.sharedNodes = sharedNodes;
+        if (options.parallelism <= 1) {
+            long used = sharedNodes.get();
+            long left = decomposition.components.length - component;
+            componentOptions.maxNodes = (int) Math.min(options.maxNodes,
+                used + (Math.max(0, options.maxNodes - used) + left - 1) / left);
+        }
+        SolverResult result = new BranchAndBoundSolver(decomposition.components[component], componentOptions)
+            .solve(startTime);
+        synchronized (this) {
+            results[component] = result;
+            componentBound[component] = result.bestBound;
+            componentNodes[component] = result.nodesExplored;
+        }
+        improved(component, result.revenue, result.solution);
+    }
+
+    // PT-BR: Bound independente na raiz: cada produto de preco positivo no seu teto.
+    // EN-US: Independent bound at the root: each product with a positive price at its cap.
+    private static double rootBound(OptimizationProblem component) {
+        double bound = 0.0;
+        for (int i = 0; i < component.productCount; i++) {
+            bound += Math.max(0.0, component.prices[i]) * component.maxUnits[i];
+        }
+        return bound;
+    }
+
+    // PT-BR: Junta a nova solucao do componente ao plano das outras partes e oferece o
+    //        total ao incumbente do problema inteiro. A oferta fica fora do lock, com uma
+    //        copia do plano, para que o ouvinte do incumbente nao rode segurando os outros
+    //        componentes; o total ja inclui as partes dos outros, entao uma oferta
+    //        atrasada so e recusada.
+    // EN-US: Joins the component's new solution with the other parts' plan and offers the
+    //        total to the whole problem's incumbent. The offer happens outside the lock,
+    //        with a copy of the plan, so the incumbent's listener doesn't run while holding
+    //        the other components; the total already includes the other parts, so a late
+    //        offer is just rejected.
+    private void improved(int component, double revenue, int[] solution) {
+        double total = 0.0;
+        int[] plan;
+        synchronized (this) {
+            if (revenue < componentRevenue[component]) {
+                return;
+            }
+            componentRevenue[component] = revenue;
+            decomposition.merge(component, solution, merged);
+            for (double part : componentRevenue) {
+                total += part;
+            }
+            plan = merged.clone();
+        }
+        incumbent.offer(total, plan, 0);
+    }
+
+    private synchronized void reported(int component, long nodes, double bound) {
+        componentNodes[component] = nodes;
+        componentBound[component] = bound;
+        if (options.progress != null) {
+            options.progress.report(nodesExplored(), incumbent.revenue(), bestBound());
+        }
+    }
+
+    synchronized long nodesExplored() {
+        long total = 0;
+        for (long nodes : componentNodes) {
+            total += nodes;
+        }
+        return total;
+    }
+
+    synchronized double bestBound() {
+        double total = 0.0;
+        for (double bound : componentBound) {
+            total += bound;
+        }
+        return total;
+    }
+
+    long nodesPruned() {
+        long total = 0;
+        for (SolverResult result : results) {
+            total += result.nodesPruned;
+        }
+        return total;
+    }
+
+    long nodesEvicted() {
+        long total = 0;
+        for (SolverResult result : results) {
+            total += result.nodesEvicted;
+        }
+        return total;
+    }
+
+    long nodesSpilled() {
+        long total = 0;
+        for (SolverResult result : results) {
+            total += result.nodesSpilled;
+        }
+        return total;
+    }
+
+    int peakFrontierSize() {
+        int total = 0;
+        for (SolverResult result : results) {
+            total += result.peakFrontierSize;
+        }
+        return total;
+    }
+
+    long transpositionLookups() {
+        long total = 0;
+        for (SolverResult result : results) {
+            total += result.transpositionLookups;
+        }
+        return total;
+    }
+
+    long transpositionHits() {
+        long total = 0;
+        for (SolverResult result : results) {
+            total += result.transpositionHits;
+        }
+        return total;
+    }
+
+    long transpositionPrunes() {
+        long total = 0;
+        for (SolverResult result : results) {
+            total += result.transpositionPrunes;
+        }
+        return total;
+    }
+
+    int coverCuts() {
+        int total = 0;
+        for (SolverResult result : results) {
+            total += result.coverCuts;
+        }
+        return total;
+    }
+
+    double heuristicRevenue() {
+        double total = 0.0;
+        for (SolverResult result : results) {
+            total += result.heuristicRevenue;
+        }
+        return total;
+    }
+
+    // PT-BR: Memoria alocada pelos componentes. Em sequencia eles rodam na thread do
+    //        solver, que ja mede tudo, entao so a execucao paralela soma aqui.
+    // EN-US: Memory allocated by the components. In sequence they run on the solver's
+    //        thread, which already measures everything, so only the parallel run adds here.
+    long allocatedBytes() {
+        if (options.parallelism <= 1) {
+            return 0;
+        }
+        long total = 0;
+        for (SolverResult result : results) {
+            if (result.allocatedBytes < 0) {
+                return -1;
+            }
+            total += result.allocatedBytes;
+        }
+        return total;
+    }
+
+    // PT-BR: Programacao dinamica so se ela resolveu todos os componentes.
+    // EN-US: Dynamic programming only if it solved every component.
+    SolverEngine engine() {
+        for (SolverResult result : results) {
+            if (result.engine != SolverEngine.DYNAMIC_PROGRAMMING) {
+                return SolverEngine.BRANCH_AND_BOUND;
+            }
+        }
+        return SolverEngine.DYNAMIC_PROGRAMMING;
+    }
+
+    TerminationReason terminationReason() {
+        for (TerminationReason reason : SEVERITY) {
+            for (SolverResult result : results) {
+                if (result.terminationReason == reason) {
+                    return reason;
+                }
+            }
+        }
+        return TerminationReason.OPTIMAL;
+    }
+
+    // PT-BR: Progresso de um componente: repassa melhorias e relatorios para o todo e
+    //        consulta o cancelamento do pedido original.
+    // EN-US: A component's progress: hands improvements and reports to the whole and
+    //        checks the original request's cancellation.
+    private final class ComponentProgress extends SearchProgress {
+
+        private final int component;
+
+        ComponentProgress(int component) {
+            this.component = component;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return options.progress != null && options.progress.isCancelled();
+        }
+
+        @Override
+        void incumbentImproved(double revenue, int[] production) {
+            improved(component, revenue, production);
+        }
+
+        @Override
+        void report(long nodes, double incumbentRevenue, double frontierBound) {
+            reported(component, nodes, Math.max(incumbentRevenue, frontierBound));
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// PT-BR: Cortes de cobertura levantados, gerados na raiz antes da arvore. A relaxacao
+//        linear de uma linha de insumo sum(a[i] * x[i]) <= b aceita combinacoes
+//        fracionarias que nenhum plano inteiro alcanca (2.5 bolos quando o estoque da
+//        para 2 e sobra farinha), e o bound fica alto em muitos nos.
+//
+//        Para cada insumo que limita, a cobertura sao os produtos que a relaxacao usa na
+//        linha; cada consumo a[k] dessa cobertura e tentado como divisor d. O corte e o
+//        arredondamento inteiro misto (MIR) da linha dividida por d, com f = frac(b / d):
+//
+//            sum((floor(a[i] / d) + max(0, frac(a[i] / d) - f) / (1 - f)) * x[i]) <= floor(b / d)
+//
+//        valido para qualquer x inteiro >= 0 que respeita a linha. Ele e a forma para
+//        quantidades inteiras da desigualdade de cobertura levantada: o arredondamento
+//        tambem da coeficiente (levantamento) aos produtos fora da cobertura. Fica o
+//        divisor cujo corte mais viola a solucao da relaxacao (por norma).
+//
+//        O corte e multiplicado por d e arredondado para baixo em unidades de ponto fixo,
+//        o que so o enfraquece: os coeficientes ficam >= 0 e inteiros, exatamente como um
+//        insumo. Por isso o pool entra no problema como linhas extras (strengthened): o
+//        estoque restante de cada no, os tetos, a viabilidade e o simplex tratam os
+//        cortes sem nenhum codigo novo, e o pool e o mesmo para todos os nos e workers.
+//        A separacao repete ate MAX_ROUNDS rodadas na raiz ou ate o pool ter MAX_CUTS
+//        cortes (cada um custa um long por no aberto).
+// EN-US: Lifted cover cuts, generated at the root before the tree. The linear relaxation
+//        of an input row sum(a[i] * x[i]) <= b accepts fractional combinations no integer
+//        plan reaches (2.5 cakes when the stock allows 2 and flour is left over), and the
+//        bound stays high in many nodes.
+//
+//        For each binding input, the cover is the products the relaxation uses on the
+//        row; each consumption a[k] of that cover is tried as divisor d. The cut is the
+//        mixed-integer rounding (MIR) of the row divided by d, with f = frac(b / d):
+//
+//            sum((floor(a[i] / d) + max(0, frac(a[i] / d) - f) / (1 - f)) * x[i]) <= floor(b / d)
+//
+//        valid for any integer x >= 0 that respects the row. It's the integer-quantity
+//        form of the lifted cover inequality: the rounding also gives a coefficient
+//        (lifting) to the products outside the cover. The divisor whose cut most violates
+//        the relaxation's solution (per norm) is kept.
+//
+//        The cut is multiplied by d and rounded down in fixed-point units, which only
+//        weakens it: the coefficients stay >= 0 and integer, exactly like an input. So
+//        the pool enters the problem as extra rows (strengthened): each node's remaining
+//        stock, the caps, feasibility and the simplex handle the cuts with no new code,
+//        and the pool is the same for every node and worker. Separation repeats for up to
+//        MAX_ROUNDS rounds at the root or until the pool has MAX_CUTS cuts (each one costs
+//        one long per open node).
+final class CoverCuts {
+
+    static final int MAX_CUTS = 32;
+    static final int MAX_ROUNDS = 10;
+    private static final int MAX_DIVISORS = 16;
+    private static final long MAX_MULTIPLIER = 8;
+    private static final double MIN_VIOLATION = 1e-6;
+    private static final double MIN_IMPROVEMENT = 1e-9;
+
+    // PT-BR: O problema com o pool como linhas extras (o proprio problema se nao houve corte).
+    // EN-US: The problem with the pool as extra rows (the problem itself if there was no cut).
+    final OptimizationProblem strengthened;
+    final int cutCount;
+    final double rootBound;
+    final double strengthenedBound;
+
+    private CoverCuts(OptimizationProblem strengthened, int cutCount, double rootBound,
+                      double strengthenedBound) {
+        this.strengthened = strengthened;
+        this.cutCount = cutCount;
+        this.rootBound = rootBound;
+        this.strengthenedBound = strengthenedBound;
+    }
+
+    static CoverCuts separate(OptimizationProblem problem) {
+        BoundedSimplex simplex = new BoundedSimplex(problem);
+        simplex.factorSlackBasis();
+        double rootBound = simplex.solve(problem.stock, BoundedSimplex.caps(problem));
+        return separate(problem, simplex, rootBound);
+    }
+
+    // PT-BR: Separa a partir da relaxacao da raiz ja resolvida (o solver a reaproveita da
+    //        analise de sensibilidade). O simplex so e lido.
+    // EN-US: Separates from the already solved root relaxation (the solver reuses it from
+    //        the sensitivity analysis). The simplex is only read.
+    static CoverCuts separate(OptimizationProblem problem, BoundedSimplex root, double rootBound) {
+        int n = problem.productCount;
+        double[] upper = BoundedSimplex.caps(problem);
+        BoundedSimplex simplex = root;
+
+        List<long[]> pool = new ArrayList<>();
+        OptimizationProblem current = problem;
+        double bound = rootBound;
+        double[] x = new double[n];
+        for (int round = 0; round < MAX_ROUNDS && pool.size() < MAX_CUTS; round++) {
+            for (int i = 0; i < n; i++) {
+                x[i] = simplex.primalValue(i);
+            }
+            int added = 0;
+            long[] aggregate = separateAggregate(problem, simplex, x);
+            if (aggregate != null && !contains(pool, aggregate)) {
+                pool.add(aggregate);
+                added++;
+            }
+            for (int j = 0; j < problem.materialCount && pool.size() < MAX_CUTS; j++) {
+                long[] cut = separateRow(problem, j, x);
+                if (cut != null && !contains(pool, cut)) {
+                    pool.add(cut);
+                    added++;
+                }
+            }
+            if (added == 0) {
+                break;
+            }
+            current = withCuts(problem, pool);
+            simplex = new BoundedSimplex(current);
+            simplex.factorSlackBasis();
+            double next = simplex.solve(current.stock, upper);
+            boolean improved = next < bound - MIN_IMPROVEMENT * Math.max(1.0, Math.abs(bound));
+            bound = Math.min(bound, next);
+            if (!improved) {
+                break;
+            }
+        }
+        return new CoverCuts(current, pool.size(), rootBound, bound);
+    }
+
+    // PT-BR: O corte MIR mais eficaz da linha j contra a solucao x, ou null. O vetor tem os
+    //        coeficientes por produto (unidades de ponto fixo) e o lado direito no fim.
+    // EN-US: The most effective MIR cut of row j against solution x, or null. The vector
+    //        has the per-product coefficients (fixed-point units) and the right-hand side
+    //        at the end.
+    private static long[] separateRow(OptimizationProblem problem, int j, double[] x) {
+        long capacity = problem.stockUnits[j];
+        if (capacity <= 0) {
+            return null;
+        }
+        int start = problem.rowStart[j];
+        int count = problem.rowStart[j + 1] - start;
+        long worstCase = 0;
+        for (int r = start; r < start + count; r++) {
+            worstCase += problem.rowUnits[r] * problem.maxUnits[problem.rowProduct[r]];
+        }
+        if (worstCase <= capacity) {
+            return null;
+        }
+        return rounding(problem.productCount, Arrays.copyOfRange(problem.rowProduct, start, start + count),
+            Arrays.copyOfRange(problem.rowUnits, start, start + count), capacity, x);
+    }
+
+    // PT-BR: Linha agregada com os precos sombra da relaxacao como pesos (o maior vira 1),
+    //        que junta os insumos que limitam juntos. Os coeficientes sao arredondados para
+    //        baixo e o lado direito para cima: a soma continua valida e sem negativos.
+    // EN-US: Row aggregated with the relaxation's shadow prices as weights (the largest
+    //        becomes 1), which joins the inputs that bind together. The coefficients are
+    //        rounded down and the right-hand side up: the sum stays valid and nonnegative.
+    private static long[] separateAggregate(OptimizationProblem problem, BoundedSimplex simplex, double[] x) {
+        int m = problem.materialCount;
+        double largest = 0.0;
+        int weighted = 0;
+        for (int j = 0; j < m; j++) {
+            if (simplex.dual(j) > 0) {
+                largest = Math.max(largest, simplex.dual(j));
+                weighted++;
+            }
+        }
+        if (weighted < 2) {
+            return null;
+        }
+        int n = problem.productCount;
+        double capacity = 0.0;
+        for (int j = 0; j < m; j++) {
+            capacity += Math.max(0.0, simplex.dual(j)) / largest * problem.stockUnits[j];
+        }
+        int[] products = new int[n];
+        long[] amounts = new long[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            double amount = 0.0;
+            for (int k = problem.columnStart[i]; k < problem.columnStart[i + 1]; k++) {
+                amount += Math.max(0.0, simplex.dual(problem.columnMaterial[k])) / largest * problem.columnUnits[k];
+            }
+            long units = (long) Math.floor(amount * (1 - 1e-12));
+            if (units > 0) {
+                products[count] = i;
+                amounts[count++] = units;
+            }
+        }
+        return rounding(n, Arrays.copyOf(products, count), Arrays.copyOf(amounts, count),
+            (long) Math.ceil(capacity * (1 + 1e-12)), x);
+    }
+
+    // PT-BR: Tenta cada consumo da cobertura (produtos com x > 0) como divisor d, tambem
+    //        sobre a linha multiplicada por 2, 4 e 8 (o que equivale a d / 2, d / 4 e d / 8
+    //        sem sair dos inteiros), e devolve o corte de maior violacao por norma.
+    // EN-US: Tries each consumption of the cover (products with x > 0) as divisor d, also
+    //        on the row multiplied by 2, 4 and 8 (equivalent to d / 2, d / 4 and d / 8
+    //        while staying in integers), and returns the cut with the largest violation
+    //        per norm.
+    private static long[] rounding(int n, int[] products, long[] amounts, long capacity, double[] x) {
+        long[] divisors = new long[MAX_DIVISORS];
+        int divisorCount = 0;
+        for (int r = 0; r < products.length && divisorCount < MAX_DIVISORS; r++) {
+            if (x[products[r]] > MIN_VIOLATION && indexOf(divisors, divisorCount, amounts[r]) < 0) {
+                divisors[divisorCount++] = amounts[r];
+            }
+        }
+
+        long[] best = null;
+        double bestEfficacy = 0.0;
+        for (long multiplier = 1; multiplier <= MAX_MULTIPLIER; multiplier *= 2) {
+            long scaledCapacity = capacity * multiplier;
+            for (int d = 0; d < divisorCount; d++) {
+                long divisor = divisors[d];
+                long remainder = scaledCapacity % divisor;
+                if (remainder == 0) {
+                    // PT-BR: f = 0: o arredondamento devolve a propria linha.
+                    // EN-US: f = 0: the rounding gives back the row itself.
+                    continue;
+                }
+                long[] cut = new long[n + 1];
+                cut[n] = scaledCapacity - remainder;
+                double activity = 0.0;
+                double norm = 0.0;
+                for (int r = 0; r < products.length; r++) {
+                    long amount = amounts[r] * multiplier;
+                    long excess = amount % divisor - remainder;
+                    long coefficient = amount - amount % divisor;
+                    if (excess > 0) {
+                        // PT-BR: d * excesso / (d - resto), arredondado para baixo com folga
+                        //        para o erro do double (so enfraquece o corte).
+                        // EN-US: d * excess / (d - remainder), rounded down with slack for
+                        //        the double's error (it only weakens the cut).
+                        coefficient += (long) Math.floor(
+                            (double) divisor * excess / (divisor - remainder) * (1 - 1e-12));
+                    }
+                    cut[products[r]] = coefficient;
+                    activity += coefficient * x[products[r]];
+                    norm += (double) coefficient * coefficient;
+                }
+                double violation = activity - cut[n];
+                if (norm == 0.0 || violation <= MIN_VIOLATION * Math.max(1.0, cut[n])) {
+                    continue;
+                }
+                double efficacy = violation / Math.sqrt(norm);
+                if (efficacy > bestEfficacy) {
+                    bestEfficacy = efficacy;
+                    best = cut;
+                }
+            }
+        }
+        return best;
+    }
+
+    // PT-BR: As linhas do problema seguidas pelos cortes do pool, com os mesmos tetos.
+    // EN-US: The problem's rows followed by the pool's cuts, with the same caps.
+    private static OptimizationProblem withCuts(OptimizationProblem problem, List<long[]> pool) {
+        int n = problem.productCount;
+        int m = problem.materialCount;
+        double[] stock = Arrays.copyOf(problem.stock, m + pool.size());
+        for (int c = 0; c < pool.size(); c++) {
+            stock[m + c] = (double) pool.get(c)[n] / OptimizationProblem.UNIT_SCALE;
+        }
+        int[] columnStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int entries = problem.columnStart[i + 1] - problem.columnStart[i];
+            for (long[] cut : pool) {
+                if (cut[i] > 0) {
+                    entries++;
+                }
+            }
+            columnStart[i + 1] = columnStart[i] + entries;
+        }
+        int[] columnMaterial = new int[columnStart[n]];
+        double[] columnAmount = new double[columnStart[n]];
+        int next = 0;
+        for (int i = 0; i < n; i++) {
+            for (int k = problem.columnStart[i]; k < problem.columnStart[i + 1]; k++) {
+                columnMaterial[next] = problem.columnMaterial[k];
+                columnAmount[next++] = problem.columnAmount[k];
+            }
+            for (int c = 0; c < pool.size(); c++) {
+                long coefficient = pool.get(c)[i];
+                if (coefficient > 0) {
+                    columnMaterial[next] = m + c;
+                    columnAmount[next++] = (double) coefficient / OptimizationProblem.UNIT_SCALE;
+                }
+            }
+        }
+        return new OptimizationProblem(problem.prices, stock, columnStart, columnMaterial, columnAmount,
+            problem.maxUnits);
+    }
+
+    private static boolean contains(List<long[]> pool, long[] cut) {
+        for (long[] existing : pool) {
+            if (Arrays.equals(existing, cut)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(long[] values, int count, long value) {
+        for (int k = 0; k < count; k++) {
+            if (values[k] == value) {
+                return k;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,176 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Arrays;
+
+// PT-BR: Divide o problema em componentes independentes. Produtos e insumos formam um
+//        grafo bipartido (uma aresta para cada linha da receita); produtos em componentes
+//        diferentes nao disputam nenhum insumo, entao o otimo do todo e a soma dos otimos
+//        de cada parte. Um catalogo com linhas que nao compartilham insumos (padaria,
+//        laticinios, embalagens) vira varias arvores pequenas em vez de uma arvore cujo
+//        espaco de busca e o produto de todas.
+//
+//        Os componentes saem de uma union-find sobre os insumos: cada produto une os
+//        insumos da sua receita. Produtos sem nenhum insumo (o Presolve pode ter removido
+//        todos) vao juntos para um componente sem linhas. split() devolve null quando ha
+//        um so componente. merge() leva as solucoes das partes de volta aos indices do
+//        problema recebido.
+// EN-US: Splits the problem into independent components. Products and inputs form a
+//        bipartite graph (one edge per recipe line); products in different components
+//        compete for no input, so the optimum of the whole is the sum of each part's
+//        optimum. A catalog with lines that share no inputs (bakery, dairy, packaging)
+//        becomes several small trees instead of one tree whose search space is the
+//        product of all of them.
+//
+//        The components come from a union-find over the inputs: each product joins the
+//        inputs of its recipe. Products with no input at all (Presolve may have dropped
+//        them all) go together into a component with no rows. split() returns null when
+//        there is a single component. merge() takes the parts' solutions back to the
+//        indices of the given problem.
+final class Decomposition {
+
+    final OptimizationProblem[] components;
+    private final int[][] products;
+    private final int productCount;
+
+    private Decomposition(OptimizationProblem[] components, int[][] products, int productCount) {
+        this.components = components;
+        this.products = products;
+        this.productCount = productCount;
+    }
+
+    static Decomposition split(OptimizationProblem problem) {
+        int n = problem.productCount;
+        int m = problem.materialCount;
+        int[] parent = new int[m];
+        for (int j = 0; j < m; j++) {
+            parent[j] = j;
+        }
+        for (int i = 0; i < n; i++) {
+            int start = problem.columnStart[i];
+            for (int k = start + 1; k < problem.columnStart[i + 1]; k++) {
+                int a = find(parent, problem.columnMaterial[start]);
+                int b = find(parent, problem.columnMaterial[k]);
+                parent[Math.max(a, b)] = Math.min(a, b);
+            }
+        }
+
+        // PT-BR: Numera os componentes na ordem do primeiro produto; o componente sem
+        //        insumos, se existir, fica com o numero do seu primeiro produto tambem.
+        // EN-US: Numbers the components in first-product order; the component with no
+        //        inputs, if any, also takes the number of its first product.
+        int[] componentOfRoot = new int[m];
+        Arrays.fill(componentOfRoot, -1);
+        int[] componentOf = new int[n];
+        int freeComponent = -1;
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (problem.columnStart[i] == problem.columnStart[i + 1]) {
+                if (freeComponent < 0) {
+                    freeComponent = count++;
+                }
+                componentOf[i] = freeComponent;
+                continue;
+            }
+            int root = find(parent, problem.columnMaterial[problem.columnStart[i]]);
+            if (componentOfRoot[root] < 0) {
+                componentOfRoot[root] = count++;
+            }
+            componentOf[i] = componentOfRoot[root];
+        }
+        if (count <= 1) {
+            return null;
+        }
+
+        int[] productsIn = new int[count];
+        for (int i = 0; i < n; i++) {
+            productsIn[componentOf[i]]++;
+        }
+        int[][] products = new int[count][];
+        for (int c = 0; c < count; c++) {
+            products[c] = new int[productsIn[c]];
+            productsIn[c] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            int c = componentOf[i];
+            products[c][productsIn[c]++] = i;
+        }
+
+        // PT-BR: Os insumos de um componente sao renumerados em ordem crescente, entao as
+        //        colunas continuam ordenadas por insumo.
+        // EN-US: A component's inputs are renumbered in increasing order, so the columns
+        //        stay sorted by input.
+        int[] localMaterial = new int[m];
+        OptimizationProblem[] components = new OptimizationProblem[count];
+        for (int c = 0; c < count; c++) {
+            int[] members = products[c];
+            int materials = 0;
+            if (c != freeComponent) {
+                int root = find(parent, problem.columnMaterial[problem.columnStart[members[0]]]);
+                for (int j = 0; j < m; j++) {
+                    localMaterial[j] = find(parent, j) == root ? materials++ : -1;
+                }
+            }
+            double[] stock = new double[materials];
+            for (int j = 0; j < m && materials > 0; j++) {
+                if (localMaterial[j] >= 0) {
+                    stock[localMaterial[j]] = problem.stock[j];
+                }
+            }
+            double[] prices = new double[members.length];
+            int[] maxUnits = new int[members.length];
+            int[] columnStart = new int[members.length + 1];
+            int nonZeros = 0;
+            for (int k = 0; k < members.length; k++) {
+                nonZeros += problem.columnStart[members[k] + 1] - problem.columnStart[members[k]];
+            }
+            int[] columnMaterial = new int[nonZeros];
+            double[] columnAmount = new double[nonZeros];
+            int next = 0;
+            for (int k = 0; k < members.length; k++) {
+                int i = members[k];
+                prices[k] = problem.prices[i];
+                maxUnits[k] = problem.maxUnits[i];
+                for (int e = problem.columnStart[i]; e < problem.columnStart[i + 1]; e++) {
+                    columnMaterial[next] = localMaterial[problem.columnMaterial[e]];
+                    columnAmount[next++] = problem.columnAmount[e];
+                }
+                columnStart[k + 1] = next;
+            }
+            components[c] = new OptimizationProblem(prices, stock, columnStart, columnMaterial,
+                columnAmount, maxUnits);
+        }
+        return new Decomposition(components, products, n);
+    }
+
+    // PT-BR: Copia a solucao do componente para as posicoes dele em 'solution'.
+    // EN-US: Copies the component's solution into its positions in 'solution'.
+    void merge(int component, int[] componentSolution, int[] solution) {
+        int[] members = products[component];
+        for (int k = 0; k < members.length; k++) {
+            solution[members[k]] = componentSolution[k];
+        }
+    }
+
+    // PT-BR: Parte de uma solucao do problema inteiro que cabe ao componente.
+    // EN-US: The part of a whole-problem solution that belongs to the component.
+    int[] slice(int component, int[] solution) {
+        int[] members = products[component];
+        int[] part = new int[members.length];
+        for (int k = 0; k < members.length; k++) {
+            part[k] = solution[members[k]];
+        }
+        return part;
+    }
+
+    int productCount() {
+        return productCount;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,64 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Arrays;
+
+// PT-BR: Pilha do mergulho em profundidade, usada quando a fronteira best-first atinge o
+//        limite de nos (SolverOptions.maxFrontierNodes). Em vez de voltar para o heap, os
+//        filhos de um no entram aqui e sao explorados primeiro, o de maior bound no topo.
+//        Um mergulho so guarda os irmaos ao longo de um caminho, entao a memoria fica
+//        proporcional a profundidade e nao a largura da arvore, e ele chega rapido a
+//        folhas que melhoram o incumbente. Os ids sao slots do pool do proprio worker.
+// EN-US: Depth-first dive stack, used when the best-first frontier reaches the node limit
+//        (SolverOptions.maxFrontierNodes). Instead of going back to the heap, a node's
+//        children go here and are explored first, the one with the highest bound on top.
+//        A dive only keeps the siblings along one path, so memory is proportional to the
+//        depth rather than the width of the tree, and it quickly reaches leaves that
+//        improve the incumbent. The ids are slots of the worker's own pool.
+final class DiveStack {
+
+    private int[] nodes = new int[64];
+    private int size;
+
+    // PT-BR: Move os filhos pendentes do worker para a pilha, em ordem crescente de bound.
+    // EN-US: Moves the worker's pending children to the stack, in increasing bound order.
+    void pushChildren(SearchWorker engine) {
+        int count = engine.pendingCount();
+        if (size + count > nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, size + count));
+        }
+        double[] bound = engine.pool.bound;
+        int start = size;
+        for (int i = 0; i < count; i++) {
+            int node = engine.pending(i);
+            int slot = size++;
+            while (slot > start && bound[nodes[slot - 1]] > bound[node]) {
+                nodes[slot] = nodes[slot - 1];
+                slot--;
+            }
+            nodes[slot] = node;
+        }
+        engine.clearPending();
+    }
+
+    int pop() {
+        return nodes[--size];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // PT-BR: Maior bound entre os nos da pilha (para o bound global quando a busca para).
+    // EN-US: Largest bound among the stacked nodes (for the global bound when the search stops).
+    double maxBound(NodePool pool) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, pool.bound[nodes[i]]);
+        }
+        return max;
+    }
+}
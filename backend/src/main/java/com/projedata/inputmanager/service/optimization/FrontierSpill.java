@@ -0,0 +1,266 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// PT-BR: Deposito em disco dos nos frios da fronteira. Com maxFrontierNodes a busca descarta
+//        os nos de menor bound quando a fronteira enche; com o deposito eles vao para um
+//        arquivo temporario mapeado em memoria (fora do heap da JVM, o sistema operacional
+//        decide o que fica em RAM) e voltam quando a fronteira em memoria esvazia. Assim a
+//        busca pode ir muito alem do que cabe no heap sem perder a prova de otimalidade.
+//
+//        Cada no vira um registro de tamanho fixo com tudo o que o pool guarda dele
+//        (nivel, teto, receita, bound, producao, estoque restante e, quando existem, a
+//        base da relaxacao e a permutacao), entao o no recarregado continua exatamente de
+//        onde parou. No heap fica so o indice: o id do registro e o seu bound, em um
+//        NodeHeap. Registros recarregados voltam para uma free list, e o arquivo so e
+//        criado no primeiro descarte e apagado em close() (o indice continua valendo
+//        para peekBound, que e o que a busca le da fronteira que sobrou).
+//
+//        Se o limite de bytes enche (ou o arquivo nao pode ser criado), spill devolve false
+//        e quem chamou descarta o no como antes. Nada aqui e thread-safe.
+// EN-US: On-disk store for the frontier's cold nodes. With maxFrontierNodes the search
+//        evicts the lowest-bound nodes when the frontier fills up; with the store they go
+//        into a memory-mapped temporary file (off the JVM heap, the operating system
+//        decides what stays in RAM) and come back when the in-memory frontier drains. This
+//        way the search can go far beyond what fits the heap without losing the proof of
+//        optimality.
+//
+//        Each node becomes a fixed-width record with everything the pool keeps about it
+//        (level, cap, revenue, bound, production, remaining stock and, when present, the
+//        relaxation basis and the permutation), so a reloaded node resumes exactly where
+//        it stopped. Only the index stays on the heap: the record id and its bound, in a
+//        NodeHeap. Reloaded records go back to a free list, and the file is only created
+//        on the first spill and deleted in close() (the index stays valid for
+//        peekBound, which is what the search reads from the leftover frontier).
+//
+//        If the byte limit fills up (or the file can't be created), spill returns false
+//        and the caller evicts the node as before. Nothing here is thread-safe.
+final class FrontierSpill implements AutoCloseable {
+
+    private static final long SEGMENT_BYTES = 64L << 20;
+
+    private final int productCount;
+    private final int materialCount;
+    private final boolean keepBasis;
+    private final boolean keepOrder;
+    private final int recordBytes;
+    private final int recordsPerSegment;
+    private final long maxRecords;
+
+    private final NodeHeap index = new NodeHeap(1024);
+    private int[] freeRecords = new int[64];
+    private int freeCount;
+    private int usedRecords;
+    private FileChannel channel;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[4];
+    private boolean failed;
+    private long nodesSpilled;
+
+    private FrontierSpill(int productCount, int materialCount, boolean keepBasis, boolean keepOrder,
+                          int recordBytes, long maxRecords) {
+        this.productCount = productCount;
+        this.materialCount = materialCount;
+        this.keepBasis = keepBasis;
+        this.keepOrder = keepOrder;
+        this.recordBytes = recordBytes;
+        this.maxRecords = maxRecords;
+        this.recordsPerSegment = (int) Math.max(1, Math.min(maxRecords, SEGMENT_BYTES / recordBytes));
+    }
+
+    // PT-BR: Deposito de no maximo 'bytes' bytes para nos do layout dado, ou null se o
+    //        limite nao comporta nem um registro.
+    // EN-US: Store of at most 'bytes' bytes for nodes of the given layout, or null if the
+    //        limit doesn't fit even one record.
+    static FrontierSpill create(long bytes, int productCount, int materialCount, boolean keepBasis,
+                                boolean keepOrder) {
+        long record = 8L * (2 + materialCount) + 4L * (2 + productCount);
+        if (keepBasis) {
+            record += 8L * 2 + 4L * materialCount + productCount;
+        }
+        if (keepOrder) {
+            record += 4L * productCount;
+        }
+        record = (record + 7) & ~7L;
+        long maxRecords = Math.min(bytes / record, Integer.MAX_VALUE);
+        if (maxRecords < 1 || record > SEGMENT_BYTES) {
+            return null;
+        }
+        return new FrontierSpill(productCount, materialCount, keepBasis, keepOrder, (int) record, maxRecords);
+    }
+
+    // PT-BR: Grava o no no deposito (o slot continua do chamador, que o libera). Devolve
+    //        false se nao ha espaco.
+    // EN-US: Writes the node into the store (the slot still belongs to the caller, who
+    //        releases it). Returns false if there's no room.
+    boolean spill(NodePool pool, int node) {
+        int record = acquire();
+        if (record < 0) {
+            return false;
+        }
+        MappedByteBuffer segment = segments[record / recordsPerSegment];
+        int at = (record % recordsPerSegment) * recordBytes;
+        at = putDouble(segment, at, pool.revenue[node]);
+        at = putDouble(segment, at, pool.bound[node]);
+        at = putLongs(segment, at, pool.remaining, node * materialCount, materialCount);
+        if (keepBasis) {
+            at = putDouble(segment, at, pool.relaxed[node]);
+            at = putDouble(segment, at, pool.reducedCost[node]);
+            at = putInts(segment, at, pool.basis, node * materialCount, materialCount);
+        }
+        segment.putInt(at, pool.level[node]);
+        segment.putInt(at + 4, pool.upper[node]);
+        at = putInts(segment, at + 8, pool.production, node * productCount, productCount);
+        if (keepOrder) {
+            at = putInts(segment, at, pool.order, node * productCount, productCount);
+        }
+        if (keepBasis) {
+            for (int i = 0; i < productCount; i++) {
+                segment.put(at + i, pool.atUpper[node * productCount + i] ? (byte) 1 : (byte) 0);
+            }
+        }
+        index.push(record, pool.bound[node]);
+        nodesSpilled++;
+        return true;
+    }
+
+    // PT-BR: Traz de volta o registro de maior bound para um slot novo do pool.
+    // EN-US: Brings the highest-bound record back into a new slot of the pool.
+    int reload(NodePool pool) {
+        int record = index.poll();
+        int node = pool.allocate();
+        MappedByteBuffer segment = segments[record / recordsPerSegment];
+        int at = (record % recordsPerSegment) * recordBytes;
+        pool.revenue[node] = segment.getDouble(at);
+        pool.bound[node] = segment.getDouble(at + 8);
+        at = getLongs(segment, at + 16, pool.remaining, node * materialCount, materialCount);
+        if (keepBasis) {
+            pool.relaxed[node] = segment.getDouble(at);
+            pool.reducedCost[node] = segment.getDouble(at + 8);
+            at = getInts(segment, at + 16, pool.basis, node * materialCount, materialCount);
+        }
+        pool.level[node] = segment.getInt(at);
+        pool.upper[node] = segment.getInt(at + 4);
+        at = getInts(segment, at + 8, pool.production, node * productCount, productCount);
+        if (keepOrder) {
+            at = getInts(segment, at, pool.order, node * productCount, productCount);
+        }
+        if (keepBasis) {
+            for (int i = 0; i < productCount; i++) {
+                pool.atUpper[node * productCount + i] = segment.get(at + i) != 0;
+            }
+        }
+        if (freeCount == freeRecords.length) {
+            freeRecords = Arrays.copyOf(freeRecords, freeCount * 2);
+        }
+        freeRecords[freeCount++] = record;
+        return node;
+    }
+
+    double peekBound() {
+        return index.isEmpty() ? Double.NEGATIVE_INFINITY : index.peekKey();
+    }
+
+    boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    long nodesSpilled() {
+        return nodesSpilled;
+    }
+
+    // PT-BR: Fecha e apaga o arquivo. Uma falha aqui nao invalida a busca que ja terminou,
+    //        entao e ignorada; o sistema limpa o temporario de qualquer forma.
+    // EN-US: Closes and deletes the file. A failure here doesn't invalidate the search that
+    //        already finished, so it's ignored; the system cleans up the temp file anyway.
+    @Override
+    public void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // PT-BR: Ver acima.
+                // EN-US: See above.
+            }
+            channel = null;
+            Arrays.fill(segments, null);
+        }
+    }
+
+    // PT-BR: Registro livre (reaproveitado ou novo, mapeando mais um segmento do arquivo
+    //        se preciso), ou -1 se o deposito esta cheio ou o arquivo falhou.
+    // EN-US: Free record (reused or new, mapping one more segment of the file if needed),
+    //        or -1 if the store is full or the file failed.
+    private int acquire() {
+        if (freeCount > 0) {
+            return freeRecords[--freeCount];
+        }
+        if (failed || usedRecords >= maxRecords) {
+            return -1;
+        }
+        int segment = usedRecords / recordsPerSegment;
+        if (segment == segments.length) {
+            segments = Arrays.copyOf(segments, segments.length * 2);
+        }
+        if (segments[segment] == null) {
+            try {
+                if (channel == null) {
+                    Path file = Files.createTempFile("frontier-", ".spill");
+                    channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+                }
+                long size = (long) recordsPerSegment * recordBytes;
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, segment * size, size);
+                mapped.order(ByteOrder.nativeOrder());
+                segments[segment] = mapped;
+            } catch (IOException e) {
+                failed = true;
+                return -1;
+            }
+        }
+        return usedRecords++;
+    }
+
+    private static int putDouble(MappedByteBuffer segment, int at, double value) {
+        segment.putDouble(at, value);
+        return at + 8;
+    }
+
+    private static int putLongs(MappedByteBuffer segment, int at, long[] values, int from, int length) {
+        for (int k = 0; k < length; k++) {
+            segment.putLong(at + 8 * k, values[from + k]);
+        }
+        return at + 8 * length;
+    }
+
+    private static int putInts(MappedByteBuffer segment, int at, int[] values, int from, int length) {
+        for (int k = 0; k < length; k++) {
+            segment.putInt(at + 4 * k, values[from + k]);
+        }
+        return at + 4 * length;
+    }
+
+    private static int getLongs(MappedByteBuffer segment, int at, long[] values, int from, int length) {
+        for (int k = 0; k < length; k++) {
+            values[from + k] = segment.getLong(at + 8 * k);
+        }
+        return at + 8 * length;
+    }
+
+    private static int getInts(MappedByteBuffer segment, int at, int[] values, int from, int length) {
+        for (int k = 0; k < length; k++) {
+            values[from + k] = segment.getInt(at + 4 * k);
+        }
+        return at + 4 * length;
+    }
+}
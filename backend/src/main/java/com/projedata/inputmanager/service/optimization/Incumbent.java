@@ -0,0 +1,75 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// PT-BR: Melhor solucao conhecida, compartilhada por todos os workers. A receita fica em
+//        um AtomicLong (bits do double), entao a leitura feita a cada poda e livre de
+//        locks e qualquer thread que melhore a solucao passa a podar para todas as outras
+//        imediatamente. A escrita (rara) sincroniza para copiar o vetor de producao junto.
+// EN-US: Best known solution, shared by every worker. The revenue lives in an AtomicLong
+//        (double bits), so the read done on every prune is lock-free and any thread that
+//        improves the solution immediately prunes for all the others. The (rare) write
+//        synchronizes to copy the production vector along with it.
+final class Incumbent {
+
+    private final AtomicLong revenueBits = new AtomicLong(Double.doubleToLongBits(0.0));
+    private final int[] solution;
+    private final SearchProgress progress;
+    private final Presolve presolve;
+    private int improvements;
+
+    Incumbent(int productCount, SearchProgress progress) {
+        this(productCount, progress, null);
+    }
+
+    // PT-BR: Com presolve, a busca trabalha nos indices do problema reduzido; os ouvintes
+    //        recebem o vetor ja expandido para os indices originais.
+    // EN-US: With presolve, the search works on the reduced problem's indices; listeners
+    //        get the vector already expanded back to the original indices.
+    Incumbent(int productCount, SearchProgress progress, Presolve presolve) {
+        this.solution = new int[productCount];
+        this.progress = progress;
+        this.presolve = presolve;
+    }
+
+    double revenue() {
+        return Double.longBitsToDouble(revenueBits.get());
+    }
+
+    boolean offer(double revenue, int[] production, int offset) {
+        if (revenue <= revenue()) {
+            return false;
+        }
+        int[] snapshot;
+        synchronized (this) {
+            if (revenue <= revenue()) {
+                return false;
+            }
+            System.arraycopy(production, offset, solution, 0, solution.length);
+            revenueBits.set(Double.doubleToLongBits(revenue));
+            improvements++;
+            // PT-BR: Dentro do lock so a copia; o ouvinte roda fora dele (SearchProgress
+            //        cuida da ordem), entao um ouvinte lento nao trava os outros workers.
+            // EN-US: Only the copy inside the lock; the listener runs outside it
+            //        (SearchProgress keeps the order), so a slow listener doesn't block the
+            //        other workers.
+            snapshot = progress == null ? null
+                : presolve != null ? presolve.expand(solution) : Arrays.copyOf(solution, solution.length);
+        }
+        if (snapshot != null) {
+            progress.incumbentImproved(revenue, snapshot);
+        }
+        return true;
+    }
+
+    // PT-BR: Quantas vezes o incumbente melhorou (heuristicas, partida a quente e arvore).
+    // EN-US: How many times the incumbent improved (heuristics, warm start and tree).
+    synchronized int improvements() {
+        return improvements;
+    }
+
+    synchronized int[] solution() {
+        return Arrays.copyOf(solution, solution.length);
+    }
+}
@@ -0,0 +1,15 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Recebe cada nova melhor solucao assim que a busca a encontra. E chamado numa
+//        thread da busca, fora dos locks do solver, uma chamada por vez e em ordem
+//        crescente de receita; o vetor de producao e uma copia e pode ser guardado.
+//        Enquanto ele roda, melhorias mais novas podem substituir as intermediarias.
+// EN-US: Receives each new best solution as soon as the search finds it. It's called on
+//        a search thread, outside the solver's locks, one call at a time and in
+//        increasing revenue order; the production vector is a copy and may be kept.
+//        While it runs, newer improvements may supersede the intermediate ones.
+@FunctionalInterface
+public interface IncumbentListener {
+
+    void improved(double revenue, int[] production);
+}
@@ -0,0 +1,17 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Implementacao dos lacos densos do solver (Kernels), escolhida na inicializacao.
+//        SCALAR: lacos Java simples, que o JIT pode ou nao vetorizar sozinho.
+//        VECTOR: Vector API (jdk.incubator.vector), na largura preferida da CPU. Exige
+//        o build com -Pvector e --add-modules jdk.incubator.vector; sem eles a selecao
+//        volta para SCALAR.
+//        Os dois modos dao exatamente o mesmo resultado (ver Kernels).
+// EN-US: Implementation of the solver's dense loops (Kernels), chosen at startup.
+//        SCALAR: plain Java loops, which the JIT may or may not vectorize on its own.
+//        VECTOR: Vector API (jdk.incubator.vector), at the CPU's preferred width. Needs
+//        the -Pvector build and --add-modules jdk.incubator.vector; without them the
+//        selection falls back to SCALAR. Both modes give exactly the same result (see Kernels).
+public enum KernelMode {
+    SCALAR,
+    VECTOR
+}
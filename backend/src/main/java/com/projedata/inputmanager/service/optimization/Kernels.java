@@ -0,0 +1,57 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Escolha global dos lacos densos (ArrayKernels), feita uma vez na inicializacao do
+//        servico (optimization.kernels). Escalar ate la; VECTOR so vale se o build
+//        incluiu VectorKernels (-Pvector) e a JVM carregar jdk.incubator.vector, senao
+//        select avisa devolvendo SCALAR. VectorKernels e carregada por nome porque o
+//        build padrao nao a compila. Quem usa
+//        guarda a implementacao ao ser criado, entao trocar no meio de uma busca nao a
+//        afeta. Como os dois modos dao o mesmo resultado, a escolha nao entra na
+//        assinatura das opcoes.
+// EN-US: Global choice of the dense loops (ArrayKernels), made once at service startup
+//        (optimization.kernels). Scalar until then; VECTOR only applies if the build
+//        included VectorKernels (-Pvector) and the JVM loads jdk.incubator.vector,
+//        otherwise select reports it by returning SCALAR. VectorKernels is loaded by name
+//        because the default build doesn't compile it. Users keep
+//        the implementation when they are created, so switching in the middle of a search
+//        doesn't affect it. Since both modes give the same result, the choice isn't part
+//        of the options' signature.
+public final class Kernels {
+
+    private static final String VECTOR_KERNELS = Kernels.class.getPackageName() + ".VectorKernels";
+
+    private static volatile ArrayKernels current = new ScalarKernels();
+    private static volatile KernelMode mode = KernelMode.SCALAR;
+
+    private Kernels() {
+    }
+
+    // PT-BR: Seleciona o modo e devolve o que ficou valendo.
+    // EN-US: Selects the mode and returns the one now in effect.
+    public static synchronized KernelMode select(KernelMode requested) {
+        ArrayKernels kernels = new ScalarKernels();
+        KernelMode selected = KernelMode.SCALAR;
+        if (requested == KernelMode.VECTOR) {
+            try {
+                kernels = (ArrayKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+                selected = KernelMode.VECTOR;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // PT-BR: Build sem -Pvector, ou jdk.incubator.vector nao foi resolvido
+                //        (falta --add-modules).
+                // EN-US: Build without -Pvector, or jdk.incubator.vector wasn't resolved
+                //        (missing --add-modules).
+            }
+        }
+        current = kernels;
+        mode = selected;
+        return selected;
+    }
+
+    public static KernelMode mode() {
+        return mode;
+    }
+
+    static ArrayKernels current() {
+        return current;
+    }
+}
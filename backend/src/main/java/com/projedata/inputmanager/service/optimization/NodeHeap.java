@@ -0,0 +1,116 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Arrays;
+
+// PT-BR: Heap binario de maximo sobre ids de nos, ordenado pelo upper bound. Substitui o
+//        PriorityQueue<BBNode>, que guardava objetos e chamava o Comparator a cada troca.
+//        Aqui as chaves ficam lado a lado com os ids em arrays primitivos.
+// EN-US: Binary max-heap over node ids, ordered by upper bound. Replaces the
+//        PriorityQueue<BBNode>, which stored objects and called the Comparator on every
+//        swap. Here the keys sit next to the ids in primitive arrays.
+final class NodeHeap {
+
+    private int[] nodes;
+    private double[] keys;
+    private int size;
+
+    NodeHeap(int initialCapacity) {
+        this.nodes = new int[initialCapacity];
+        this.keys = new double[initialCapacity];
+    }
+
+    void push(int node, double key) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[parent] >= key) {
+                break;
+            }
+            nodes[index] = nodes[parent];
+            keys[index] = keys[parent];
+            index = parent;
+        }
+        nodes[index] = node;
+        keys[index] = key;
+    }
+
+    int poll() {
+        int top = nodes[0];
+        size--;
+        siftDown(0, nodes[size], keys[size]);
+        return top;
+    }
+
+    // PT-BR: Remove os 'count' nos de menor chave (usado quando a fronteira passa do
+    //        limite de memoria) e devolve os ids removidos. E O(k log k), mas so roda
+    //        depois de muitas insercoes, entao o custo amortizado por no e pequeno.
+    // EN-US: Removes the 'count' nodes with the lowest keys (used when the frontier goes
+    //        over the memory limit) and returns the removed ids. It's O(k log k), but it
+    //        only runs after many pushes, so the amortized cost per node is small.
+    int[] evictLowest(int count) {
+        count = Math.min(count, size);
+        int[] evicted = new int[count];
+        if (count == 0) {
+            return evicted;
+        }
+        double[] sorted = Arrays.copyOf(keys, size);
+        Arrays.sort(sorted);
+        double threshold = sorted[count - 1];
+        int tiesToEvict = count;
+        for (int k = 0; k < count && sorted[k] < threshold; k++) {
+            tiesToEvict--;
+        }
+
+        int kept = 0;
+        int removed = 0;
+        for (int index = 0; index < size; index++) {
+            double key = keys[index];
+            if (key < threshold || (key == threshold && tiesToEvict-- > 0)) {
+                evicted[removed++] = nodes[index];
+            } else {
+                nodes[kept] = nodes[index];
+                keys[kept++] = key;
+            }
+        }
+        size = kept;
+        for (int index = (size >>> 1) - 1; index >= 0; index--) {
+            siftDown(index, nodes[index], keys[index]);
+        }
+        return evicted;
+    }
+
+    private void siftDown(int index, int node, double key) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && keys[right] > keys[child]) {
+                child = right;
+            }
+            if (key >= keys[child]) {
+                break;
+            }
+            nodes[index] = nodes[child];
+            keys[index] = keys[child];
+            index = child;
+        }
+        nodes[index] = node;
+        keys[index] = key;
+    }
+
+    double peekKey() {
+        return keys[0];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+}
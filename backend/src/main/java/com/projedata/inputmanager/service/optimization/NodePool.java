@@ -0,0 +1,157 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Arrays;
+
+// PT-BR: Armazenamento dos nos da arvore em arrays primitivos ("structure of arrays").
+//        Em vez de criar um objeto BBNode e dois arrays novos para cada filho, cada no
+//        ocupa um slot numerico: os vetores de producao e de estoque restante ficam em
+//        fatias de arrays compartilhados. Slots liberados voltam para uma free list e
+//        sao reaproveitados, entao em regime estavel a busca nao aloca nada.
+//
+//        ATENCAO: os arrays podem ser realocados quando o pool cresce. Nunca guarde uma
+//        referencia a eles atravessando uma chamada a allocate().
+// EN-US: Storage for the tree nodes in primitive arrays ("structure of arrays").
+//        Instead of creating a BBNode object and two fresh arrays for every child, each
+//        node occupies a numeric slot: the production and remaining-stock vectors live in
+//        slices of shared arrays. Released slots go back to a free list and are reused,
+//        so in steady state the search allocates nothing.
+//
+//        WARNING: the arrays may be reallocated when the pool grows. Never keep a
+//        reference to them across a call to allocate().
+final class NodePool {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int productCount;
+    private final int materialCount;
+
+    // PT-BR: O produto do nivel atual tem dominio [production[produto], upper]. Os niveis
+    //        anteriores ja estao fixados e os seguintes ainda estao livres. O produto de
+    //        cada nivel vem da ordem de ramificacao: fixa no SearchWorker ou, nas ordens
+    //        dinamicas, a permutacao do proprio no em 'order'.
+    // EN-US: The current level's product has domain [production[product], upper]. Earlier
+    //        levels are already fixed and later ones are still free. Each level's product
+    //        comes from the branching order: fixed in SearchWorker or, for the dynamic
+    //        orders, the node's own permutation in 'order'.
+    int[] level;
+    int[] upper;
+    double[] revenue;
+    double[] bound;
+    int[] production;
+    // PT-BR: Estoque restante em unidades de ponto fixo (OptimizationProblem.UNIT_SCALE).
+    // EN-US: Remaining stock in fixed-point units (OptimizationProblem.UNIT_SCALE).
+    long[] remaining;
+
+    // PT-BR: Colunas opcionais da relaxacao linear: base otima do no (para o warm start
+    //        dos filhos), o valor relaxado e o custo reduzido do produto do nivel atual.
+    // EN-US: Optional linear relaxation columns: the node's optimal basis (to warm start
+    //        its children), the relaxed value and the reduced cost of the current level's
+    //        product.
+    int[] basis;
+    boolean[] atUpper;
+    double[] relaxed;
+    double[] reducedCost;
+
+    // PT-BR: Opcional: permutacao dos produtos por no (BranchingOrder dinamica).
+    // EN-US: Optional: per-node product permutation (dynamic BranchingOrder).
+    int[] order;
+
+    private int[] freeSlots;
+    private int freeCount;
+    private int used;
+    private int capacity;
+
+    NodePool(int productCount, int materialCount, boolean keepBasis, boolean keepOrder) {
+        this.productCount = productCount;
+        this.materialCount = materialCount;
+        this.capacity = INITIAL_CAPACITY;
+        this.level = new int[capacity];
+        this.upper = new int[capacity];
+        this.revenue = new double[capacity];
+        this.bound = new double[capacity];
+        this.production = new int[capacity * productCount];
+        this.remaining = new long[capacity * materialCount];
+        if (keepBasis) {
+            this.basis = new int[capacity * materialCount];
+            this.atUpper = new boolean[capacity * productCount];
+            this.relaxed = new double[capacity];
+            this.reducedCost = new double[capacity];
+        }
+        if (keepOrder) {
+            this.order = new int[capacity * productCount];
+        }
+        this.freeSlots = new int[capacity];
+    }
+
+    int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (used == capacity) {
+            grow();
+        }
+        return used++;
+    }
+
+    void release(int node) {
+        freeSlots[freeCount++] = node;
+    }
+
+    // PT-BR: Copia o estado de decisao (producao e estoque restante) de um no para outro.
+    //        E o unico custo por filho: O(n + m) sem alocacao.
+    // EN-US: Copies the decision state (production and remaining stock) from one node to
+    //        another. It's the only per-child cost: O(n + m) with no allocation.
+    void copyState(int from, int to) {
+        System.arraycopy(production, from * productCount, production, to * productCount, productCount);
+        System.arraycopy(remaining, from * materialCount, remaining, to * materialCount, materialCount);
+        if (order != null) {
+            System.arraycopy(order, from * productCount, order, to * productCount, productCount);
+        }
+    }
+
+    // PT-BR: Copia um no inteiro de outro pool (usado para mover nos entre a faixa da
+    //        fronteira paralela e o pool privado de um worker).
+    // EN-US: Copies a whole node from another pool (used to move nodes between a parallel
+    //        frontier stripe and a worker's private pool).
+    void copyNode(NodePool source, int from, int to) {
+        level[to] = source.level[from];
+        upper[to] = source.upper[from];
+        revenue[to] = source.revenue[from];
+        bound[to] = source.bound[from];
+        System.arraycopy(source.production, from * productCount, production, to * productCount, productCount);
+        System.arraycopy(source.remaining, from * materialCount, remaining, to * materialCount, materialCount);
+        if (basis != null) {
+            System.arraycopy(source.basis, from * materialCount, basis, to * materialCount, materialCount);
+            System.arraycopy(source.atUpper, from * productCount, atUpper, to * productCount, productCount);
+            relaxed[to] = source.relaxed[from];
+            reducedCost[to] = source.reducedCost[from];
+        }
+        if (order != null) {
+            System.arraycopy(source.order, from * productCount, order, to * productCount, productCount);
+        }
+    }
+
+    int liveNodes() {
+        return used - freeCount;
+    }
+
+    private void grow() {
+        capacity *= 2;
+        level = Arrays.copyOf(level, capacity);
+        upper = Arrays.copyOf(upper, capacity);
+        revenue = Arrays.copyOf(revenue, capacity);
+        bound = Arrays.copyOf(bound, capacity);
+        production = Arrays.copyOf(production, capacity * productCount);
+        remaining = Arrays.copyOf(remaining, capacity * materialCount);
+        if (basis != null) {
+            basis = Arrays.copyOf(basis, capacity * materialCount);
+            atUpper = Arrays.copyOf(atUpper, capacity * productCount);
+            relaxed = Arrays.copyOf(relaxed, capacity);
+            reducedCost = Arrays.copyOf(reducedCost, capacity);
+        }
+        if (order != null) {
+            order = Arrays.copyOf(order, capacity * productCount);
+        }
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+}
@@ -0,0 +1,299 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Arrays;
+
+// PT-BR: Modelo numerico do problema de otimizacao, totalmente desacoplado do Hibernate.
+//        O ProductionOptimizationService converte as entidades para estes vetores uma
+//        unica vez, e o solver trabalha somente com tipos primitivos a partir dai.
+//        Isso permite testar e medir o nucleo da busca sem subir o Quarkus.
+// EN-US: Numeric model of the optimization problem, fully decoupled from Hibernate.
+//        The ProductionOptimizationService converts the entities into these vectors only
+//        once, and the solver works exclusively with primitive types from then on.
+//        This allows testing and measuring the search core without starting Quarkus.
+public final class OptimizationProblem {
+
+    // PT-BR: Escala do ponto fixo: o banco guarda estoque e consumo com 4 casas decimais,
+    //        entao 1 unidade inteira = 0.0001. Os vetores *Units sao a versao exata (long)
+    //        de stock/columnAmount/rowAmount e sao eles que decidem a viabilidade: o
+    //        estoque restante dos nos, os tetos e isFeasible usam so soma e comparacao de
+    //        inteiros, sem tolerancia. Os doubles continuam para o bound (relaxacao
+    //        linear, razoes de preco), e sao reconstruidos a partir dos inteiros para que
+    //        as duas visoes descrevam exatamente o mesmo problema.
+    //        Valores com mais de 4 casas sao arredondados; um consumo positivo que
+    //        arredondaria para 0 vira 1 unidade (0.0001), para nunca ficar de graca.
+    // EN-US: Fixed-point scale: the database keeps stock and consumption with 4 decimals,
+    //        so 1 integer unit = 0.0001. The *Units vectors are the exact (long) version of
+    //        stock/columnAmount/rowAmount and they decide feasibility: the nodes' remaining
+    //        stock, the caps and isFeasible only use integer addition and comparison, with
+    //        no tolerance. The doubles remain for the bound (linear relaxation, price
+    //        ratios), and are rebuilt from the integers so both views describe exactly the
+    //        same problem.
+    //        Values with more than 4 decimals are rounded; a positive consumption that
+    //        would round to 0 becomes 1 unit (0.0001), so it's never free.
+    public static final long UNIT_SCALE = 10_000;
+
+    public final int productCount;
+    public final int materialCount;
+    public final double[] prices;
+    public final double[] stock;
+    public final long[] stockUnits;
+    public final int[] maxUnits;
+
+    // PT-BR: Matriz de consumo esparsa. Uma receita tipica usa poucos dos milhares de
+    //        insumos, entao guardamos so os coeficientes positivos, nas duas direcoes:
+    //          - por produto (CSC): os insumos do produto i estao em
+    //            columnMaterial/columnAmount[columnStart[i] .. columnStart[i + 1]),
+    //            em ordem crescente de insumo;
+    //          - por insumo (CSR): os produtos que usam o insumo j estao em
+    //            rowProduct/rowAmount[rowStart[j] .. rowStart[j + 1]), em ordem
+    //            crescente de produto.
+    //        Memoria e trabalho por produto passam a depender do numero de linhas de
+    //        composicao, e nao de insumos x produtos.
+    // EN-US: Sparse consumption matrix. A typical recipe uses few of the thousands of
+    //        inputs, so we only keep the positive coefficients, in both directions:
+    //          - by product (CSC): product i's inputs are in
+    //            columnMaterial/columnAmount[columnStart[i] .. columnStart[i + 1]),
+    //            in increasing input order;
+    //          - by input (CSR): the products that use input j are in
+    //            rowProduct/rowAmount[rowStart[j] .. rowStart[j + 1]), in increasing
+    //            product order.
+    //        Memory and per-product work now depend on the number of composition rows,
+    //        not on inputs x products.
+    public final int[] columnStart;
+    public final int[] columnMaterial;
+    public final double[] columnAmount;
+    public final long[] columnUnits;
+    public final int[] rowStart;
+    public final int[] rowProduct;
+    public final double[] rowAmount;
+    public final long[] rowUnits;
+
+    // PT-BR: A partir de uma matriz densa consumption[insumo][produto] (testes e medicoes).
+    // EN-US: From a dense consumption[input][product] matrix (tests and measurements).
+    public OptimizationProblem(double[] prices, double[] stock, double[][] consumption) {
+        this(prices, stock, Columns.fromDense(consumption, prices.length), null);
+    }
+
+    // PT-BR: A partir das colunas esparsas: os insumos de cada produto em ordem crescente,
+    //        sem repeticao e com consumo positivo.
+    // EN-US: From the sparse columns: each product's inputs in increasing order, without
+    //        repeats and with positive consumption.
+    public OptimizationProblem(double[] prices, double[] stock, int[] columnStart,
+                               int[] columnMaterial, double[] columnAmount) {
+        this(prices, stock, new Columns(columnStart, columnMaterial, columnAmount), null);
+    }
+
+    // PT-BR: Com maxUnits explicito (usado pelo Presolve, que pode remover o insumo que
+    //        definia o teto de um produto).
+    // EN-US: With explicit maxUnits (used by Presolve, which may drop the input that
+    //        defined a product's cap).
+    OptimizationProblem(double[] prices, double[] stock, int[] columnStart,
+                        int[] columnMaterial, double[] columnAmount, int[] maxUnits) {
+        this(prices, stock, new Columns(columnStart, columnMaterial, columnAmount), maxUnits);
+    }
+
+    private OptimizationProblem(double[] prices, double[] stock, Columns columns, int[] maxUnits) {
+        if (columns.start.length != prices.length + 1) {
+            throw new IllegalArgumentException("columnStart must have productCount + 1 entries");
+        }
+        this.productCount = prices.length;
+        this.materialCount = stock.length;
+        this.prices = prices;
+        this.stockUnits = toStockUnits(stock);
+        this.stock = toDecimal(stockUnits);
+        this.columnStart = columns.start;
+        this.columnMaterial = columns.material;
+        this.columnUnits = new long[columns.amount.length];
+        for (int k = 0; k < columnUnits.length; k++) {
+            columnUnits[k] = Math.max(1, toUnits(columns.amount[k]));
+        }
+        this.columnAmount = toDecimal(columnUnits);
+
+        // PT-BR: Transposta (CSR) por contagem: percorrer os produtos em ordem deixa cada
+        //        linha ja ordenada por produto.
+        // EN-US: Transpose (CSR) by counting: walking the products in order leaves each
+        //        row already sorted by product.
+        int nonZeros = columnStart[productCount];
+        this.rowStart = new int[materialCount + 1];
+        this.rowProduct = new int[nonZeros];
+        this.rowAmount = new double[nonZeros];
+        this.rowUnits = new long[nonZeros];
+        for (int k = 0; k < nonZeros; k++) {
+            rowStart[columnMaterial[k] + 1]++;
+        }
+        for (int j = 0; j < materialCount; j++) {
+            rowStart[j + 1] += rowStart[j];
+        }
+        int[] next = Arrays.copyOf(rowStart, materialCount);
+        for (int i = 0; i < productCount; i++) {
+            for (int k = columnStart[i]; k < columnStart[i + 1]; k++) {
+                int slot = next[columnMaterial[k]]++;
+                rowProduct[slot] = i;
+                rowAmount[slot] = columnAmount[k];
+                rowUnits[slot] = columnUnits[k];
+            }
+        }
+
+        this.maxUnits = maxUnits != null ? maxUnits : computeMaxUnits();
+    }
+
+    // PT-BR: Mesmas receitas com outros precos e estoques (cenarios "e se"). As estruturas
+    //        esparsas sao compartilhadas, so os tetos sao recalculados.
+    // EN-US: Same recipes with other prices and stocks ("what if" scenarios). The sparse
+    //        structures are shared, only the caps are recomputed.
+    public OptimizationProblem withPricesAndStock(double[] newPrices, double[] newStock) {
+        if (newPrices.length != productCount || newStock.length != materialCount) {
+            throw new IllegalArgumentException("Scenario must keep the same products and materials");
+        }
+        return new OptimizationProblem(this, newPrices, newStock);
+    }
+
+    private OptimizationProblem(OptimizationProblem base, double[] prices, double[] stock) {
+        this.productCount = base.productCount;
+        this.materialCount = base.materialCount;
+        this.prices = prices;
+        this.stockUnits = toStockUnits(stock);
+        this.stock = toDecimal(stockUnits);
+        this.columnStart = base.columnStart;
+        this.columnMaterial = base.columnMaterial;
+        this.columnAmount = base.columnAmount;
+        this.columnUnits = base.columnUnits;
+        this.rowStart = base.rowStart;
+        this.rowProduct = base.rowProduct;
+        this.rowAmount = base.rowAmount;
+        this.rowUnits = base.rowUnits;
+        this.maxUnits = computeMaxUnits();
+    }
+
+    // PT-BR: Coeficientes nao nulos da matriz de consumo.
+    // EN-US: Nonzero coefficients of the consumption matrix.
+    public int nonZeros() {
+        return columnStart[productCount];
+    }
+
+    // PT-BR: Consumo de um insumo por unidade do produto (0 se a receita nao o usa).
+    //        Busca binaria na coluna; os lacos quentes percorrem a coluna diretamente.
+    // EN-US: Consumption of an input per unit of the product (0 if the recipe doesn't
+    //        use it). Binary search in the column; hot loops walk the column directly.
+    public double consumption(int material, int product) {
+        int k = Arrays.binarySearch(columnMaterial, columnStart[product],
+            columnStart[product + 1], material);
+        return k >= 0 ? columnAmount[k] : 0.0;
+    }
+
+    // PT-BR: Receita de um vetor de producao.
+    // EN-US: Revenue of a production vector.
+    public double revenueOf(int[] production) {
+        double revenue = 0.0;
+        for (int i = 0; i < productCount; i++) {
+            revenue += prices[i] * production[i];
+        }
+        return revenue;
+    }
+
+    // PT-BR: O vetor respeita os tetos e cabe no estoque? Exato, em unidades inteiras.
+    // EN-US: Does the vector respect the caps and fit the stock? Exact, in integer units.
+    public boolean isFeasible(int[] production) {
+        long[] used = new long[materialCount];
+        for (int i = 0; i < productCount; i++) {
+            if (production[i] < 0 || production[i] > maxUnits[i]) {
+                return false;
+            }
+            for (int k = columnStart[i]; k < columnStart[i + 1]; k++) {
+                used[columnMaterial[k]] += columnUnits[k] * production[i];
+            }
+        }
+        return Kernels.current().fitsWithin(used, stockUnits, materialCount);
+    }
+
+    // PT-BR: Calculamos o maximo de unidades que cada produto pode ter individualmente,
+    //        considerando cada materia-prima como gargalo potencial. Em ponto fixo a
+    //        divisao e exata: 0.3 / 0.1 da 3, sem a tolerancia que o double exigia.
+    // EN-US: We calculate the maximum units each product can have individually,
+    //        considering each raw material as a potential bottleneck. In fixed point the
+    //        division is exact: 0.3 / 0.1 gives 3, without the tolerance double required.
+    private int[] computeMaxUnits() {
+        int[] result = new int[productCount];
+        for (int i = 0; i < productCount; i++) {
+            result[i] = Integer.MAX_VALUE;
+            for (int k = columnStart[i]; k < columnStart[i + 1]; k++) {
+                result[i] = Math.min(result[i], unitsThatFit(stockUnits[columnMaterial[k]], columnUnits[k]));
+            }
+            if (result[i] == Integer.MAX_VALUE) {
+                result[i] = 0;
+            }
+        }
+        return result;
+    }
+
+    // PT-BR: Quantas unidades com consumo 'perUnit' cabem em 'available' (ambos em
+    //        unidades de ponto fixo, perUnit > 0).
+    // EN-US: How many units consuming 'perUnit' fit into 'available' (both in fixed-point
+    //        units, perUnit > 0).
+    static int unitsThatFit(long available, long perUnit) {
+        if (available <= 0) {
+            return 0;
+        }
+        return (int) Math.min(available / perUnit, Integer.MAX_VALUE);
+    }
+
+    // PT-BR: Converte um valor decimal para unidades de ponto fixo (arredondando).
+    // EN-US: Converts a decimal value to fixed-point units (rounding).
+    public static long toUnits(double value) {
+        return Math.round(value * UNIT_SCALE);
+    }
+
+    private static long[] toStockUnits(double[] stock) {
+        long[] units = new long[stock.length];
+        for (int j = 0; j < stock.length; j++) {
+            units[j] = toUnits(stock[j]);
+        }
+        return units;
+    }
+
+    private static double[] toDecimal(long[] units) {
+        double[] values = new double[units.length];
+        for (int k = 0; k < units.length; k++) {
+            values[k] = (double) units[k] / UNIT_SCALE;
+        }
+        return values;
+    }
+
+    private static final class Columns {
+
+        final int[] start;
+        final int[] material;
+        final double[] amount;
+
+        Columns(int[] start, int[] material, double[] amount) {
+            this.start = start;
+            this.material = material;
+            this.amount = amount;
+        }
+
+        static Columns fromDense(double[][] consumption, int productCount) {
+            int materialCount = consumption.length;
+            int[] start = new int[productCount + 1];
+            for (int i = 0; i < productCount; i++) {
+                start[i + 1] = start[i];
+                for (int j = 0; j < materialCount; j++) {
+                    if (consumption[j][i] > 0) {
+                        start[i + 1]++;
+                    }
+                }
+            }
+            int[] material = new int[start[productCount]];
+            double[] amount = new double[start[productCount]];
+            int next = 0;
+            for (int i = 0; i < productCount; i++) {
+                for (int j = 0; j < materialCount; j++) {
+                    if (consumption[j][i] > 0) {
+                        material[next] = j;
+                        amount[next++] = consumption[j][i];
+                    }
+                }
+            }
+            return new Columns(start, material, amount);
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// PT-BR: Branch and Bound paralelo. A fronteira e dividida em faixas ("stripes"), uma por
+//        worker, cada uma com o seu pool, heap e lock. Cada worker:
+//          1. retira o melhor no da propria faixa (ou rouba o melhor no da faixa mais
+//             promissora quando a sua esvazia) e o copia para o seu pool privado;
+//          2. processa o no sem segurar nenhum lock;
+//          3. devolve os filhos sobreviventes para a propria faixa.
+//        O incumbente e compartilhado (Incumbent), entao uma solucao encontrada por um
+//        worker poda imediatamente em todos. Com maxFrontierNodes cada faixa recebe uma
+//        parte igual do limite: quando os filhos nao cabem na faixa o worker mergulha em
+//        profundidade na propria pilha (DiveStack) e, se faixa e pilha passarem do dobro
+//        do limite, os nos de menor bound da faixa sao descartados (como na
+//        SequentialSearch) ou, com frontierSpillBytes, vao para o FrontierSpill da faixa
+//        e voltam quando ela esvazia. A busca e exata: a receita otima e a mesma
+//        da busca sequencial, ainda que a ordem dos nos (e o vetor escolhido entre
+//        empates) possa variar.
+//
+// EN-US: Parallel Branch and Bound. The frontier is split into stripes, one per worker,
+//        each with its own pool, heap and lock. Each worker:
+//          1. takes the best node from its own stripe (or steals the best node from the
+//             most promising stripe when its own runs dry) and copies it into its private
+//             pool;
+//          2. processes the node without holding any lock;
+//          3. hands the surviving children back to its own stripe.
+//        The incumbent is shared (Incumbent), so a solution found by one worker prunes
+//        in all of them immediately. With maxFrontierNodes each stripe gets an equal
+//        share of the limit: when the children don't fit in the stripe the worker dives
+//        depth-first on its own stack (DiveStack) and, if stripe and stack go over twice
+//        the limit, the stripe's lowest-bound nodes are evicted (as in
+//        SequentialSearch) or, with frontierSpillBytes, go to the stripe's FrontierSpill
+//        and come back when it drains. The search is exact: the optimal revenue is the same
+//        as the sequential search, although the node order (and the vector chosen among
+//        ties) may vary.
+final class ParallelSearch {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final OptimizationProblem problem;
+    private final SolverOptions options;
+    private final Incumbent incumbent;
+    private final Stripe[] stripes;
+    private final AtomicLong nodesExplored = new AtomicLong();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private volatile boolean stopped;
+    private volatile TerminationReason stopReason;
+    private final AtomicLong nodesPruned = new AtomicLong();
+    private final AtomicLong transpositionLookups = new AtomicLong();
+    private final AtomicLong transpositionHits = new AtomicLong();
+    private final AtomicLong transpositionPrunes = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private double bestBound;
+    private int peakFrontierSize;
+
+    ParallelSearch(OptimizationProblem problem, SolverOptions options, Incumbent incumbent) {
+        this.problem = problem;
+        this.options = options;
+        this.incumbent = incumbent;
+        this.stripes = new Stripe[options.parallelism];
+        boolean keepBasis = options.boundStrategy == BoundStrategy.LP_RELAXATION;
+        int stripeLimit = options.maxFrontierNodes > 0
+            ? Math.max(1, options.maxFrontierNodes / options.parallelism)
+            : 0;
+        for (int i = 0; i < stripes.length; i++) {
+            FrontierSpill spill = stripeLimit > 0 && options.frontierSpillBytes > 0
+                ? FrontierSpill.create(options.frontierSpillBytes / options.parallelism, problem.productCount,
+                    problem.materialCount, keepBasis, options.branchingOrder.isDynamic())
+                : null;
+            stripes[i] = new Stripe(new NodePool(problem.productCount, problem.materialCount, keepBasis,
+                options.branchingOrder.isDynamic()), stripeLimit, spill);
+        }
+    }
+
+    long run(long startTime) {
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < stripes.length; i++) {
+            workers.add(new Worker(i, startTime));
+        }
+
+        Worker first = workers.get(0);
+        int root = first.engine.createRoot();
+        stripes[0].push(first.engine.pool, root);
+        first.engine.pool.release(root);
+
+        ForkJoinPool executor = options.forkJoinPool;
+        boolean temporary = executor == null;
+        if (temporary) {
+            executor = new ForkJoinPool(options.parallelism);
+        }
+        try {
+            List<ForkJoinTask<Void>> tasks = new ArrayList<>();
+            for (Worker worker : workers) {
+                tasks.add(executor.submit(worker));
+            }
+            for (ForkJoinTask<Void> task : tasks) {
+                task.join();
+            }
+        } finally {
+            if (temporary) {
+                executor.shutdown();
+            }
+            for (Stripe stripe : stripes) {
+                stripe.closeSpill();
+            }
+        }
+        // PT-BR: Alem das faixas, ficam abertos os nos das pilhas de mergulho de quem
+        //        parou no meio de um mergulho.
+        // EN-US: Besides the stripes, the nodes on the dive stacks of workers that stopped
+        //        in the middle of a dive are still open.
+        double frontierBound = frontierBound();
+        for (Worker worker : workers) {
+            frontierBound = Math.max(frontierBound, worker.dive.maxBound(worker.engine.pool));
+            peakFrontierSize += worker.peakDive;
+        }
+        for (Stripe stripe : stripes) {
+            peakFrontierSize += stripe.peakSize();
+        }
+        if (options.progress != null) {
+            options.progress.report(nodesExplored.get(), incumbent.revenue(), frontierBound);
+        }
+        if (stopReason == null && evictedBound() > incumbent.revenue()) {
+            stopReason = TerminationReason.FRONTIER_LIMIT;
+        }
+        bestBound = Math.max(incumbent.revenue(), frontierBound);
+        return nodesExplored.get();
+    }
+
+    long nodesExplored() {
+        return nodesExplored.get();
+    }
+
+    long nodesPruned() {
+        return nodesPruned.get();
+    }
+
+    long transpositionLookups() {
+        return transpositionLookups.get();
+    }
+
+    long transpositionHits() {
+        return transpositionHits.get();
+    }
+
+    long transpositionPrunes() {
+        return transpositionPrunes.get();
+    }
+
+    long nodesEvicted() {
+        long evicted = 0;
+        for (Stripe stripe : stripes) {
+            evicted += stripe.nodesEvicted();
+        }
+        return evicted;
+    }
+
+    long nodesSpilled() {
+        long spilled = 0;
+        for (Stripe stripe : stripes) {
+            spilled += stripe.nodesSpilled();
+        }
+        return spilled;
+    }
+
+    // PT-BR: Soma dos picos de cada faixa e pilha: os picos nao sao simultaneos, entao e
+    //        um limite superior do pico real.
+    // EN-US: Sum of each stripe's and stack's peak: the peaks aren't simultaneous, so it's
+    //        an upper bound of the real peak.
+    int peakFrontierSize() {
+        return peakFrontierSize;
+    }
+
+    // PT-BR: Depois de run(): os workers ja pararam, entao a fronteira restante e exata.
+    // EN-US: After run(): the workers have stopped, so the remaining frontier is exact.
+    double bestBound() {
+        return bestBound;
+    }
+
+    TerminationReason terminationReason() {
+        TerminationReason reason = stopReason;
+        return reason != null ? reason : TerminationReason.OPTIMAL;
+    }
+
+    // PT-BR: Soma do que cada worker alocou na sua thread (-1 se nao ha medicao).
+    // EN-US: Sum of what each worker allocated on its thread (-1 if unmeasured).
+    long allocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    private boolean budgetExhausted(long startTime) {
+        TerminationReason reason = BranchAndBoundSolver.limitReached(options, nodesExplored.get(), startTime);
+        if (reason != null && stopReason == null) {
+            stopReason = reason;
+        }
+        return reason != null;
+    }
+
+    // PT-BR: Maior chave entre as faixas (incluindo os nos descartados). Durante a busca
+    //        e aproximado: nao enxerga os nos que estao sendo processados naquele instante
+    //        pelos outros workers nem as pilhas de mergulho.
+    // EN-US: Largest key among the stripes (including the evicted nodes). During the
+    //        search it's approximate: it doesn't see the nodes being processed at that
+    //        moment by the other workers nor the dive stacks.
+    private double frontierBound() {
+        double bound = Double.NEGATIVE_INFINITY;
+        for (Stripe stripe : stripes) {
+            bound = Math.max(bound, Math.max(stripe.peekKey(), stripe.evictedBound()));
+        }
+        return bound;
+    }
+
+    private double evictedBound() {
+        double bound = Double.NEGATIVE_INFINITY;
+        for (Stripe stripe : stripes) {
+            bound = Math.max(bound, stripe.evictedBound());
+        }
+        return bound;
+    }
+
+    private boolean frontierEmpty() {
+        for (Stripe stripe : stripes) {
+            if (!stripe.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class Worker extends RecursiveAction {
+
+        private final int index;
+        private final long startTime;
+        private final SearchWorker engine;
+        private final DiveStack dive = new DiveStack();
+        private int peakDive;
+
+        Worker(int index, long startTime) {
+            this.index = index;
+            this.startTime = startTime;
+            this.engine = new SearchWorker(problem, options, incumbent);
+        }
+
+        @Override
+        protected void compute() {
+            long allocationStart = AllocationMeter.currentThread();
+            try {
+                search();
+            } finally {
+                nodesPruned.addAndGet(engine.nodesPruned());
+                transpositionLookups.addAndGet(engine.transpositionLookups());
+                transpositionHits.addAndGet(engine.transpositionHits());
+                transpositionPrunes.addAndGet(engine.transpositionPrunes());
+                long allocated = AllocationMeter.since(allocationStart);
+                allocatedBytes.getAndUpdate(total -> total < 0 || allocated < 0 ? -1 : total + allocated);
+            }
+        }
+
+        private void search() {
+            boolean busy = false;
+            try {
+                while (!stopped) {
+                    if (budgetExhausted(startTime)) {
+                        stopped = true;
+                        break;
+                    }
+
+                    // PT-BR: O contador de ocupados sobe ANTES de retirar o no e so desce
+                    //        depois de devolver os filhos e esvaziar a pilha de mergulho,
+                    //        entao "fronteira vazia e ninguem ocupado" significa que a
+                    //        busca realmente acabou.
+                    // EN-US: The busy counter goes up BEFORE taking the node and only comes
+                    //        down after the children are handed back and the dive stack is
+                    //        empty, so "empty frontier and nobody busy" means the search is
+                    //        really over.
+                    if (!busy) {
+                        busyWorkers.incrementAndGet();
+                        busy = true;
+                    }
+                    int node = dive.isEmpty() ? take() : dive.pop();
+                    if (node < 0) {
+                        busyWorkers.decrementAndGet();
+                        busy = false;
+                        if (busyWorkers.get() == 0 && frontierEmpty()) {
+                            break;
+                        }
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                        continue;
+                    }
+
+                    long explored = nodesExplored.incrementAndGet();
+                    if (options.sharedNodes != null) {
+                        options.sharedNodes.incrementAndGet();
+                    }
+                    if (options.progress != null && explored % SearchProgress.REPORT_INTERVAL == 0) {
+                        options.progress.report(explored, incumbent.revenue(), frontierBound());
+                    }
+                    engine.process(node);
+                    Stripe stripe = stripes[index];
+                    if (stripe.limit > 0 && (!dive.isEmpty() || !stripe.fits(engine.pendingCount()))) {
+                        dive.pushChildren(engine);
+                        peakDive = Math.max(peakDive, dive.size());
+                        stripe.evictBeyond(2 * stripe.limit - dive.size(), incumbent.revenue());
+                    } else {
+                        stripe.pushAll(engine);
+                    }
+                    if (dive.isEmpty()) {
+                        busyWorkers.decrementAndGet();
+                        busy = false;
+                    }
+                }
+            } finally {
+                if (busy) {
+                    busyWorkers.decrementAndGet();
+                }
+            }
+        }
+
+        private int take() {
+            int node = stripes[index].pollInto(engine.pool);
+            if (node >= 0) {
+                return node;
+            }
+            Stripe victim = null;
+            double bestKey = Double.NEGATIVE_INFINITY;
+            for (int i = 1; i < stripes.length; i++) {
+                Stripe candidate = stripes[(index + i) % stripes.length];
+                double key = candidate.peekKey();
+                if (key > bestKey) {
+                    bestKey = key;
+                    victim = candidate;
+                }
+            }
+            return victim != null ? victim.pollInto(engine.pool) : -1;
+        }
+    }
+
+    // PT-BR: Uma faixa da fronteira: nos guardados no seu proprio pool (e, se houver, no seu
+    //        deposito em disco), protegidos por lock.
+    // EN-US: A frontier stripe: nodes stored in its own pool (and, if any, in its on-disk
+    //        store), guarded by a lock.
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final NodePool pool;
+        private final NodeHeap heap = new NodeHeap(1024);
+        private final FrontierSpill spill;
+        final int limit;
+        private long nodesEvicted;
+        private double evictedBound = Double.NEGATIVE_INFINITY;
+        private int peakSize;
+
+        Stripe(NodePool pool, int limit, FrontierSpill spill) {
+            this.pool = pool;
+            this.limit = limit;
+            this.spill = spill;
+        }
+
+        void push(NodePool source, int node) {
+            lock.lock();
+            try {
+                int slot = pool.allocate();
+                pool.copyNode(source, node, slot);
+                heap.push(slot, pool.bound[slot]);
+                peakSize = Math.max(peakSize, heap.size());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void pushAll(SearchWorker engine) {
+            int count = engine.pendingCount();
+            if (count == 0) {
+                return;
+            }
+            lock.lock();
+            try {
+                for (int i = 0; i < count; i++) {
+                    int node = engine.pending(i);
+                    int slot = pool.allocate();
+                    pool.copyNode(engine.pool, node, slot);
+                    heap.push(slot, pool.bound[slot]);
+                    engine.pool.release(node);
+                }
+                peakSize = Math.max(peakSize, heap.size());
+            } finally {
+                lock.unlock();
+            }
+            engine.clearPending();
+        }
+
+        int pollInto(NodePool target) {
+            lock.lock();
+            try {
+                if (heap.isEmpty() && !reload()) {
+                    return -1;
+                }
+                int slot = heap.poll();
+                int node = target.allocate();
+                target.copyNode(pool, slot, node);
+                pool.release(slot);
+                return node;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double peekKey() {
+            lock.lock();
+            try {
+                double key = heap.isEmpty() ? Double.NEGATIVE_INFINITY : heap.peekKey();
+                return spill != null ? Math.max(key, spill.peekBound()) : key;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean fits(int count) {
+            lock.lock();
+            try {
+                return heap.size() + count <= limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // PT-BR: Se a faixa tem mais que 'capacity' nos, descarta os de menor bound ate
+        //        sobrar metade do limite a menos que isso (para nao descartar a cada no).
+        // EN-US: If the stripe holds more than 'capacity' nodes, evicts the lowest-bound
+        //        ones until half the limit below that is left (so it doesn't evict on
+        //        every node).
+        void evictBeyond(int capacity, double incumbentRevenue) {
+            lock.lock();
+            try {
+                if (heap.size() <= capacity) {
+                    return;
+                }
+                for (int slot : heap.evictLowest(heap.size() - Math.max(capacity - limit / 2, 0))) {
+                    if (spill == null || !spill.spill(pool, slot)) {
+                        if (pool.bound[slot] > incumbentRevenue) {
+                            evictedBound = Math.max(evictedBound, pool.bound[slot]);
+                        }
+                        nodesEvicted++;
+                    }
+                    pool.release(slot);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int peakSize() {
+            lock.lock();
+            try {
+                return peakSize;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long nodesEvicted() {
+            lock.lock();
+            try {
+                return nodesEvicted;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double evictedBound() {
+            lock.lock();
+            try {
+                return evictedBound;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isEmpty() {
+            lock.lock();
+            try {
+                return heap.isEmpty() && (spill == null || spill.isEmpty());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long nodesSpilled() {
+            lock.lock();
+            try {
+                return spill != null ? spill.nodesSpilled() : 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void closeSpill() {
+            lock.lock();
+            try {
+                if (spill != null) {
+                    spill.close();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // PT-BR: Com o heap vazio, traz de volta do deposito os melhores nos (ate metade do
+        //        limite). Chamado com o lock seguro.
+        // EN-US: With the heap empty, brings the best nodes back from the store (up to half
+        //        the limit). Called with the lock held.
+        private boolean reload() {
+            if (spill == null || spill.isEmpty()) {
+                return false;
+            }
+            for (int loaded = 0; loaded < Math.max(1, limit / 2) && !spill.isEmpty(); loaded++) {
+                int slot = spill.reload(pool);
+                heap.push(slot, pool.bound[slot]);
+            }
+            peakSize = Math.max(peakSize, heap.size());
+            return true;
+        }
+    }
+}
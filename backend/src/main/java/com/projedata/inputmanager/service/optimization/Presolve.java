@@ -0,0 +1,234 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Arrays;
+
+// PT-BR: Presolve: reduz o problema antes da busca, sem mudar a receita otima.
+//          1. Produtos que nao podem ser fabricados (maxUnits 0) ou com preco <= 0 saem.
+//          2. Produtos dominados saem: se A usa <= de cada insumo que B e vale >= B,
+//             trocar cada unidade de B por uma de A continua viavel e nao perde receita.
+//             Receitas identicas sao o caso de empate: fica a mais cara (e, entre precos
+//             iguais, a de menor indice), entao as duplicatas sao mescladas.
+//          3. Insumos que nunca limitam saem: se produzir o teto de todos os produtos
+//             restantes ainda cabe no estoque, a linha nunca fica ativa.
+//          4. Os tetos (maxUnits) sao guardados explicitamente no problema reduzido, ja
+//             que podem ter vindo de um insumo que saiu no passo 3.
+//        expand() leva a solucao reduzida de volta aos indices originais (produtos
+//        removidos ficam com zero).
+// EN-US: Presolve: shrinks the problem before the search, without changing the optimal
+//        revenue.
+//          1. Products that can't be made (maxUnits 0) or with price <= 0 are dropped.
+//          2. Dominated products are dropped: if A uses <= of every input B uses and is
+//             worth >= B, swapping each unit of B for one of A stays feasible and loses
+//             no revenue. Identical recipes are the tie case: the most expensive one
+//             stays (and, among equal prices, the lowest index), so duplicates are merged.
+//          3. Inputs that never bind are dropped: if producing the cap of every remaining
+//             product still fits the stock, the row is never active.
+//          4. The caps (maxUnits) are kept explicitly in the reduced problem, since they
+//             may have come from an input dropped in step 3.
+//        expand() takes the reduced solution back to the original indices (dropped
+//        products get zero).
+final class Presolve {
+
+    final OptimizationProblem reduced;
+    final int removedProducts;
+    final int removedMaterials;
+    private final OptimizationProblem original;
+    private final int[] originalProduct;
+    private final int[] reducedProduct;
+    private final int[] reducedMaterial;
+    private final int[] dominator;
+
+    private Presolve(OptimizationProblem original, OptimizationProblem reduced, int[] originalProduct,
+                     int[] reducedMaterial, int[] dominator, int removedMaterials) {
+        this.original = original;
+        this.reduced = reduced;
+        this.originalProduct = originalProduct;
+        this.reducedMaterial = reducedMaterial;
+        this.dominator = dominator;
+        this.removedProducts = original.productCount - originalProduct.length;
+        this.removedMaterials = removedMaterials;
+        this.reducedProduct = new int[original.productCount];
+        Arrays.fill(reducedProduct, -1);
+        for (int k = 0; k < originalProduct.length; k++) {
+            reducedProduct[originalProduct[k]] = k;
+        }
+    }
+
+    static Presolve reduce(OptimizationProblem problem) {
+        int n = problem.productCount;
+        int m = problem.materialCount;
+        int[] columnStart = problem.columnStart;
+        int[] columnMaterial = problem.columnMaterial;
+        double[] columnAmount = problem.columnAmount;
+
+        boolean[] keep = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            keep[i] = problem.maxUnits[i] > 0 && problem.prices[i] > 0;
+        }
+
+        // PT-BR: A so pode dominar B se B usa todos os insumos de A, em particular o insumo
+        //        de A com menos usuarios; entao so comparamos A com os produtos dessa linha
+        //        da matriz (CSR).
+        // EN-US: A can only dominate B if B uses every input of A, in particular A's input
+        //        with the fewest users; so we only compare A with the products in that row
+        //        of the matrix (CSR).
+        int[] dominator = new int[n];
+        Arrays.fill(dominator, -1);
+        for (int a = 0; a < n; a++) {
+            if (!keep[a]) {
+                continue;
+            }
+            int rarest = columnMaterial[columnStart[a]];
+            for (int k = columnStart[a]; k < columnStart[a + 1]; k++) {
+                if (users(problem, columnMaterial[k]) < users(problem, rarest)) {
+                    rarest = columnMaterial[k];
+                }
+            }
+            for (int r = problem.rowStart[rarest]; r < problem.rowStart[rarest + 1]; r++) {
+                int b = problem.rowProduct[r];
+                if (b != a && keep[b] && dominator[b] < 0 && dominates(problem, a, b)
+                        && !(b < a && dominates(problem, b, a))) {
+                    dominator[b] = a;
+                }
+            }
+        }
+
+        int[] kept = new int[n];
+        int keptCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (keep[i] && dominator[i] < 0) {
+                kept[keptCount++] = i;
+            }
+        }
+
+        // PT-BR: Insumo que nunca limita: consumo com todos os produtos no teto <= estoque.
+        // EN-US: Input that never binds: consumption with every product at its cap <= stock.
+        long[] worstCase = new long[m];
+        for (int k = 0; k < keptCount; k++) {
+            int i = kept[k];
+            for (int e = columnStart[i]; e < columnStart[i + 1]; e++) {
+                worstCase[columnMaterial[e]] += problem.columnUnits[e] * problem.maxUnits[i];
+            }
+        }
+        int[] reducedMaterial = new int[m];
+        int bindingCount = 0;
+        for (int j = 0; j < m; j++) {
+            reducedMaterial[j] = worstCase[j] > problem.stockUnits[j] ? bindingCount++ : -1;
+        }
+
+        double[] prices = new double[keptCount];
+        int[] maxUnits = new int[keptCount];
+        int[] originalProduct = new int[keptCount];
+        int[] reducedStart = new int[keptCount + 1];
+        int[] reducedColumnMaterial = new int[problem.nonZeros()];
+        double[] reducedColumnAmount = new double[problem.nonZeros()];
+        int next = 0;
+        for (int k = 0; k < keptCount; k++) {
+            int i = kept[k];
+            prices[k] = problem.prices[i];
+            maxUnits[k] = problem.maxUnits[i];
+            originalProduct[k] = i;
+            for (int e = columnStart[i]; e < columnStart[i + 1]; e++) {
+                int row = reducedMaterial[columnMaterial[e]];
+                if (row >= 0) {
+                    reducedColumnMaterial[next] = row;
+                    reducedColumnAmount[next++] = columnAmount[e];
+                }
+            }
+            reducedStart[k + 1] = next;
+        }
+        double[] stock = new double[bindingCount];
+        for (int j = 0; j < m; j++) {
+            if (reducedMaterial[j] >= 0) {
+                stock[reducedMaterial[j]] = problem.stock[j];
+            }
+        }
+
+        OptimizationProblem reduced = new OptimizationProblem(prices, stock, reducedStart,
+            Arrays.copyOf(reducedColumnMaterial, next), Arrays.copyOf(reducedColumnAmount, next), maxUnits);
+        return new Presolve(problem, reduced, originalProduct, reducedMaterial, dominator, m - bindingCount);
+    }
+
+    int[] expand(int[] reducedSolution) {
+        int[] solution = new int[original.productCount];
+        for (int k = 0; k < originalProduct.length; k++) {
+            solution[originalProduct[k]] = reducedSolution[k];
+        }
+        return solution;
+    }
+
+    // PT-BR: Linha do insumo original no problema reduzido, ou -1 se ele saiu no passo 3.
+    // EN-US: Row of the original input in the reduced problem, or -1 if it was dropped in step 3.
+    int reducedMaterial(int material) {
+        return reducedMaterial[material];
+    }
+
+    // PT-BR: Leva uma solucao do problema original para o reduzido (caminho inverso de
+    //        expand, usado para partidas a quente). Unidades de um produto dominado passam
+    //        para quem o domina (seguindo a cadeia), o que continua viavel e nao perde
+    //        receita; unidades de produtos sem valor sao descartadas. Devolve null se a
+    //        solucao usa um produto que nao pode ser fabricado.
+    // EN-US: Takes a solution of the original problem to the reduced one (the inverse of
+    //        expand, used for warm starts). Units of a dominated product move to the one
+    //        dominating it (following the chain), which stays feasible and loses no
+    //        revenue; units of worthless products are discarded. Returns null if the
+    //        solution uses a product that can't be made.
+    int[] compress(int[] originalSolution) {
+        int[] solution = new int[originalProduct.length];
+        for (int i = 0; i < original.productCount; i++) {
+            if (originalSolution[i] <= 0) {
+                continue;
+            }
+            int target = keptProduct(i);
+            if (target >= 0) {
+                solution[target] += originalSolution[i];
+            } else if (original.maxUnits[i] == 0) {
+                return null;
+            }
+        }
+        return solution;
+    }
+
+    // PT-BR: Indice no problema reduzido do produto ou, se ele foi dominado, de quem o
+    //        domina (seguindo a cadeia); -1 para produtos sem valor ou que nao podem ser
+    //        fabricados.
+    // EN-US: Index in the reduced problem of the product or, if it was dominated, of the
+    //        one dominating it (following the chain); -1 for worthless products or ones
+    //        that can't be made.
+    int keptProduct(int product) {
+        int target = product;
+        while (reducedProduct[target] < 0 && dominator[target] >= 0) {
+            target = dominator[target];
+        }
+        return reducedProduct[target];
+    }
+
+    // PT-BR: A domina B: preco de A >= preco de B e, em cada insumo de A, A usa <= B
+    //        (fora do suporte de A o consumo de A e zero, entao a condicao vale sozinha).
+    //        As duas colunas estao ordenadas por insumo, entao basta um merge.
+    // EN-US: A dominates B: A's price >= B's price and, on each input of A, A uses <= B
+    //        (outside A's support A's consumption is zero, so the condition holds on its own).
+    //        Both columns are sorted by input, so a merge is enough.
+    private static boolean dominates(OptimizationProblem problem, int a, int b) {
+        if (problem.prices[a] < problem.prices[b]) {
+            return false;
+        }
+        int kb = problem.columnStart[b];
+        int endB = problem.columnStart[b + 1];
+        for (int ka = problem.columnStart[a]; ka < problem.columnStart[a + 1]; ka++) {
+            int material = problem.columnMaterial[ka];
+            while (kb < endB && problem.columnMaterial[kb] < material) {
+                kb++;
+            }
+            if (kb == endB || problem.columnMaterial[kb] != material
+                    || problem.columnUnits[ka] > problem.columnUnits[kb]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int users(OptimizationProblem problem, int material) {
+        return problem.rowStart[material + 1] - problem.rowStart[material];
+    }
+}
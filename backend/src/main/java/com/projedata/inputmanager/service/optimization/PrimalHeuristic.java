@@ -0,0 +1,17 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Heuristicas primais que rodam antes da arvore para semear o incumbente.
+//        GREEDY: preenche por receita por unidade do insumo gargalo.
+//        RELAXATION_ROUNDING: arredonda para baixo a relaxacao linear da raiz e completa
+//        o que sobrar com o guloso.
+//        LOCAL_SEARCH: melhora a melhor solucao acima trocando unidades entre produtos.
+// EN-US: Primal heuristics that run before the tree to seed the incumbent.
+//        GREEDY: fills by revenue per unit of the bottleneck input.
+//        RELAXATION_ROUNDING: rounds the root linear relaxation down and completes what
+//        is left with the greedy.
+//        LOCAL_SEARCH: improves the best solution above by trading units between products.
+public enum PrimalHeuristic {
+    GREEDY,
+    RELAXATION_ROUNDING,
+    LOCAL_SEARCH
+}
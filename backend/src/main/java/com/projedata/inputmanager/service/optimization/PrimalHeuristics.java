@@ -0,0 +1,230 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+// PT-BR: Estagio de heuristicas que roda antes da busca em arvore. Sem ele o incumbente
+//        comeca em zero e nada e podado ate a primeira folha, la no fundo da arvore. Com
+//        uma boa solucao inicial, todo no cujo bound nao a supera e descartado desde a
+//        raiz. As heuristicas so produzem solucoes viaveis (mesma tolerancia de 1e-9 da
+//        busca), entao nunca comprometem a exatidao: no pior caso nao ajudam.
+// EN-US: Heuristic stage that runs before the tree search. Without it the incumbent
+//        starts at zero and nothing is pruned until the first leaf, deep in the tree.
+//        With a good starting solution, every node whose bound doesn't beat it is
+//        discarded from the root on. The heuristics only produce feasible solutions (same
+//        1e-9 tolerance as the search), so they never compromise exactness: at worst they
+//        don't help.
+final class PrimalHeuristics {
+
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_LOCAL_SEARCH_PASSES = 50;
+
+    private final OptimizationProblem problem;
+    private final int n;
+    private final int m;
+    private final int[] greedyOrder;
+    private final long[] remaining;
+
+    PrimalHeuristics(OptimizationProblem problem) {
+        this.problem = problem;
+        this.n = problem.productCount;
+        this.m = problem.materialCount;
+        this.greedyOrder = bottleneckDensityOrder(problem);
+        this.remaining = new long[m];
+    }
+
+    // PT-BR: Roda as heuristicas habilitadas, oferece cada solucao ao incumbente e devolve
+    //        a melhor receita encontrada (0 se nenhuma rodou).
+    // EN-US: Runs the enabled heuristics, offers each solution to the incumbent and
+    //        returns the best revenue found (0 if none ran).
+    double seed(Set<PrimalHeuristic> heuristics, Incumbent incumbent) {
+        int[] best = null;
+        double bestRevenue = 0.0;
+
+        if (heuristics.contains(PrimalHeuristic.GREEDY)) {
+            int[] greedy = greedy();
+            if (revenue(greedy) > bestRevenue) {
+                best = greedy;
+                bestRevenue = revenue(greedy);
+            }
+        }
+        if (heuristics.contains(PrimalHeuristic.RELAXATION_ROUNDING)) {
+            int[] rounded = roundRelaxation();
+            if (revenue(rounded) > bestRevenue) {
+                best = rounded;
+                bestRevenue = revenue(rounded);
+            }
+        }
+        if (heuristics.contains(PrimalHeuristic.LOCAL_SEARCH)) {
+            int[] improved = localSearch(best != null ? best : greedy());
+            if (revenue(improved) > bestRevenue) {
+                best = improved;
+                bestRevenue = revenue(improved);
+            }
+        }
+
+        if (best != null) {
+            incumbent.offer(bestRevenue, best, 0);
+        }
+        return bestRevenue;
+    }
+
+    // PT-BR: Guloso classico da mochila multidimensional: ordena os produtos pela receita
+    //        por unidade do insumo gargalo (preco dividido pela maior fracao do estoque
+    //        que uma unidade consome) e produz o maximo de cada um nessa ordem.
+    // EN-US: Classic multidimensional knapsack greedy: sorts the products by revenue per
+    //        unit of the bottleneck input (price divided by the largest stock fraction a
+    //        unit consumes) and produces as much of each as possible in that order.
+    int[] greedy() {
+        int[] solution = new int[n];
+        System.arraycopy(problem.stockUnits, 0, remaining, 0, m);
+        fill(solution, -1);
+        return solution;
+    }
+
+    // PT-BR: Resolve a relaxacao linear da raiz, arredonda cada produto para baixo (na
+    //        ordem gulosa, respeitando o que ainda cabe) e completa com o guloso.
+    // EN-US: Solves the root linear relaxation, rounds each product down (in greedy
+    //        order, respecting what still fits) and completes with the greedy.
+    int[] roundRelaxation() {
+        BoundedSimplex simplex = new BoundedSimplex(problem);
+        simplex.factorSlackBasis();
+        double[] upper = new double[n];
+        for (int i = 0; i < n; i++) {
+            upper[i] = problem.maxUnits[i];
+        }
+        simplex.solve(problem.stock, upper);
+
+        int[] solution = new int[n];
+        System.arraycopy(problem.stockUnits, 0, remaining, 0, m);
+        for (int i : greedyOrder) {
+            int target = (int) Math.floor(simplex.primalValue(i) + EPSILON);
+            add(solution, i, Math.min(target, maxFeasible(i, problem.maxUnits[i])));
+        }
+        fill(solution, -1);
+        return solution;
+    }
+
+    // PT-BR: Busca local por primeira melhoria. Movimentos: tirar uma unidade ou todas as
+    //        unidades de um produto e reocupar o estoque liberado com o guloso sobre os
+    //        outros produtos. Para quando nenhuma troca melhora ou apos um numero fixo de
+    //        passadas.
+    // EN-US: First-improvement local search. Moves: remove one unit or all the units of a
+    //        product and refill the freed stock with the greedy over the other products.
+    //        Stops when no move improves or after a fixed number of passes.
+    int[] localSearch(int[] start) {
+        int[] current = Arrays.copyOf(start, n);
+        double currentRevenue = revenue(current);
+        int[] candidate = new int[n];
+
+        for (int pass = 0; pass < MAX_LOCAL_SEARCH_PASSES; pass++) {
+            boolean improved = false;
+            for (int i = 0; i < n && !improved; i++) {
+                if (current[i] == 0) {
+                    continue;
+                }
+                for (int removed : new int[] {1, current[i]}) {
+                    System.arraycopy(current, 0, candidate, 0, n);
+                    candidate[i] -= removed;
+                    loadRemaining(candidate);
+                    fill(candidate, i);
+                    double candidateRevenue = revenue(candidate);
+                    if (candidateRevenue > currentRevenue + EPSILON) {
+                        System.arraycopy(candidate, 0, current, 0, n);
+                        currentRevenue = candidateRevenue;
+                        improved = true;
+                        break;
+                    }
+                    if (removed == current[i]) {
+                        break;
+                    }
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+        return current;
+    }
+
+    // PT-BR: Completa a solucao na ordem gulosa com o estoque em 'remaining'. O produto
+    //        'skip' (se >= 0) nao recebe unidades, para a busca local nao desfazer o
+    //        proprio movimento.
+    // EN-US: Completes the solution in greedy order with the stock in 'remaining'. The
+    //        'skip' product (if >= 0) gets no units, so the local search doesn't undo its
+    //        own move.
+    private void fill(int[] solution, int skip) {
+        for (int i : greedyOrder) {
+            if (i != skip) {
+                add(solution, i, maxFeasible(i, problem.maxUnits[i] - solution[i]));
+            }
+        }
+    }
+
+    private void add(int[] solution, int productIndex, int qty) {
+        if (qty <= 0) {
+            return;
+        }
+        solution[productIndex] += qty;
+        consume(productIndex, qty);
+    }
+
+    private void loadRemaining(int[] solution) {
+        System.arraycopy(problem.stockUnits, 0, remaining, 0, m);
+        for (int i = 0; i < n; i++) {
+            if (solution[i] > 0) {
+                consume(i, solution[i]);
+            }
+        }
+    }
+
+    private void consume(int productIndex, int qty) {
+        for (int k = problem.columnStart[productIndex]; k < problem.columnStart[productIndex + 1]; k++) {
+            remaining[problem.columnMaterial[k]] -= problem.columnUnits[k] * qty;
+        }
+    }
+
+    // PT-BR: Mesmo calculo do SearchWorker.maxFeasibleQuantity, sobre 'remaining'.
+    // EN-US: Same computation as SearchWorker.maxFeasibleQuantity, over 'remaining'.
+    private int maxFeasible(int productIndex, int cap) {
+        int maxQty = Math.max(cap, 0);
+        for (int k = problem.columnStart[productIndex]; k < problem.columnStart[productIndex + 1]; k++) {
+            maxQty = Math.min(maxQty, OptimizationProblem.unitsThatFit(
+                remaining[problem.columnMaterial[k]], problem.columnUnits[k]));
+        }
+        return maxQty;
+    }
+
+    private double revenue(int[] solution) {
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            total += problem.prices[i] * solution[i];
+        }
+        return total;
+    }
+
+    // PT-BR: Densidade de um produto = preco / maior fracao do estoque de algum insumo
+    //        consumida por uma unidade. Produtos sem restricao ficam no fim (maxUnits 0).
+    // EN-US: A product's density = price / largest stock fraction of any input consumed
+    //        by one unit. Unconstrained products go last (maxUnits 0).
+    static int[] bottleneckDensityOrder(OptimizationProblem problem) {
+        double[] density = new double[problem.productCount];
+        for (int i = 0; i < problem.productCount; i++) {
+            double bottleneck = 0.0;
+            for (int k = problem.columnStart[i]; k < problem.columnStart[i + 1]; k++) {
+                double available = problem.stock[problem.columnMaterial[k]];
+                bottleneck = Math.max(bottleneck, available > 0
+                    ? problem.columnAmount[k] / available
+                    : Double.POSITIVE_INFINITY);
+            }
+            density[i] = bottleneck > 0 ? problem.prices[i] / bottleneck : Double.NEGATIVE_INFINITY;
+        }
+        return IntStream.range(0, problem.productCount)
+            .boxed()
+            .sorted(Comparator.comparingDouble((Integer i) -> density[i]).reversed())
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+}
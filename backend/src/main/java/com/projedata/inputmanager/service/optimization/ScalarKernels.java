@@ -0,0 +1,56 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Os lacos como sempre foram escritos; e a referencia (e o fallback) do VectorKernels.
+// EN-US: The loops as they were always written; the reference (and fallback) for VectorKernels.
+final class ScalarKernels implements ArrayKernels {
+
+    @Override
+    public void divide(double[] values, int from, int length, double divisor) {
+        for (int k = from; k < from + length; k++) {
+            values[k] /= divisor;
+        }
+    }
+
+    @Override
+    public void subtractScaled(double[] target, int targetFrom, double[] source, int sourceFrom, int length,
+                               double factor) {
+        for (int k = 0; k < length; k++) {
+            target[targetFrom + k] -= factor * source[sourceFrom + k];
+        }
+    }
+
+    @Override
+    public void toDecimal(long[] units, int from, double[] out, int length, long scale) {
+        for (int k = 0; k < length; k++) {
+            out[k] = (double) units[from + k] / scale;
+        }
+    }
+
+    @Override
+    public void subtractScattered(long[] target, int offset, int[] index, long[] values, int from, int to,
+                                  long multiplier) {
+        for (int k = from; k < to; k++) {
+            target[offset + index[k]] -= values[k] * multiplier;
+        }
+    }
+
+    @Override
+    public double minQuotient(long[] numerators, int offset, int[] index, long[] denominators, int from, int to,
+                              double cap) {
+        double min = cap;
+        for (int k = from; k < to; k++) {
+            min = Math.min(min, (double) numerators[offset + index[k]] / denominators[k]);
+        }
+        return min;
+    }
+
+    @Override
+    public boolean fitsWithin(long[] used, long[] limit, int length) {
+        for (int k = 0; k < length; k++) {
+            if (used[k] > limit[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
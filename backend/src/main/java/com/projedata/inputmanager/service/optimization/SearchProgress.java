@@ -0,0 +1,113 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// PT-BR: Canal entre uma busca em andamento e quem a acompanha (por exemplo, um job
+//        assincrono). O solver publica periodicamente os nos explorados, o incumbente e o
+//        melhor limite da fronteira; quem acompanha pode pedir o cancelamento, que e
+//        cooperativo: o solver o verifica a cada no e devolve o melhor plano ja achado.
+//
+//        Os campos sao volatile porque sao escritos pela thread da busca e lidos por
+//        threads HTTP. A publicacao acontece a cada REPORT_INTERVAL nos para que o custo
+//        na busca seja desprezivel. Cada novo incumbente, por outro lado, e repassado na
+//        hora ao IncumbentListener, se houver um, fora de qualquer lock do solver: a
+//        melhoria vai para uma caixa com so a mais recente e uma thread por vez a
+//        entrega. Quem melhora enquanto outra thread entrega so deixa o valor na caixa
+//        (a que entrega o pega em seguida), entao nenhum worker espera pelo ouvinte; o
+//        ouvinte recebe receitas sempre crescentes, e melhorias que chegam durante uma
+//        entrega podem ser substituidas pela seguinte.
+// EN-US: Channel between a running search and whoever follows it (for example, an
+//        asynchronous job). The solver periodically publishes the explored nodes, the
+//        incumbent and the frontier's best bound; the follower may request cancellation,
+//        which is cooperative: the solver checks it at every node and returns the best
+//        plan found so far.
+//
+//        The fields are volatile because they're written by the search thread and read
+//        by HTTP threads. Publishing happens every REPORT_INTERVAL nodes so the cost to
+//        the search is negligible. Each new incumbent, on the other hand, is handed
+//        straight to the IncumbentListener, if there is one, outside any solver lock: the
+//        improvement goes into a mailbox holding only the latest one and one thread at a
+//        time delivers it. Whoever improves while another thread delivers just leaves the
+//        value in the mailbox (the delivering one picks it up next), so no worker waits
+//        for the listener; the listener gets strictly increasing revenues, and
+//        improvements arriving during a delivery may be superseded by the next one.
+public class SearchProgress {
+
+    static final int REPORT_INTERVAL = 1024;
+
+    private volatile boolean cancelled;
+    private volatile long nodesExplored;
+    private volatile double incumbentRevenue;
+    private volatile double bestBound = Double.POSITIVE_INFINITY;
+    private volatile IncumbentListener incumbentListener;
+    private final AtomicReference<Improvement> pending = new AtomicReference<>();
+    private final AtomicBoolean delivering = new AtomicBoolean();
+    private double delivered = Double.NEGATIVE_INFINITY;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long nodesExplored() {
+        return nodesExplored;
+    }
+
+    public double incumbentRevenue() {
+        return incumbentRevenue;
+    }
+
+    // PT-BR: Maior limite superior entre os nos abertos (nunca menor que o incumbente).
+    //        Infinito enquanto a raiz nao foi avaliada.
+    // EN-US: Largest upper bound among the open nodes (never below the incumbent).
+    //        Infinite until the root has been evaluated.
+    public double bestBound() {
+        return bestBound;
+    }
+
+    public void setIncumbentListener(IncumbentListener listener) {
+        this.incumbentListener = listener;
+    }
+
+    void incumbentImproved(double revenue, int[] production) {
+        incumbentRevenue = revenue;
+        if (incumbentListener == null) {
+            return;
+        }
+        Improvement improvement = new Improvement(revenue, production);
+        pending.accumulateAndGet(improvement,
+            (current, offered) -> current == null || offered.revenue > current.revenue ? offered : current);
+        while (pending.get() != null && delivering.compareAndSet(false, true)) {
+            try {
+                Improvement next = pending.getAndSet(null);
+                if (next != null && next.revenue > delivered) {
+                    delivered = next.revenue;
+                    incumbentListener.improved(next.revenue, next.production);
+                }
+            } finally {
+                delivering.set(false);
+            }
+        }
+    }
+
+    void report(long nodes, double incumbent, double frontierBound) {
+        nodesExplored = nodes;
+        incumbentRevenue = incumbent;
+        bestBound = Math.max(incumbent, frontierBound);
+    }
+
+    private static final class Improvement {
+
+        final double revenue;
+        final int[] production;
+
+        Improvement(double revenue, int[] production) {
+            this.revenue = revenue;
+            this.production = production;
+        }
+    }
+}
@@ -0,0 +1,601 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// PT-BR: Motor de um unico fluxo de busca: guarda o pool de nos, o simplex da relaxacao
+//        e os vetores auxiliares, e sabe processar um no (podar, registrar folha ou gerar
+//        filhos). A busca sequencial usa um worker; a paralela usa um por thread, ja que
+//        nada aqui e thread-safe -- so o Incumbent e compartilhado.
+// EN-US: Engine for a single search stream: holds the node pool, the relaxation simplex
+//        and the scratch vectors, and knows how to process a node (prune, record a leaf
+//        or generate children). The sequential search uses one worker; the parallel one
+//        uses one per thread, since nothing here is thread-safe -- only the Incumbent is
+//        shared.
+final class SearchWorker {
+
+    private static final double EPSILON = 1e-9;
+
+    // PT-BR: Marca em upper de um no cujo produto do nivel ainda nao foi escolhido (ordens
+    //        dinamicas): a escolha acontece quando o bound do no e calculado.
+    // EN-US: Mark in a node's upper when the level's product hasn't been chosen yet
+    //        (dynamic orders): the choice happens when the node's bound is computed.
+    private static final int UNSELECTED = -1;
+
+    // PT-BR: Piso do placar de pseudo-custo, para que um lado sem ganho nao zere o produto.
+    // EN-US: Pseudo-cost score floor, so a side with no gain doesn't zero the product.
+    private static final double SCORE_FLOOR = 1e-6;
+
+    private final OptimizationProblem problem;
+    private final SolverOptions options;
+    private final Incumbent incumbent;
+    private final int n;
+    private final int m;
+    final NodePool pool;
+    private int[] pending;
+    private int pendingCount;
+    private final BoundedSimplex relaxation;
+    private final double[] relaxationRemaining;
+    private final double[] relaxationUpper;
+    private final int[] order;
+    private final boolean descending;
+    private final double[] downCost;
+    private final int[] downCount;
+    private final double[] upCost;
+    private final int[] upCount;
+    private final TranspositionTable transpositions;
+    private final ArrayKernels kernels = Kernels.current();
+    private long nodesPruned;
+
+    // PT-BR: Os filhos sobreviventes ficam pendentes ate que a busca os mova para a
+    //        fronteira (heap ou faixa) ou para a pilha do mergulho.
+    // EN-US: The surviving children stay pending until the search moves them to the
+    //        frontier (heap or stripe) or to the dive stack.
+    SearchWorker(OptimizationProblem problem, SolverOptions options, Incumbent incumbent) {
+        this.problem = problem;
+        this.options = options;
+        this.incumbent = incumbent;
+        this.n = problem.productCount;
+        this.m = problem.materialCount;
+        boolean useRelaxation = options.boundStrategy == BoundStrategy.LP_RELAXATION;
+        this.pool = new NodePool(n, m, useRelaxation, options.branchingOrder.isDynamic());
+        this.pending = new int[64];
+        this.relaxation = useRelaxation ? new BoundedSimplex(problem) : null;
+        this.relaxationRemaining = useRelaxation ? new double[m] : null;
+        this.relaxationUpper = useRelaxation ? new double[n] : null;
+        this.order = options.branchingOrder == BranchingOrder.BOTTLENECK_DENSITY
+            ? PrimalHeuristics.bottleneckDensityOrder(problem)
+            : IntStream.range(0, n).toArray();
+        this.descending = options.valueOrder == ValueOrder.DESCENDING;
+        boolean pseudoCosts = options.branchingOrder == BranchingOrder.PSEUDO_COST;
+        this.downCost = pseudoCosts ? new double[n] : null;
+        this.downCount = pseudoCosts ? new int[n] : null;
+        this.upCost = pseudoCosts ? new double[n] : null;
+        this.upCount = pseudoCosts ? new int[n] : null;
+        this.transpositions = options.transpositionTableBytes > 0
+            ? TranspositionTable.create(options.transpositionTableBytes / Math.max(1, options.parallelism), n, m,
+                options.branchingOrder.isDynamic())
+            : null;
+    }
+
+    // PT-BR: Cria o no raiz (nada decidido, estoque completo) e calcula o seu bound.
+    // EN-US: Creates the root node (nothing decided, full stock) and computes its bound.
+    int createRoot() {
+        int root = pool.allocate();
+        pool.level[root] = 0;
+        pool.revenue[root] = 0.0;
+        Arrays.fill(pool.production, root * n, root * n + n, 0);
+        System.arraycopy(problem.stockUnits, 0, pool.remaining, root * m, m);
+        if (pool.order != null) {
+            System.arraycopy(order, 0, pool.order, root * n, n);
+        }
+        pool.upper[root] = n == 0 ? 0 : pool.order != null ? UNSELECTED : problem.maxUnits[order[0]];
+        if (relaxation != null) {
+            relaxation.factorSlackBasis();
+        }
+        pool.bound[root] = calculateUpperBound(root);
+        return root;
+    }
+
+    // PT-BR: Processa um no retirado da fronteira: poda pelo bound, registra folhas como
+    //        incumbente ou gera os filhos. O slot do no e sempre liberado no final.
+    // EN-US: Processes a node taken from the frontier: prunes by bound, records leaves as
+    //        the incumbent or generates the children. The node's slot is always released
+    //        at the end.
+    void process(int node) {
+        if (pool.bound[node] <= incumbent.revenue()) {
+            nodesPruned++;
+            pool.release(node);
+            return;
+        }
+
+        if (pool.level[node] == n) {
+            incumbent.offer(pool.revenue[node], pool.production, node * n);
+            pool.release(node);
+            return;
+        }
+
+        if (relaxation != null) {
+            fixByReducedCost(node);
+        }
+        if (options.branchingMode == BranchingMode.INTERVAL) {
+            expandInterval(node);
+        } else {
+            expand(node);
+        }
+        pool.release(node);
+    }
+
+    // PT-BR: Nos descartados pelo limite: filhos que nem entraram na fronteira e nos
+    //        que ficaram obsoletos enquanto esperavam (o incumbente melhorou).
+    // EN-US: Nodes discarded by the bound: children that never entered the frontier and
+    //        nodes that went stale while waiting (the incumbent improved).
+    long nodesPruned() {
+        return nodesPruned;
+    }
+
+    // PT-BR: Consultas a tabela de transposicao, estados ja vistos e nos podados por eles
+    //        (0 sem tabela).
+    // EN-US: Transposition table lookups, states already seen and nodes pruned by them
+    //        (0 without a table).
+    long transpositionLookups() {
+        return transpositions != null ? transpositions.lookups() : 0;
+    }
+
+    long transpositionHits() {
+        return transpositions != null ? transpositions.hits() : 0;
+    }
+
+    long transpositionPrunes() {
+        return transpositions != null ? transpositions.prunes() : 0;
+    }
+
+    int pendingCount() {
+        return pendingCount;
+    }
+
+    int pending(int index) {
+        return pending[index];
+    }
+
+    void clearPending() {
+        pendingCount = 0;
+    }
+
+    // PT-BR: Gera os filhos do no: uma quantidade para o produto do nivel atual, dentro do
+    //        dominio [lo, hi] ja apertado. A quantidade maxima viavel e calculada uma unica
+    //        vez a partir do estoque restante do no, entao nao e preciso testar a
+    //        viabilidade de cada filho.
+    // EN-US: Generates the node's children: one quantity for the current level's product,
+    //        within the already tightened domain [lo, hi]. The maximum feasible quantity is
+    //        computed once from the node's remaining stock, so there is no need to test
+    //        each child's feasibility.
+    private void expand(int node) {
+        prepareRelaxation(node);
+        int level = pool.level[node];
+        int productIndex = productAt(node, level);
+        int lo = pool.production[node * n + productIndex];
+        int hi = lo + maxFeasibleQuantity(node, productIndex, pool.upper[node] - lo);
+        double parentBound = pool.bound[node];
+        double relaxed = downCost != null ? relaxedValue(node, productIndex, lo, hi) : 0.0;
+
+        for (int step = 0; step <= hi - lo; step++) {
+            int qty = descending ? hi - step : lo + step;
+            int child = pool.allocate();
+            pool.copyState(node, child);
+            pool.revenue[child] = pool.revenue[node];
+            addUnits(child, productIndex, qty - lo);
+            fixAndAdvance(child, level);
+            double bound = pushIfPromising(child);
+            if (downCost != null && Math.abs(qty - relaxed) < 1.0) {
+                learnPseudoCost(productIndex, parentBound - bound, Math.abs(qty - relaxed), qty > relaxed);
+            }
+        }
+    }
+
+    // PT-BR: Ramificacao por intervalos. O no tem o produto atual no dominio [lo, hi];
+    //        dividimos em [lo, k] e [k + 1, hi], onde k vem do valor fracionario da
+    //        relaxacao. Quando o valor relaxado nao cai estritamente dentro do dominio
+    //        (o bound independente sempre empurra o produto ate o teto), usamos o ponto
+    //        medio, o que da uma bissecao: log2(hi - lo) niveis em vez de hi - lo filhos.
+    // EN-US: Interval branching. The node has the current product in domain [lo, hi];
+    //        we split it into [lo, k] and [k + 1, hi], where k comes from the relaxation's
+    //        fractional value. When the relaxed value doesn't fall strictly inside the
+    //        domain (the independent bound always pushes the product to its ceiling), we
+    //        use the midpoint, which gives a bisection: log2(hi - lo) levels instead of
+    //        hi - lo children.
+    private void expandInterval(int node) {
+        prepareRelaxation(node);
+        int level = pool.level[node];
+        int productIndex = productAt(node, level);
+        int lo = pool.production[node * n + productIndex];
+        int hi = lo + maxFeasibleQuantity(node, productIndex, pool.upper[node] - lo);
+
+        if (lo == hi) {
+            int child = pool.allocate();
+            pool.copyState(node, child);
+            pool.revenue[child] = pool.revenue[node];
+            fixAndAdvance(child, level);
+            pushIfPromising(child);
+            return;
+        }
+
+        double relaxed = relaxedValue(node, productIndex, lo, hi);
+        int split = splitPoint(relaxed, lo, hi);
+        if (descending) {
+            branchUp(node, level, productIndex, lo, hi, split, relaxed);
+            branchDown(node, level, productIndex, lo, split, relaxed);
+        } else {
+            branchDown(node, level, productIndex, lo, split, relaxed);
+            branchUp(node, level, productIndex, lo, hi, split, relaxed);
+        }
+    }
+
+    // PT-BR: Ramo x <= split: o dominio do produto vira [lo, split].
+    // EN-US: Branch x <= split: the product's domain becomes [lo, split].
+    private void branchDown(int node, int level, int productIndex, int lo, int split, double relaxed) {
+        int left = pool.allocate();
+        pool.copyState(node, left);
+        pool.revenue[left] = pool.revenue[node];
+        pool.level[left] = level;
+        pool.upper[left] = split;
+        if (split == lo) {
+            fixAndAdvance(left, level);
+        }
+        double bound = pushIfPromising(left);
+        if (downCost != null) {
+            learnPseudoCost(productIndex, pool.bound[node] - bound, relaxed - split, false);
+        }
+    }
+
+    // PT-BR: Ramo x >= split + 1: as unidades ate split + 1 ja entram no no.
+    // EN-US: Branch x >= split + 1: the units up to split + 1 go into the node right away.
+    private void branchUp(int node, int level, int productIndex, int lo, int hi, int split, double relaxed) {
+        int right = pool.allocate();
+        pool.copyState(node, right);
+        pool.revenue[right] = pool.revenue[node];
+        pool.level[right] = level;
+        pool.upper[right] = hi;
+        addUnits(right, productIndex, split + 1 - lo);
+        if (split + 1 == hi) {
+            fixAndAdvance(right, level);
+        }
+        double bound = pushIfPromising(right);
+        if (downCost != null) {
+            learnPseudoCost(productIndex, pool.bound[node] - bound, split + 1 - relaxed, true);
+        }
+    }
+
+    private int splitPoint(double relaxed, int lo, int hi) {
+        int k = (int) Math.floor(relaxed);
+        if (k >= lo && k < hi && relaxed - k > EPSILON) {
+            return k;
+        }
+        return lo + (hi - lo) / 2;
+    }
+
+    // PT-BR: Valor relaxado do produto do nivel atual, com dominio [lo, hi].
+    // EN-US: Relaxed value of the current level's product, with domain [lo, hi].
+    private double relaxedValue(int node, int productIndex, int lo, int hi) {
+        return relaxation != null
+            ? pool.relaxed[node]
+            : lo + fractionalUnits(node, productIndex, hi - lo);
+    }
+
+    // PT-BR: Fixacao por custo reduzido, com o incumbente atual. O bound do no e o limite
+    //        dual y.b + soma(u * max(0, d)), entao afastar o produto do limite em que o
+    //        custo reduzido d o empurra custa pelo menos |d| por unidade:
+    //          - d > 0: produzir t unidades abaixo do teto custa d * t; se isso passa da
+    //            folga (bound - incumbente) o no nao melhora o plano, entao o piso sobe;
+    //          - d < 0: cada unidade custa |d|, entao o teto desce.
+    //        Subir o piso ja consome as unidades no no (cabem: o teto veio do estoque).
+    // EN-US: Reduced-cost fixing, with the current incumbent. The node's bound is the dual
+    //        bound y.b + sum(u * max(0, d)), so moving the product away from the bound its
+    //        reduced cost d pushes it to costs at least |d| per unit:
+    //          - d > 0: producing t units below the cap costs d * t; if that exceeds the
+    //            slack (bound - incumbent) the node can't improve the plan, so the floor
+    //            goes up;
+    //          - d < 0: each unit costs |d|, so the cap comes down.
+    //        Raising the floor consumes the units in the node right away (they fit: the
+    //        cap came from the stock).
+    private void fixByReducedCost(int node) {
+        double reducedCost = pool.reducedCost[node];
+        double slack = pool.bound[node] - incumbent.revenue();
+        int productIndex = productAt(node, pool.level[node]);
+        int lo = pool.production[node * n + productIndex];
+        int hi = pool.upper[node];
+        if (reducedCost > EPSILON) {
+            long below = (long) Math.floor(slack / reducedCost + EPSILON);
+            if (below < hi - lo) {
+                addUnits(node, productIndex, (int) (hi - lo - below));
+            }
+        } else if (reducedCost < -EPSILON) {
+            long above = (long) Math.floor(slack / -reducedCost + EPSILON);
+            if (above < hi - lo) {
+                pool.upper[node] = lo + (int) above;
+            }
+        }
+    }
+
+    // PT-BR: O estado do filho ja foi visto com receita maior ou igual? Nas ordens
+    //        dinamicas, antes da escolha do produto do nivel, o estado e so o conjunto
+    //        fixado e o estoque (produto -1).
+    // EN-US: Has the child's state already been seen with a greater or equal revenue? In
+    //        the dynamic orders, before the level's product is chosen, the state is just
+    //        the fixed set and the stock (product -1).
+    private boolean isTransposition(int node) {
+        int level = pool.level[node];
+        boolean unselected = pool.upper[node] == UNSELECTED;
+        int productIndex = unselected ? -1 : productAt(node, level);
+        int width = unselected ? 0 : pool.upper[node] - pool.production[node * n + productIndex];
+        return transpositions.dominated(level, productIndex, width, pool.revenue[node], pool.remaining, node * m,
+            pool.order, node * n);
+    }
+
+    // PT-BR: Produto decidido na posicao 'position' da ordem de ramificacao do no.
+    // EN-US: Product decided at position 'position' of the node's branching order.
+    private int productAt(int node, int position) {
+        return pool.order != null ? pool.order[node * n + position] : order[position];
+    }
+
+    // PT-BR: Soma 'qty' unidades do produto ao no, atualizando producao, receita e
+    //        estoque restante de forma incremental.
+    // EN-US: Adds 'qty' units of the product to the node, updating production, revenue
+    //        and remaining stock incrementally.
+    private void addUnits(int node, int productIndex, int qty) {
+        if (qty == 0) {
+            return;
+        }
+        pool.production[node * n + productIndex] += qty;
+        pool.revenue[node] += problem.prices[productIndex] * qty;
+
+        kernels.subtractScattered(pool.remaining, node * m, problem.columnMaterial, problem.columnUnits,
+            problem.columnStart[productIndex], problem.columnStart[productIndex + 1], qty);
+    }
+
+    // PT-BR: Fecha a decisao do produto atual e abre o proximo com o dominio completo.
+    //        Nas ordens dinamicas o proximo produto so e escolhido junto com o bound.
+    // EN-US: Closes the current product's decision and opens the next one with its full
+    //        domain. In the dynamic orders the next product is only chosen with the bound.
+    private void fixAndAdvance(int node, int level) {
+        int next = level + 1;
+        pool.level[node] = next;
+        if (next == n) {
+            pool.upper[node] = 0;
+        } else {
+            pool.upper[node] = pool.order != null ? UNSELECTED : problem.maxUnits[order[next]];
+        }
+    }
+
+    // PT-BR: Calcula o bound do filho e o deixa pendente se ele pode melhorar o plano.
+    //        Um filho dominado na tabela de transposicao sai antes do bound (NaN).
+    // EN-US: Computes the child's bound and leaves it pending if it can improve the plan.
+    //        A child dominated in the transposition table leaves before the bound (NaN).
+    private double pushIfPromising(int node) {
+        if (transpositions != null && pool.level[node] < n && isTransposition(node)) {
+            nodesPruned++;
+            pool.release(node);
+            return Double.NaN;
+        }
+        double bound = calculateUpperBound(node);
+        pool.bound[node] = bound;
+        if (bound <= incumbent.revenue()) {
+            nodesPruned++;
+            pool.release(node);
+        } else {
+            if (pendingCount == pending.length) {
+                pending = Arrays.copyOf(pending, pendingCount * 2);
+            }
+            pending[pendingCount++] = node;
+        }
+        return bound;
+    }
+
+    // PT-BR: Escolhe, entre os produtos livres do no, o que sera decidido no nivel atual e
+    //        o traz para essa posicao da permutacao. Sem nenhum produto fracionario (ou com
+    //        placares iguais) fica o primeiro livre, o que mantem a ordem do catalogo.
+    // EN-US: Picks, among the node's free products, the one decided at the current level
+    //        and brings it to that position of the permutation. With no fractional product
+    //        (or tied scores) the first free one stays, which keeps the catalog order.
+    private int selectProduct(int node, int level) {
+        int offset = node * n;
+        int bestPosition = level;
+        double bestScore = -1.0;
+        for (int position = level; position < n; position++) {
+            int productIndex = pool.order[offset + position];
+            double value = relaxation != null
+                ? relaxation.primalValue(productIndex)
+                : fractionalUnits(node, productIndex, problem.maxUnits[productIndex]);
+            double score = downCost != null
+                ? pseudoCostScore(productIndex, value)
+                : Math.min(value - Math.floor(value), Math.ceil(value) - value);
+            if (score > bestScore) {
+                bestScore = score;
+                bestPosition = position;
+            }
+        }
+        int chosen = pool.order[offset + bestPosition];
+        pool.order[offset + bestPosition] = pool.order[offset + level];
+        pool.order[offset + level] = chosen;
+        pool.upper[node] = maxFeasibleQuantity(node, chosen, problem.maxUnits[chosen]);
+        return chosen;
+    }
+
+    // PT-BR: Placar classico do produto: (queda esperada descendo) x (queda esperada
+    //        subindo). Sem historico, o custo por unidade comeca no proprio preco.
+    // EN-US: Classic product score: (expected drop going down) x (expected drop going up).
+    //        With no history, the per-unit cost starts at the price itself.
+    private double pseudoCostScore(int productIndex, double value) {
+        double fraction = value - Math.floor(value);
+        double down = downCount[productIndex] > 0
+            ? downCost[productIndex] / downCount[productIndex]
+            : problem.prices[productIndex];
+        double up = upCount[productIndex] > 0
+            ? upCost[productIndex] / upCount[productIndex]
+            : problem.prices[productIndex];
+        return Math.max(fraction * down, SCORE_FLOOR) * Math.max((1.0 - fraction) * up, SCORE_FLOOR);
+    }
+
+    // PT-BR: Registra quanto o bound caiu por unidade afastada do valor relaxado. Se o
+    //        ramo nem corta o valor relaxado (distance <= 0, por exemplo quando o ponto de
+    //        divisao e o ponto medio) ou o filho saiu pela tabela de transposicao (sem
+    //        bound), nao ha o que aprender.
+    // EN-US: Records how much the bound dropped per unit moved away from the relaxed value.
+    //        If the branch doesn't even cut off the relaxed value (distance <= 0, e.g. when
+    //        the split is the midpoint) or the child left through the transposition table
+    //        (no bound), there is nothing to learn.
+    private void learnPseudoCost(int productIndex, double drop, double distance, boolean up) {
+        if (distance <= EPSILON || Double.isNaN(drop)) {
+            return;
+        }
+        if (up) {
+            upCost[productIndex] += Math.max(0.0, drop) / distance;
+            upCount[productIndex]++;
+        } else {
+            downCost[productIndex] += Math.max(0.0, drop) / distance;
+            downCount[productIndex]++;
+        }
+    }
+
+    // PT-BR: Maior quantidade adicional do produto (limitada a 'cap') que cabe no estoque
+    //        restante do no. Divisao inteira em ponto fixo: exata, sem tolerancia.
+    // EN-US: Largest additional quantity of the product (capped at 'cap') that fits the
+    //        node's remaining stock. Integer division in fixed point: exact, with no
+    //        tolerance.
+    private int maxFeasibleQuantity(int node, int productIndex, int cap) {
+        int maxQty = cap;
+        long[] remaining = pool.remaining;
+        int offset = node * m;
+        for (int k = problem.columnStart[productIndex]; k < problem.columnStart[productIndex + 1]; k++) {
+            maxQty = Math.min(maxQty, OptimizationProblem.unitsThatFit(
+                remaining[offset + problem.columnMaterial[k]], problem.columnUnits[k]));
+        }
+        return maxQty;
+    }
+
+    // PT-BR: Maximo fracionario de unidades adicionais do produto com o estoque restante
+    //        do no, limitado a 'cap'. Se o produto nao consome nada (por exemplo, o
+    //        Presolve removeu todos os seus insumos), o limite e o proprio 'cap'.
+    // EN-US: Fractional maximum of additional units of the product with the node's
+    //        remaining stock, capped at 'cap'. If the product consumes nothing (for
+    //        example, Presolve dropped all its inputs), the limit is 'cap' itself.
+    private double fractionalUnits(int node, int productIndex, int cap) {
+        return kernels.minQuotient(pool.remaining, node * m, problem.columnMaterial, problem.columnUnits,
+            problem.columnStart[productIndex], problem.columnStart[productIndex + 1], cap);
+    }
+
+    private double calculateUpperBound(int node) {
+        if (relaxation != null && pool.level[node] < n) {
+            return relaxationBound(node);
+        }
+        return independentBound(node);
+    }
+
+    // PT-BR: Os filhos de um no sao resolvidos a partir da base otima dele, entao
+    //        fatoramos essa base uma unica vez antes de gerar os filhos.
+    // EN-US: A node's children are solved starting from its optimal basis, so we factor
+    //        that basis only once before generating the children.
+    private void prepareRelaxation(int node) {
+        if (relaxation != null) {
+            relaxation.factor(pool.basis, node * m, pool.atUpper, node * n);
+        }
+    }
+
+    // PT-BR: Monta a relaxacao do no no espaco deslocado: produtos ja fixados tem limite
+    //        zero, o produto atual tem o que resta do seu dominio e os seguintes o
+    //        maxUnits global. Todos os limites sao apertados pelo estoque restante do no
+    //        (quantas unidades inteiras ainda cabem), o que fortalece o bound e ja deixa o
+    //        dominio do produto atual encolhido para os filhos. A base otima e o custo
+    //        reduzido do produto atual ficam guardados no no.
+    // EN-US: Builds the node's relaxation in shifted space: already fixed products have a
+    //        zero bound, the current product has what is left of its domain and the
+    //        following ones the global maxUnits. Every bound is tightened by the node's
+    //        remaining stock (how many whole units still fit), which strengthens the bound
+    //        and leaves the current product's domain already shrunk for the children. The
+    //        optimal basis and the current product's reduced cost are kept in the node.
+    private double relaxationBound(int node) {
+        int level = pool.level[node];
+        boolean select = pool.upper[node] == UNSELECTED;
+        int current = select ? -1 : productAt(node, level);
+        int lo = select ? 0 : pool.production[node * n + current];
+        if (!select) {
+            pool.upper[node] = lo + maxFeasibleQuantity(node, current, pool.upper[node] - lo);
+        }
+        for (int position = 0; position < n; position++) {
+            int i = productAt(node, position);
+            if (position < level) {
+                relaxationUpper[i] = 0;
+            } else if (i == current) {
+                relaxationUpper[i] = pool.upper[node] - lo;
+            } else {
+                relaxationUpper[i] = maxFeasibleQuantity(node, i, problem.maxUnits[i]);
+            }
+        }
+        kernels.toDecimal(pool.remaining, node * m, relaxationRemaining, m, OptimizationProblem.UNIT_SCALE);
+
+        double bound = pool.revenue[node] + relaxation.solve(relaxationRemaining, relaxationUpper);
+        relaxation.storeBasis(pool.basis, node * m, pool.atUpper, node * n);
+        if (select) {
+            current = selectProduct(node, level);
+        }
+        pool.relaxed[node] = lo + relaxation.primalValue(current);
+        pool.reducedCost[node] = relaxation.reducedCost(current);
+        return bound;
+    }
+
+    // PT-BR: Calcula o limite superior (upper bound) valido para o problema da mochila
+    //        multidimensional. Para cada produto ainda nao decidido, calculamos
+    //        independentemente o maximo de unidades inteiras que ele poderia produzir com
+    //        os recursos restantes, SEM consumir esses recursos (permitindo "duplicacao").
+    //        Isso garante uma SUPERESTIMATIVA -- o bound nunca e menor que a solucao
+    //        otima real, portanto nunca podamos um ramo que contenha a solucao otima.
+    //        O produto do nivel atual fica limitado ao que resta do seu dominio e os
+    //        seguintes ao maxUnits global -- ambos sao limites do proprio espaco de busca.
+    //
+    //        A versao anterior usava preenchimento sequencial (consomia recursos para cada
+    //        produto antes de calcular o proximo), o que gerava um bound SUBESTIMADO.
+    //        Isso fazia o algoritmo podar ramos com a solucao otima, retornando resultado
+    //        subotimo (ex: so produzia o primeiro produto, ignorando combinacoes melhores).
+    //
+    // EN-US: Calculates a valid upper bound for the multi-dimensional knapsack problem.
+    //        For each undecided product, we independently calculate the maximum whole
+    //        units it could produce with the remaining resources, WITHOUT consuming those
+    //        resources (allowing "overlap"). This guarantees an OVERESTIMATE -- the bound
+    //        is never less than the real optimal solution, so we never prune a branch
+    //        that contains the optimal solution. The current level's product is capped
+    //        at what is left of its domain and the following ones at the global maxUnits
+    //        -- both are limits of the search space itself.
+    //
+    //        The previous version used sequential fill (consuming resources for each product
+    //        before calculating the next), which generated an UNDERESTIMATE. This caused the
+    //        algorithm to prune branches containing the optimal solution, returning suboptimal
+    //        results (e.g., only producing the first product, ignoring better combinations).
+    private double independentBound(int node) {
+        int level = pool.level[node];
+        double bound = pool.revenue[node];
+        if (level == n) {
+            return bound;
+        }
+
+        if (pool.upper[node] == UNSELECTED) {
+            selectProduct(node, level);
+        }
+        int current = productAt(node, level);
+        int lo = pool.production[node * n + current];
+        pool.upper[node] = lo + maxFeasibleQuantity(node, current, pool.upper[node] - lo);
+        int units = pool.upper[node] - lo;
+        if (units > 0) {
+            bound += problem.prices[current] * units;
+        }
+
+        for (int position = level + 1; position < n; position++) {
+            int i = productAt(node, position);
+            units = maxFeasibleQuantity(node, i, problem.maxUnits[i]);
+            if (units > 0) {
+                bound += problem.prices[i] * units;
+            }
+        }
+
+        return bound;
+    }
+}
@@ -0,0 +1,81 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Analise de sensibilidade a partir da relaxacao linear da raiz (estoque completo,
+//        cada produto limitado ao seu teto). Responde "vale a pena comprar mais de qual
+//        insumo?" sem reotimizar uma vez por insumo:
+//          - shadowPrices[j]: receita extra por unidade a mais do insumo j. Zero quando
+//            sobra estoque; e um valor marginal da relaxacao, entao vale para pequenas
+//            variacoes e o ganho inteiro real pode ser um pouco menor;
+//          - binding[j]: o insumo esta esgotado na solucao relaxada (folga zero);
+//          - reducedCosts[i]: preco do produto menos o custo, aos precos sombra, dos
+//            insumos de uma unidade. Negativo: o produto nao se paga com os insumos
+//            disputados; positivo: so nao produz mais por causa do proprio teto.
+//
+//        O BranchAndBoundSolver monta isto ao resolver a raiz (com sensitivity ligado),
+//        no mesmo modelo em que busca, e leva o resultado de volta pelo seu Presolve: um
+//        insumo que saiu nunca limita (preco sombra zero, nao esgotado); um produto
+//        dominado fica com o custo reduzido de quem o domina; um produto sem valor ou
+//        que nao pode ser fabricado e avaliado na propria coluna.
+// EN-US: Sensitivity analysis from the root linear relaxation (full stock, each product
+//        capped at its maxUnits). Answers "which input is worth buying more of?" without
+//        re-optimizing once per input:
+//          - shadowPrices[j]: extra revenue per additional unit of input j. Zero when
+//            stock is left over; it's a marginal value of the relaxation, so it holds for
+//            small changes and the real integer gain may be a bit lower;
+//          - binding[j]: the input is exhausted in the relaxed solution (zero slack);
+//          - reducedCosts[i]: the product's price minus the cost, at shadow prices, of the
+//            inputs of one unit. Negative: the product doesn't pay for the contended
+//            inputs; positive: it's only held back by its own cap.
+//
+//        BranchAndBoundSolver builds this while it solves the root (with sensitivity
+//        on), on the same model it searches, and takes the result back through its
+//        Presolve: a dropped input never binds (zero shadow price, not exhausted); a
+//        dominated product gets the reduced cost of the one dominating it; a worthless
+//        product, or one that can't be made, is priced on its own column.
+public final class Sensitivity {
+
+    private static final double SLACK_TOLERANCE = 1e-7;
+
+    public final double[] shadowPrices;
+    public final boolean[] binding;
+    public final double[] reducedCosts;
+
+    private Sensitivity(double[] shadowPrices, boolean[] binding, double[] reducedCosts) {
+        this.shadowPrices = shadowPrices;
+        this.binding = binding;
+        this.reducedCosts = reducedCosts;
+    }
+
+    // PT-BR: root e a relaxacao ja resolvida do modelo da busca (o reduzido, se houve
+    //        presolve), ou null se ele nao tem insumos ou produtos.
+    // EN-US: root is the already solved relaxation of the search model (the reduced one,
+    //        if there was presolve), or null if it has no inputs or products.
+    static Sensitivity fromRoot(OptimizationProblem problem, Presolve presolve, BoundedSimplex root) {
+        int n = problem.productCount;
+        int m = problem.materialCount;
+        OptimizationProblem model = presolve != null ? presolve.reduced : problem;
+        double[] shadowPrices = new double[m];
+        boolean[] binding = new boolean[m];
+        double[] reducedCosts = new double[n];
+        for (int j = 0; j < m; j++) {
+            int row = presolve != null ? presolve.reducedMaterial(j) : j;
+            if (root != null && row >= 0) {
+                shadowPrices[j] = root.dual(row);
+                binding[j] = root.slack(row) <= SLACK_TOLERANCE * Math.max(1.0, problem.stock[j]);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int k = presolve != null ? presolve.keptProduct(i) : i;
+            if (k >= 0) {
+                reducedCosts[i] = root != null ? root.reducedCost(k) : model.prices[k];
+            } else {
+                double reducedPrice = problem.prices[i];
+                for (int e = problem.columnStart[i]; e < problem.columnStart[i + 1]; e++) {
+                    reducedPrice -= shadowPrices[problem.columnMaterial[e]] * problem.columnAmount[e];
+                }
+                reducedCosts[i] = reducedPrice;
+            }
+        }
+        return new Sensitivity(shadowPrices, binding, reducedCosts);
+    }
+}
@@ -0,0 +1,199 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Busca sequencial com fronteira de memoria limitada. Enquanto os filhos cabem no
+//        heap best-first (ate maxFrontierNodes nos), eles voltam para ele como sempre.
+//        Quando nao cabem, a busca passa a mergulhar: explora em profundidade a
+//        subarvore do no (DiveStack), sem colocar nada novo no heap, e so volta ao heap
+//        quando a pilha esvazia. A pilha cresce com a profundidade, nao com a largura,
+//        mas no modo ENUMERATE cada nivel pode empilhar milhares de irmaos; se heap e
+//        pilha juntos passarem do dobro do limite, os nos de menor bound do heap sao
+//        descartados.
+//
+//        Descartar um no com bound acima do incumbente pode esconder o otimo, entao o
+//        maior bound descartado entra no bound global, e se ele ainda superar o
+//        incumbente no fim a busca termina com FRONTIER_LIMIT em vez de OPTIMAL.
+//        Com frontierSpillBytes os nos descartados vao antes para o FrontierSpill e voltam
+//        ao heap quando heap e pilha esvaziam; so se o deposito encher eles se perdem.
+//        Com maxFrontierNodes = 0 a fronteira nao tem limite (comportamento original).
+//
+// EN-US: Sequential search with a memory-bounded frontier. While the children fit in the
+//        best-first heap (up to maxFrontierNodes nodes), they go back to it as usual.
+//        When they don't, the search switches to diving: it explores the node's subtree
+//        depth-first (DiveStack), without putting anything new on the heap, and only goes
+//        back to the heap when the stack is empty. The stack grows with the depth, not
+//        the width, but in ENUMERATE mode each level may stack thousands of siblings; if
+//        heap and stack together go over twice the limit, the heap's lowest-bound nodes
+//        are evicted.
+//
+//        Evicting a node whose bound is above the incumbent may hide the optimum, so the
+//        largest evicted bound goes into the global bound, and if it still beats the
+//        incumbent at the end the search finishes with FRONTIER_LIMIT instead of OPTIMAL.
+//        With frontierSpillBytes the evicted nodes go to the FrontierSpill first and come
+//        back to the heap when heap and stack are empty; they're only lost if the store
+//        fills up. With maxFrontierNodes = 0 the frontier is unbounded (original behavior).
+final class SequentialSearch {
+
+    private final SolverOptions options;
+    private final Incumbent incumbent;
+    private final SearchWorker worker;
+    private final NodeHeap queue = new NodeHeap(1024);
+    private final DiveStack dive = new DiveStack();
+    private final FrontierSpill spill;
+    private long nodesExplored;
+    private long nodesEvicted;
+    private int peakFrontierSize = 1;
+    private double evictedBound = Double.NEGATIVE_INFINITY;
+    private TerminationReason terminationReason;
+    private double bestBound;
+
+    SequentialSearch(OptimizationProblem problem, SolverOptions options, Incumbent incumbent) {
+        this.options = options;
+        this.incumbent = incumbent;
+        this.worker = new SearchWorker(problem, options, incumbent);
+        this.spill = options.maxFrontierNodes > 0 && options.frontierSpillBytes > 0
+            ? FrontierSpill.create(options.frontierSpillBytes, problem.productCount, problem.materialCount,
+                options.boundStrategy == BoundStrategy.LP_RELAXATION, options.branchingOrder.isDynamic())
+            : null;
+    }
+
+    void run(long startTime) {
+        try {
+            search(startTime);
+        } finally {
+            if (spill != null) {
+                spill.close();
+            }
+        }
+    }
+
+    private void search(long startTime) {
+        int root = worker.createRoot();
+        queue.push(root, worker.pool.bound[root]);
+
+        int limit = options.maxFrontierNodes;
+        SearchProgress progress = options.progress;
+        TerminationReason stop = null;
+        while (!queue.isEmpty() || !dive.isEmpty() || reload(limit)) {
+            // PT-BR: Verificamos os limites de tempo e nos para evitar travar o servidor
+            // EN-US: Check time and node limits to avoid locking up the server
+            stop = BranchAndBoundSolver.limitReached(options, nodesExplored, startTime);
+            if (stop != null) break;
+
+            if (progress != null && nodesExplored % SearchProgress.REPORT_INTERVAL == 0) {
+                progress.report(nodesExplored, incumbent.revenue(), frontierBound());
+            }
+
+            int node = dive.isEmpty() ? queue.poll() : dive.pop();
+            nodesExplored++;
+            if (options.sharedNodes != null) {
+                options.sharedNodes.incrementAndGet();
+            }
+            worker.process(node);
+
+            if (limit > 0 && (!dive.isEmpty() || queue.size() + worker.pendingCount() > limit)) {
+                dive.pushChildren(worker);
+                if (queue.size() + dive.size() > 2 * limit) {
+                    evict(queue.size() + dive.size() - 3 * limit / 2);
+                }
+            } else {
+                for (int i = 0; i < worker.pendingCount(); i++) {
+                    int child = worker.pending(i);
+                    queue.push(child, worker.pool.bound[child]);
+                }
+                worker.clearPending();
+            }
+            peakFrontierSize = Math.max(peakFrontierSize, queue.size() + dive.size());
+        }
+
+        double frontierBound = frontierBound();
+        if (progress != null) {
+            progress.report(nodesExplored, incumbent.revenue(), frontierBound);
+        }
+        if (stop == null && evictedBound > incumbent.revenue()) {
+            stop = TerminationReason.FRONTIER_LIMIT;
+        }
+        terminationReason = stop != null ? stop : TerminationReason.OPTIMAL;
+        bestBound = Math.max(incumbent.revenue(), frontierBound);
+    }
+
+    long nodesExplored() {
+        return nodesExplored;
+    }
+
+    long nodesPruned() {
+        return worker.nodesPruned();
+    }
+
+    long transpositionLookups() {
+        return worker.transpositionLookups();
+    }
+
+    long transpositionHits() {
+        return worker.transpositionHits();
+    }
+
+    long transpositionPrunes() {
+        return worker.transpositionPrunes();
+    }
+
+    long nodesEvicted() {
+        return nodesEvicted;
+    }
+
+    long nodesSpilled() {
+        return spill != null ? spill.nodesSpilled() : 0;
+    }
+
+    int peakFrontierSize() {
+        return peakFrontierSize;
+    }
+
+    TerminationReason terminationReason() {
+        return terminationReason;
+    }
+
+    double bestBound() {
+        return bestBound;
+    }
+
+    private void evict(int count) {
+        for (int node : queue.evictLowest(count)) {
+            if (spill == null || !spill.spill(worker.pool, node)) {
+                double bound = worker.pool.bound[node];
+                if (bound > incumbent.revenue()) {
+                    evictedBound = Math.max(evictedBound, bound);
+                }
+                nodesEvicted++;
+            }
+            worker.pool.release(node);
+        }
+    }
+
+    // PT-BR: Com heap e pilha vazios, traz de volta do deposito os melhores nos (ate metade
+    //        do limite, para sobrar espaco aos filhos). Devolve false se nao ha nenhum.
+    // EN-US: With heap and stack empty, brings the best nodes back from the store (up to
+    //        half the limit, to leave room for the children). Returns false if there are
+    //        none.
+    private boolean reload(int limit) {
+        if (spill == null || spill.isEmpty()) {
+            return false;
+        }
+        for (int loaded = 0; loaded < Math.max(1, limit / 2) && !spill.isEmpty(); loaded++) {
+            int node = spill.reload(worker.pool);
+            queue.push(node, worker.pool.bound[node]);
+        }
+        return true;
+    }
+
+    // PT-BR: Maior bound ainda em aberto: topo do heap, pilha do mergulho, deposito e nos
+    //        descartados.
+    // EN-US: Largest bound still open: heap top, dive stack, store and evicted nodes.
+    private double frontierBound() {
+        double bound = queue.isEmpty() ? Double.NEGATIVE_INFINITY : queue.peekKey();
+        bound = Math.max(bound, dive.maxBound(worker.pool));
+        if (spill != null) {
+            bound = Math.max(bound, spill.peekBound());
+        }
+        return Math.max(bound, evictedBound);
+    }
+}
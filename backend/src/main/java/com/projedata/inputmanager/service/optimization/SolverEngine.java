@@ -0,0 +1,14 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Qual motor resolveu o problema.
+//        BRANCH_AND_BOUND: a busca em arvore geral.
+//        DYNAMIC_PROGRAMMING: mochila limitada por programacao dinamica (KnapsackDP),
+//        escolhida quando no maximo dois insumos limitam e a tabela cabe na memoria.
+// EN-US: Which engine solved the problem.
+//        BRANCH_AND_BOUND: the general tree search.
+//        DYNAMIC_PROGRAMMING: bounded knapsack by dynamic programming (KnapsackDP),
+//        chosen when at most two inputs bind and the table fits in memory.
+public enum SolverEngine {
+    BRANCH_AND_BOUND,
+    DYNAMIC_PROGRAMMING
+}
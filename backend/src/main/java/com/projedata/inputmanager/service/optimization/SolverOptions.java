@@ -0,0 +1,137 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+// PT-BR: Parametros de execucao do solver. Os valores padrao reproduzem os limites
+//        historicos do servico (100 mil nos e 10 segundos).
+// EN-US: Solver execution parameters. The defaults reproduce the service's historical
+//        limits (100 thousand nodes and 10 seconds).
+public class SolverOptions {
+
+    public int maxNodes = 100_000;
+    public long maxTimeMs = 10_000;
+    public BranchingMode branchingMode = BranchingMode.ENUMERATE;
+    public BoundStrategy boundStrategy = BoundStrategy.INDEPENDENT;
+    public BranchingOrder branchingOrder = BranchingOrder.CATALOG;
+    public ValueOrder valueOrder = ValueOrder.ASCENDING;
+
+    // PT-BR: Limite de nos abertos na fronteira (0 = sem limite). Ao atingi-lo a busca
+    //        mergulha em profundidade a partir do melhor no e, se preciso, descarta os
+    //        nos de menor bound, entao a memoria fica limitada mesmo em instancias largas.
+    // EN-US: Limit of open nodes in the frontier (0 = unlimited). Once reached, the search
+    //        dives depth-first from the best node and, if needed, evicts the lowest-bound
+    //        nodes, so memory stays bounded even on wide instances.
+    public int maxFrontierNodes = 0;
+
+    // PT-BR: Com maxFrontierNodes, quantos bytes de arquivo temporario (FrontierSpill) podem
+    //        guardar os nos descartados para voltarem depois, em vez de perdidos; 0 desliga.
+    //        Na busca paralela eles sao divididos entre as faixas.
+    // EN-US: With maxFrontierNodes, how many bytes of temporary file (FrontierSpill) may
+    //        keep the evicted nodes so they come back later, instead of being lost; 0 turns
+    //        it off. In the parallel search they're split among the stripes.
+    public long frontierSpillBytes = 0;
+
+    // PT-BR: Reduz o problema (produtos dominados, insumos que nunca limitam) antes da busca.
+    // EN-US: Shrinks the problem (dominated products, inputs that never bind) before the search.
+    public boolean presolve = false;
+
+    // PT-BR: Resolve por programacao dinamica (BoundedKnapsack) quando no maximo dois
+    //        insumos limitam e a tabela cabe no limite; senao usa o Branch and Bound.
+    // EN-US: Solves by dynamic programming (BoundedKnapsack) when at most two inputs bind
+    //        and the table fits the limit; otherwise uses Branch and Bound.
+    public boolean dynamicProgramming = false;
+
+    // PT-BR: Resolve separadamente (e, com parallelism > 1, em paralelo) os grupos de
+    //        produtos que nao compartilham nenhum insumo (Decomposition).
+    // EN-US: Solves separately (and, with parallelism > 1, in parallel) the groups of
+    //        products that share no input (Decomposition).
+    public boolean decompose = false;
+
+    // PT-BR: Gera cortes de cobertura levantados na raiz (CoverCuts) antes da arvore.
+    // EN-US: Generates lifted cover cuts at the root (CoverCuts) before the tree.
+    public boolean coverCuts = false;
+
+    // PT-BR: Guarda no resultado a analise de sensibilidade da relaxacao da raiz
+    //        (Sensitivity), levada de volta aos indices originais.
+    // EN-US: Keeps the root relaxation's sensitivity analysis (Sensitivity) in the result,
+    //        taken back to the original indices.
+    public boolean sensitivity = false;
+
+    // PT-BR: Memoria da tabela de transposicao (TranspositionTable) por arvore de busca, em
+    //        bytes; 0 desliga. Na busca paralela ela e dividida entre os workers.
+    // EN-US: Transposition table (TranspositionTable) memory per search tree, in bytes; 0
+    //        turns it off. In the parallel search it's split among the workers.
+    public long transpositionTableBytes = 0;
+
+    // PT-BR: Heuristicas que semeiam o incumbente antes da arvore (nenhuma por padrao).
+    // EN-US: Heuristics that seed the incumbent before the tree (none by default).
+    public Set<PrimalHeuristic> heuristics = EnumSet.noneOf(PrimalHeuristic.class);
+
+    // PT-BR: Opcional: solucao conhecida (indices do problema original) oferecida como
+    //        incumbente inicial se for viavel, por exemplo o plano de um cenario parecido.
+    //        Nao entra na assinatura: so acelera a prova, o otimo e o mesmo.
+    // EN-US: Optional: known solution (original problem indices) offered as the initial
+    //        incumbent if feasible, for example the plan of a similar scenario. Not part
+    //        of the signature: it only speeds up the proof, the optimum is the same.
+    public int[] warmStart;
+
+    // PT-BR: Com parallelism > 1 a busca roda em varios workers no forkJoinPool
+    //        informado (ou em um pool temporario, se nenhum for passado).
+    // EN-US: With parallelism > 1 the search runs on several workers in the given
+    //        forkJoinPool (or in a temporary pool, if none is passed).
+    public int parallelism = 1;
+    public ForkJoinPool forkJoinPool;
+
+    // PT-BR: Opcional: recebe o progresso da busca e permite cancela-la.
+    // EN-US: Optional: receives the search progress and allows cancelling it.
+    public SearchProgress progress;
+
+    // PT-BR: Nos explorados por todas as arvores que dividem o mesmo maxNodes (os
+    //        componentes da Decomposition); null = so os desta arvore.
+    // EN-US: Nodes explored by every tree sharing the same maxNodes (the Decomposition
+    //        components); null = only this tree's.
+    AtomicLong sharedNodes;
+
+    // PT-BR: Identifica as opcoes que podem mudar o resultado (usado na chave do cache).
+    //        O pool nao entra: ele so decide onde a busca roda.
+    // EN-US: Identifies the options that can change the result (used in the cache key).
+    //        The pool is left out: it only decides where the search runs.
+    public String signature() {
+        return maxNodes + ":" + maxTimeMs + ":" + branchingMode + ":" + boundStrategy + ":"
+            + branchingOrder + ":" + valueOrder + ":" + heuristics + ":" + parallelism + ":" + presolve + ":"
+            + maxFrontierNodes + ":" + dynamicProgramming + ":" + decompose + ":" + coverCuts + ":" + transpositionTableBytes
+            + ":" + frontierSpillBytes + ":" + sensitivity;
+    }
+
+    // PT-BR: Copia rasa (os componentes da Decomposition partem das opcoes do pedido, e o
+    //        servico ajusta uma copia em vez das opcoes de quem chamou).
+    // EN-US: Shallow copy (the Decomposition components start from the request's options,
+    //        and the service adjusts a copy instead of the caller's options).
+    public SolverOptions copy() {
+        SolverOptions copy = new SolverOptions();
+        copy.maxNodes = maxNodes;
+        copy.maxTimeMs = maxTimeMs;
+        copy.branchingMode = branchingMode;
+        copy.boundStrategy = boundStrategy;
+        copy.branchingOrder = branchingOrder;
+        copy.valueOrder = valueOrder;
+        copy.maxFrontierNodes = maxFrontierNodes;
+        copy.frontierSpillBytes = frontierSpillBytes;
+        copy.presolve = presolve;
+        copy.dynamicProgramming = dynamicProgramming;
+        copy.decompose = decompose;
+        copy.coverCuts = coverCuts;
+        copy.sensitivity = sensitivity;
+        copy.transpositionTableBytes = transpositionTableBytes;
+        copy.heuristics = heuristics;
+        copy.warmStart = warmStart;
+        copy.parallelism = parallelism;
+        copy.forkJoinPool = forkJoinPool;
+        copy.progress = progress;
+        copy.sharedNodes = sharedNodes;
+        return copy;
+    }
+}
@@ -0,0 +1,92 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Resultado bruto do solver: o melhor vetor de producao encontrado, a receita
+//        correspondente e quantos nos da arvore foram explorados para chegar nele.
+// EN-US: Raw solver result: the best production vector found, its revenue and how many
+//        tree nodes were explored to get there.
+public class SolverResult {
+
+    public int[] solution;
+    public double revenue;
+    public long nodesExplored;
+
+    // PT-BR: Motor que produziu a solucao (a programacao dinamica nao explora nos).
+    // EN-US: Engine that produced the solution (dynamic programming explores no nodes).
+    public SolverEngine engine = SolverEngine.BRANCH_AND_BOUND;
+
+    // PT-BR: Receita da melhor solucao das heuristicas primais (0 se nenhuma rodou).
+    // EN-US: Revenue of the best primal heuristic solution (0 if none ran).
+    public double heuristicRevenue;
+
+    // PT-BR: Quantos produtos e insumos o presolve removeu (0 se ele nao rodou).
+    // EN-US: How many products and inputs presolve removed (0 if it didn't run).
+    public int presolveRemovedProducts;
+    public int presolveRemovedMaterials;
+
+    // PT-BR: Diagnostico da parada. bestBound e o maior limite superior entre os nos que
+    //        ficaram abertos (igual a receita quando OPTIMAL); nodesPruned conta os nos
+    //        descartados pelo limite; allocatedBytes e o que as threads da busca alocaram
+    //        (-1 se a JVM nao mede alocacao por thread).
+    // EN-US: Stop diagnostics. bestBound is the largest upper bound among the nodes left
+    //        open (equal to the revenue when OPTIMAL); nodesPruned counts the nodes
+    //        discarded by the bound; allocatedBytes is what the search threads allocated
+    //        (-1 if the JVM doesn't measure per-thread allocation).
+    public TerminationReason terminationReason;
+    public double bestBound;
+    public long nodesPruned;
+    public long allocatedBytes;
+
+    // PT-BR: Nos descartados porque a fronteira passou de maxFrontierNodes, e quantas vezes
+    //        um no foi para o deposito em disco (FrontierSpill) em vez de descartado.
+    // EN-US: Nodes evicted because the frontier went over maxFrontierNodes, and how many
+    //        times a node went to the on-disk store (FrontierSpill) instead of being evicted.
+    public long nodesEvicted;
+    public long nodesSpilled;
+
+    // PT-BR: Maior numero de nos abertos ao mesmo tempo (heap mais pilhas de mergulho; na
+    //        busca paralela, a soma dos picos de cada faixa e pilha) e quantas vezes o
+    //        incumbente melhorou. Alimentam as metricas do servico.
+    // EN-US: Largest number of nodes open at the same time (heap plus dive stacks; in the
+    //        parallel search, the sum of each stripe's and stack's peak) and how many
+    //        times the incumbent improved. They feed the service metrics.
+    public int peakFrontierSize;
+    public int incumbentImprovements;
+
+    // PT-BR: Em quantas partes independentes o problema foi resolvido (1 sem Decomposition).
+    // EN-US: How many independent parts the problem was solved in (1 without Decomposition).
+    public int components = 1;
+
+    // PT-BR: Cortes de cobertura no pool e o bound da relaxacao na raiz antes e depois
+    //        deles (NaN se a separacao nao rodou). A diferenca e o gap que os cortes fecham.
+    // EN-US: Cover cuts in the pool and the relaxation's root bound before and after them
+    //        (NaN if separation didn't run). The difference is the gap the cuts close.
+    public int coverCuts;
+    public double rootBound = Double.NaN;
+    public double rootBoundWithCuts = Double.NaN;
+
+    // PT-BR: Precos sombra, insumos esgotados e custos reduzidos da raiz (null sem
+    //        SolverOptions.sensitivity).
+    // EN-US: Shadow prices, exhausted inputs and reduced costs of the root (null without
+    //        SolverOptions.sensitivity).
+    public Sensitivity sensitivity;
+
+    // PT-BR: Tabela de transposicao: consultas, estados repetidos encontrados e nos podados
+    //        por serem dominados (0 se ela estava desligada).
+    // EN-US: Transposition table: lookups, repeated states found and nodes pruned as
+    //        dominated (0 if it was off).
+    public long transpositionLookups;
+    public long transpositionHits;
+    public long transpositionPrunes;
+
+    // PT-BR: (limite - receita) / limite; null enquanto nao ha limite finito.
+    // EN-US: (bound - revenue) / bound; null while there is no finite bound.
+    public static Double relativeGap(double revenue, double bound) {
+        if (Double.isInfinite(bound) || Double.isNaN(bound)) {
+            return null;
+        }
+        if (bound <= 0) {
+            return 0.0;
+        }
+        return Math.max(0.0, (bound - revenue) / bound);
+    }
+}
@@ -0,0 +1,20 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Por que a busca parou. So OPTIMAL garante que o plano e o otimo: nos demais
+//        casos o plano e o melhor encontrado ate ali, e o limite (bestBound) diz quanto
+//        ainda poderia faltar.
+// EN-US: Why the search stopped. Only OPTIMAL guarantees the plan is the optimum: in the
+//        other cases the plan is the best found so far, and the bound (bestBound) tells
+//        how much could still be missing.
+public enum TerminationReason {
+    OPTIMAL,
+    NODE_LIMIT,
+    TIME_LIMIT,
+    CANCELLED,
+
+    // PT-BR: A fronteira estourou maxFrontierNodes e descartou nos que ainda podiam
+    //        superar o plano devolvido.
+    // EN-US: The frontier went over maxFrontierNodes and evicted nodes that could still
+    //        beat the returned plan.
+    FRONTIER_LIMIT
+}
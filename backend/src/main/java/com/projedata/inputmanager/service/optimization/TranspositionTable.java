@@ -0,0 +1,169 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Tabela de transposicao: caminhos diferentes da arvore chegam ao mesmo estado
+//        (2 bolos e 0 paes contra 0 bolos e 4 paes deixam o mesmo estoque quando um bolo
+//        gasta o mesmo que dois paes), e o que resta a decidir a partir dele e o mesmo
+//        subproblema. Entre dois nos com o mesmo estado basta explorar o de maior receita;
+//        o outro e dominado e e podado.
+//
+//        O estado e o nivel, o produto do nivel com a largura do que resta do seu dominio,
+//        o estoque restante inteiro (unidades de ponto fixo, comparadas exatamente) e, nas
+//        ordens dinamicas, o conjunto de produtos ja fixados (bits em longs). O hash so
+//        escolhe o balde: a entrada guarda o estado completo, entao uma colisao nunca
+//        poda um no por engano.
+//
+//        A memoria e fixa: os estados ficam em fatias de um unico long[] (WAYS entradas
+//        por balde) dimensionado pelo limite de bytes. Com o balde cheio, a entrada de
+//        menor nivel sai (ela e a que tende a voltar menos). Cada worker tem a sua, ja que
+//        nada aqui e thread-safe.
+// EN-US: Transposition table: different tree paths reach the same state (2 cakes and 0
+//        breads against 0 cakes and 4 breads leave the same stock when a cake uses as
+//        much as two breads), and what is left to decide from it is the same subproblem.
+//        Between two nodes with the same state it's enough to explore the one with the
+//        higher revenue; the other is dominated and pruned.
+//
+//        The state is the level, the level's product with the width of what's left of
+//        its domain, the whole remaining stock (fixed-point units, compared exactly) and,
+//        for the dynamic orders, the set of already fixed products (bits in longs). The
+//        hash only picks the bucket: the entry keeps the complete state, so a collision
+//        never prunes a node by mistake.
+//
+//        Memory is fixed: the states live in slices of a single long[] (WAYS entries per
+//        bucket) sized by the byte limit. With a full bucket, the lowest-level entry
+//        leaves (it's the one that tends to come back least). Each worker has its own,
+//        since nothing here is thread-safe.
+final class TranspositionTable {
+
+    static final int WAYS = 4;
+
+    private final int m;
+    private final int words;
+    private final int stride;
+    private final int bucketMask;
+    private final long[] hashes;
+    private final int[] levels;
+    private final int[] products;
+    private final int[] widths;
+    private final double[] revenues;
+    private final long[] states;
+    private final long[] scratch;
+
+    private long lookups;
+    private long hits;
+    private long prunes;
+
+    private TranspositionTable(int m, int words, int buckets) {
+        this.m = m;
+        this.words = words;
+        this.stride = m + words;
+        this.bucketMask = buckets - 1;
+        int entries = buckets * WAYS;
+        this.hashes = new long[entries];
+        this.levels = new int[entries];
+        this.products = new int[entries];
+        this.widths = new int[entries];
+        this.revenues = new double[entries];
+        this.states = new long[entries * stride];
+        this.scratch = new long[stride];
+    }
+
+    // PT-BR: Tabela com no maximo 'bytes' bytes (potencia de 2 de baldes), ou null se o
+    //        limite nao comporta nem um balde.
+    // EN-US: Table with at most 'bytes' bytes (power of 2 buckets), or null if the limit
+    //        doesn't fit even one bucket.
+    static TranspositionTable create(long bytes, int productCount, int materialCount, boolean trackFixed) {
+        int words = trackFixed ? (productCount + 63) >>> 6 : 0;
+        long entryBytes = 8L * (materialCount + words) + 8 + 4 + 4 + 4 + 8;
+        long buckets = bytes / (entryBytes * WAYS);
+        if (buckets < 1) {
+            return null;
+        }
+        long maxBuckets = Integer.MAX_VALUE / (WAYS * (long) Math.max(1, materialCount + words));
+        buckets = Long.highestOneBit(Math.min(buckets, maxBuckets));
+        return new TranspositionTable(materialCount, words, (int) buckets);
+    }
+
+    // PT-BR: O no e dominado por um estado igual ja visto com receita >= a dele? Se nao,
+    //        o estado passa a valer com a receita do no. 'fixed' so e lido nas ordens
+    //        dinamicas (produtos nas posicoes < level da permutacao do no).
+    // EN-US: Is the node dominated by an equal state already seen with revenue >= its own?
+    //        If not, the state is recorded with the node's revenue. 'fixed' is only read
+    //        for the dynamic orders (products at positions < level of the node's
+    //        permutation).
+    boolean dominated(int level, int product, int width, double revenue, long[] remaining, int remainingOffset,
+                      int[] fixed, int fixedOffset) {
+        lookups++;
+        System.arraycopy(remaining, remainingOffset, scratch, 0, m);
+        if (words > 0) {
+            for (int w = m; w < stride; w++) {
+                scratch[w] = 0L;
+            }
+            for (int position = 0; position < level; position++) {
+                int i = fixed[fixedOffset + position];
+                scratch[m + (i >>> 6)] |= 1L << i;
+            }
+        }
+        long hash = level * 0x9E3779B97F4A7C15L + product;
+        hash = hash * 0x9E3779B97F4A7C15L + width;
+        for (int k = 0; k < stride; k++) {
+            hash = hash * 0x9E3779B97F4A7C15L + scratch[k];
+        }
+        hash ^= hash >>> 31;
+        hash *= 0xBF58476D1CE4E5B9L;
+        hash ^= hash >>> 29;
+        if (hash == 0) {
+            hash = 1;
+        }
+
+        int first = ((int) hash & bucketMask) * WAYS;
+        int victim = first;
+        for (int slot = first; slot < first + WAYS; slot++) {
+            if (hashes[slot] == 0) {
+                victim = slot;
+                break;
+            }
+            if (hashes[slot] == hash && levels[slot] == level && products[slot] == product
+                    && widths[slot] == width && sameState(slot)) {
+                hits++;
+                if (revenue <= revenues[slot]) {
+                    prunes++;
+                    return true;
+                }
+                revenues[slot] = revenue;
+                return false;
+            }
+            if (levels[slot] < levels[victim]) {
+                victim = slot;
+            }
+        }
+        hashes[victim] = hash;
+        levels[victim] = level;
+        products[victim] = product;
+        widths[victim] = width;
+        revenues[victim] = revenue;
+        System.arraycopy(scratch, 0, states, victim * stride, stride);
+        return false;
+    }
+
+    long lookups() {
+        return lookups;
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long prunes() {
+        return prunes;
+    }
+
+    private boolean sameState(int slot) {
+        int offset = slot * stride;
+        for (int k = 0; k < stride; k++) {
+            if (states[offset + k] != scratch[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
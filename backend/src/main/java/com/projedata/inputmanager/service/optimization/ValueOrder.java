@@ -0,0 +1,18 @@
+package com.projedata.inputmanager.service.optimization;
+
+// PT-BR: Em que ordem os filhos de um no entram na fronteira. Com bounds iguais o heap
+//        atende primeiro quem entrou primeiro, entao a ordem decide o desempate.
+//        ASCENDING: da menor quantidade para a maior (comportamento original).
+//        DESCENDING: da maior para a menor; em INTERVAL, o ramo x >= k + 1 antes do
+//        x <= k. Costuma achar bons incumbentes antes, ja que produzir mais e o que
+//        aumenta a receita.
+// EN-US: In which order a node's children enter the frontier. With equal bounds the heap
+//        serves first whoever came in first, so the order decides the tie-break.
+//        ASCENDING: from the smallest quantity to the largest (original behavior).
+//        DESCENDING: from the largest to the smallest; in INTERVAL, the x >= k + 1 branch
+//        before x <= k. It tends to find good incumbents sooner, since producing more is
+//        what raises the revenue.
+public enum ValueOrder {
+    ASCENDING,
+    DESCENDING
+}
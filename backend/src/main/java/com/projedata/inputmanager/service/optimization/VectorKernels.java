@@ -0,0 +1,108 @@
+package com.projedata.inputmanager.service.optimization;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// PT-BR: Os mesmos lacos com a Vector API, na largura preferida da CPU (4 doubles com
+//        AVX2, 8 com AVX-512), e o resto em um laco escalar. Para continuar identico ao
+//        ScalarKernels: multiplicacao e subtracao separadas (sem fma), conversao
+//        long -> double por lane (exata ate 2^53) e, no minQuotient, so a reducao MIN.
+//        So e carregada pelo Kernels.select, que cai no escalar se o modulo faltar.
+// EN-US: The same loops with the Vector API, at the CPU's preferred width (4 doubles with
+//        AVX2, 8 with AVX-512), and the rest in a scalar loop. To stay identical to
+//        ScalarKernels: separate multiply and subtract (no fma), per-lane long -> double
+//        conversion (exact up to 2^53) and, in minQuotient, only the MIN reduction. Only
+//        loaded by Kernels.select, which falls back to scalar if the module is missing.
+final class VectorKernels implements ArrayKernels {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void divide(double[] values, int from, int length, double divisor) {
+        int k = 0;
+        for (int bound = DOUBLES.loopBound(length); k < bound; k += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, values, from + k).div(divisor).intoArray(values, from + k);
+        }
+        for (; k < length; k++) {
+            values[from + k] /= divisor;
+        }
+    }
+
+    @Override
+    public void subtractScaled(double[] target, int targetFrom, double[] source, int sourceFrom, int length,
+                               double factor) {
+        int k = 0;
+        for (int bound = DOUBLES.loopBound(length); k < bound; k += DOUBLES.length()) {
+            DoubleVector scaled = DoubleVector.fromArray(DOUBLES, source, sourceFrom + k).mul(factor);
+            DoubleVector.fromArray(DOUBLES, target, targetFrom + k).sub(scaled).intoArray(target, targetFrom + k);
+        }
+        for (; k < length; k++) {
+            target[targetFrom + k] -= factor * source[sourceFrom + k];
+        }
+    }
+
+    @Override
+    public void toDecimal(long[] units, int from, double[] out, int length, long scale) {
+        double divisor = scale;
+        int k = 0;
+        for (int bound = LONGS.loopBound(length); k < bound; k += LONGS.length()) {
+            ((DoubleVector) LongVector.fromArray(LONGS, units, from + k).convert(VectorOperators.L2D, 0))
+                .div(divisor)
+                .intoArray(out, k);
+        }
+        for (; k < length; k++) {
+            out[k] = (double) units[from + k] / scale;
+        }
+    }
+
+    @Override
+    public void subtractScattered(long[] target, int offset, int[] index, long[] values, int from, int to,
+                                  long multiplier) {
+        int k = from;
+        for (int bound = from + LONGS.loopBound(to - from); k < bound; k += LONGS.length()) {
+            LongVector used = LongVector.fromArray(LONGS, values, k).mul(multiplier);
+            LongVector.fromArray(LONGS, target, offset, index, k).sub(used).intoArray(target, offset, index, k);
+        }
+        for (; k < to; k++) {
+            target[offset + index[k]] -= values[k] * multiplier;
+        }
+    }
+
+    @Override
+    public double minQuotient(long[] numerators, int offset, int[] index, long[] denominators, int from, int to,
+                              double cap) {
+        double min = cap;
+        int k = from;
+        for (int bound = from + LONGS.loopBound(to - from); k < bound; k += LONGS.length()) {
+            DoubleVector numerator = (DoubleVector) LongVector.fromArray(LONGS, numerators, offset, index, k)
+                .convert(VectorOperators.L2D, 0);
+            DoubleVector denominator = (DoubleVector) LongVector.fromArray(LONGS, denominators, k)
+                .convert(VectorOperators.L2D, 0);
+            min = Math.min(min, numerator.div(denominator).reduceLanes(VectorOperators.MIN));
+        }
+        for (; k < to; k++) {
+            min = Math.min(min, (double) numerators[offset + index[k]] / denominators[k]);
+        }
+        return min;
+    }
+
+    @Override
+    public boolean fitsWithin(long[] used, long[] limit, int length) {
+        int k = 0;
+        for (int bound = LONGS.loopBound(length); k < bound; k += LONGS.length()) {
+            if (LongVector.fromArray(LONGS, used, k).compare(VectorOperators.GT,
+                    LongVector.fromArray(LONGS, limit, k)).anyTrue()) {
+                return false;
+            }
+        }
+        for (; k < length; k++) {
+            if (used[k] > limit[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,159 @@
+package com.projedata.inputmanager.controller;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: Testes de integracao para a API de otimizacao, com foco nos jobs assincronos:
+//        envio, consulta do status ate o fim e cancelamento.
+// EN-US: Integration tests for the optimization API, focused on the asynchronous jobs:
+//        submission, status polling until the end, and cancellation.
+@QuarkusTest
+class ProductionOptimizationResourceTest {
+
+    @Test
+    void testSubmitJob_returns202AndCompletes() throws InterruptedException {
+        int id = given()
+            .when().post("/api/optimization/jobs")
+            .then()
+            .statusCode(202)
+            .header("Location", containsString("/api/optimization/jobs/"))
+            .body("status", anyOf(equalTo("QUEUED"), equalTo("RUNNING"), equalTo("COMPLETED")))
+            .extract().path("id");
+
+        assertEquals("COMPLETED", awaitFinished(id));
+        given()
+            .when().get("/api/optimization/jobs/" + id)
+            .then()
+            .body("result.totalRevenue", notNullValue())
+            .body("finishedAt", notNullValue());
+    }
+
+    @Test
+    void testCancelJob_endsCancelledOrCompleted() throws InterruptedException {
+        // PT-BR: O job pode terminar antes do DELETE chegar; os dois estados sao validos.
+        // EN-US: The job may finish before the DELETE arrives; both states are valid.
+        int id = given()
+            .when().post("/api/optimization/jobs")
+            .then()
+            .statusCode(202)
+            .extract().path("id");
+
+        given()
+            .when().delete("/api/optimization/jobs/" + id)
+            .then()
+            .statusCode(200)
+            .contentType(ContentType.JSON)
+            .body("id", equalTo(id));
+
+        assertTrue(Set.of("CANCELLED", "COMPLETED").contains(awaitFinished(id)));
+    }
+
+    @Test
+    void testMetrics_exposeSolverMeters() {
+        given()
+            .when().post("/api/optimization/optimize")
+            .then()
+            .statusCode(200);
+
+        given()
+            .when().get("/q/metrics")
+            .then()
+            .statusCode(200)
+            .body(containsString("optimization_budget_exhausted_total{reason=\"NODE_LIMIT\"}"))
+            .body(containsString("optimization_frontier_peak_nodes"));
+    }
+
+    @Test
+    void testOptimizeStream_endsWithCompletedEvent() {
+        // PT-BR: O stream termina sozinho quando a busca acaba; o ultimo evento traz o
+        //        resultado final.
+        // EN-US: The stream ends on its own when the search finishes; the last event
+        //        carries the final result.
+        String body = given()
+            .accept("text/event-stream")
+            .when().get("/api/optimization/optimize/stream")
+            .then()
+            .statusCode(200)
+            .contentType(containsString("text/event-stream"))
+            .extract().asString();
+
+        assertTrue(body.contains("\"type\":\"COMPLETED\""), body);
+        assertTrue(body.contains("\"totalRevenue\""), body);
+    }
+
+    @Test
+    void testGetJob_nonExistent_returns404() {
+        given()
+            .when().get("/api/optimization/jobs/99999")
+            .then()
+            .statusCode(404);
+    }
+
+    @Test
+    void testOptimize_requestBudget_echoedInDiagnostics() {
+        given()
+            .when().post("/api/optimization/optimize?maxNodes=500&maxTimeMs=2000")
+            .then()
+            .statusCode(200)
+            .body("diagnostics.maxNodes", equalTo(500))
+            .body("diagnostics.maxTimeMs", equalTo(2000))
+            .body("diagnostics.terminationReason", notNullValue());
+    }
+
+    @Test
+    void testOptimize_budgetOutsideLimits_returns400() {
+        given()
+            .when().post("/api/optimization/optimize?maxNodes=0")
+            .then()
+            .statusCode(400);
+    }
+
+    @Test
+    void testOptimizeScenarios_returnsOneResultPerScenario() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"scenarios\": [{\"name\": \"current\"}, {\"name\": \"again\"}]}")
+            .when().post("/api/optimization/scenarios?maxTimeMs=2000")
+            .then()
+            .statusCode(200)
+            .body("size()", equalTo(2))
+            .body("[0].name", equalTo("current"))
+            .body("[1].name", equalTo("again"))
+            .body("[1].result.diagnostics.maxTimeMs", equalTo(2000));
+    }
+
+    @Test
+    void testOptimizeScenarios_emptyBatch_returns400() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"scenarios\": []}")
+            .when().post("/api/optimization/scenarios")
+            .then()
+            .statusCode(400);
+    }
+
+    // PT-BR: O solve padrao tem orcamento de 10 s; esperamos um pouco mais que isso.
+    // EN-US: The default solve has a 10 s budget; we wait a bit longer than that.
+    private String awaitFinished(int id) throws InterruptedException {
+        String status = null;
+        for (int attempt = 0; attempt < 150; attempt++) {
+            status = given()
+                .when().get("/api/optimization/jobs/" + id)
+                .then()
+                .statusCode(200)
+                .extract().path("status");
+            if (!status.equals("QUEUED") && !status.equals("RUNNING")) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        return status;
+    }
+}
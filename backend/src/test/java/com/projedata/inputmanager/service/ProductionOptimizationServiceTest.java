@@ -1,12 +1,22 @@
 package com.projedata.inputmanager.service;
 
 import com.projedata.inputmanager.dto.OptimizationResultDTO;
+import com.projedata.inputmanager.dto.OptimizationScenarioBatchDTO;
+import com.projedata.inputmanager.dto.OptimizationScenarioDTO;
+import com.projedata.inputmanager.dto.OptimizationScenarioResultDTO;
+import com.projedata.inputmanager.dto.RawMaterialDTO;
+import com.projedata.inputmanager.exception.CapacityExceededException;
 import com.projedata.inputmanager.model.Product;
 import com.projedata.inputmanager.model.ProductComposition;
 import com.projedata.inputmanager.model.RawMaterial;
 import com.projedata.inputmanager.repository.ProductCompositionRepository;
 import com.projedata.inputmanager.repository.ProductRepository;
 import com.projedata.inputmanager.repository.RawMaterialRepository;
+import com.projedata.inputmanager.service.optimization.PrimalHeuristic;
+import com.projedata.inputmanager.service.optimization.SearchProgress;
+import com.projedata.inputmanager.service.optimization.SolverOptions;
+import com.projedata.inputmanager.service.optimization.TerminationReason;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -15,6 +25,13 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,6 +62,18 @@ class ProductionOptimizationServiceTest {
     @Inject
     ProductCompositionRepository compositionRepository;
 
+    @Inject
+    OptimizationResultCache resultCache;
+
+    @Inject
+    RawMaterialService rawMaterialService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    ScenarioOptimizationService scenarioService;
+
     @BeforeEach
     @Transactional
     void cleanDatabase() {
@@ -58,9 +87,14 @@ class ProductionOptimizationServiceTest {
         //        IMPORTANT: Deletion order respects FK constraints.
         //        Compositions reference products and materials, so they must be
         //        deleted first to avoid ConstraintViolationException.
+        //        Os dados de teste vao direto para os repositorios, sem os services, entao o
+        //        cache e invalidado aqui.
+        // EN-US: The test data goes straight to the repositories, without the services,
+        //        so the cache is invalidated here.
         compositionRepository.deleteAll();
         productRepository.deleteAll();
         rawMaterialRepository.deleteAll();
+        resultCache.invalidate();
     }
 
     @Test
@@ -188,6 +222,44 @@ class ProductionOptimizationServiceTest {
         assertEquals(100.0, flourUsage.usagePercentage, 0.1);
     }
 
+    @Test
+    @Transactional
+    void testOptimization_sensitivity_reportsScarceInput() {
+        // PT-BR: A farinha limita e o acucar sobra. Na relaxacao o bolo (R$0,15/g) vai ao
+        //        teto de 2 unidades e os 100g restantes viram 1 pao (R$0,10/g): cada grama
+        //        extra de farinha vale R$0,10, e o bolo rende R$10 acima do custo dos insumos.
+        // EN-US: Flour binds and sugar is left over. In the relaxation the cake ($0.15/g)
+        //        goes to its cap of 2 units and the remaining 100g become 1 bread ($0.10/g):
+        //        each extra gram of flour is worth $0.10, and the cake earns $10 above the
+        //        cost of its inputs.
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        RawMaterial sugar = createMaterial("MP002", "Sugar", 10000, "g");
+        Product bread = createProduct("PROD001", "Bread", 10.00);
+        addComposition(bread, flour, 100);
+        addComposition(bread, sugar, 1);
+        Product cake = createProduct("PROD002", "Cake", 30.00);
+        addComposition(cake, flour, 200);
+        addComposition(cake, sugar, 1);
+
+        OptimizationResultDTO result = service.optimize();
+
+        OptimizationResultDTO.MaterialUsage flourUsage = result.materialUsage.stream()
+            .filter(m -> m.rawMaterialName.equals("Flour")).findFirst().orElseThrow();
+        OptimizationResultDTO.MaterialUsage sugarUsage = result.materialUsage.stream()
+            .filter(m -> m.rawMaterialName.equals("Sugar")).findFirst().orElseThrow();
+        assertTrue(flourUsage.binding);
+        assertEquals(0, new BigDecimal("0.1000").compareTo(flourUsage.shadowPrice));
+        assertFalse(sugarUsage.binding);
+        assertEquals(0, BigDecimal.ZERO.compareTo(sugarUsage.shadowPrice));
+
+        OptimizationResultDTO.ProductionItem cakeItem = result.productionPlan.stream()
+            .filter(p -> p.productName.equals("Cake")).findFirst().orElseThrow();
+        OptimizationResultDTO.ProductionItem breadItem = result.productionPlan.stream()
+            .filter(p -> p.productName.equals("Bread")).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("10.0000").compareTo(cakeItem.reducedCost));
+        assertEquals(0, BigDecimal.ZERO.compareTo(breadItem.reducedCost));
+    }
+
     @Test
     @Transactional
     void testOptimization_computationTimeIsTracked() {
@@ -219,6 +291,499 @@ class ProductionOptimizationServiceTest {
         assertEquals(0, BigDecimal.ZERO.compareTo(result.totalRevenue));
     }
 
+    @Test
+    @Transactional
+    void testOptimization_cheapPerUnitProduct_largeDomain() {
+        // PT-BR: Um biscoito que usa 1g de cada insumo permite ate 10.000 unidades. Com a
+        //        ramificacao por intervalos isso vira ~14 niveis de bissecao, e nao 10.001
+        //        filhos. O bolo rende mais por grama de manteiga (gargalo): 100 bolos = R$20.000.
+        // EN-US: A biscuit using 1g of each input allows up to 10,000 units. With interval
+        //        branching this becomes ~14 bisection levels, not 10,001 children.
+        //        The cake earns more per gram of butter (bottleneck): 100 cakes = $20,000.
+        RawMaterial flour = createMaterial("MP001", "Flour", 50000, "g");
+        RawMaterial butter = createMaterial("MP002", "Butter", 10000, "g");
+
+        Product biscuit = createProduct("PROD001", "Biscuit", 0.50);
+        addComposition(biscuit, flour, 1);
+        addComposition(biscuit, butter, 1);
+
+        Product cake = createProduct("PROD002", "Cake", 200.00);
+        addComposition(cake, flour, 300);
+        addComposition(cake, butter, 100);
+
+        OptimizationResultDTO result = service.optimize();
+
+        assertNotNull(result);
+        assertEquals(0, new BigDecimal("20000.00").compareTo(result.totalRevenue));
+    }
+
+    @Test
+    @Transactional
+    void testOptimization_seedCatalog_findsMixedOptimum() {
+        // PT-BR: O mesmo catalogo do import.sql: 3 produtos disputando 5 insumos. O otimo
+        //        (conferido por forca bruta) mistura produtos: 13 bolos + 2 paes = R$609.
+        //        Aqui a relaxacao linear precisa dividir os ovos entre os produtos.
+        // EN-US: The same catalog as import.sql: 3 products competing for 5 inputs. The
+        //        optimum (checked by brute force) mixes products: 13 cakes + 2 breads = $609.
+        //        Here the linear relaxation has to split the eggs between the products.
+        RawMaterial flour = createMaterial("MP001", "Flour", 5000, "g");
+        RawMaterial sugar = createMaterial("MP002", "Sugar", 3000, "g");
+        RawMaterial butter = createMaterial("MP003", "Butter", 2000, "g");
+        RawMaterial eggs = createMaterial("MP004", "Eggs", 50, "un");
+        RawMaterial milk = createMaterial("MP005", "Milk", 4000, "ml");
+
+        Product cake = createProduct("PROD001", "Chocolate Cake", 45.00);
+        addComposition(cake, flour, 300);
+        addComposition(cake, sugar, 200);
+        addComposition(cake, butter, 150);
+        addComposition(cake, eggs, 3);
+        addComposition(cake, milk, 200);
+
+        Product bread = createProduct("PROD002", "Homemade Bread", 12.00);
+        addComposition(bread, flour, 500);
+        addComposition(bread, eggs, 1);
+        addComposition(bread, milk, 150);
+
+        Product cookie = createProduct("PROD003", "Butter Cookie", 25.00);
+        addComposition(cookie, flour, 200);
+        addComposition(cookie, sugar, 100);
+        addComposition(cookie, butter, 250);
+        addComposition(cookie, eggs, 2);
+
+        OptimizationResultDTO result = service.optimize();
+
+        assertNotNull(result);
+        assertEquals(0, new BigDecimal("609.00").compareTo(result.totalRevenue));
+    }
+
+    @Test
+    @Transactional
+    void testOptimization_parallelSearch_matchesSequentialRevenue() {
+        // PT-BR: A busca paralela pode visitar os nos em outra ordem, mas por ser exata
+        //        tem que chegar a mesma receita otima que a sequencial.
+        // EN-US: The parallel search may visit nodes in a different order, but since it is
+        //        exact it must reach the same optimal revenue as the sequential one.
+        Random random = new Random(42);
+        List<RawMaterial> materials = new ArrayList<>();
+        for (int j = 0; j < 5; j++) {
+            materials.add(createMaterial("MP00" + j, "Material " + j, 200 + random.nextInt(300), "g"));
+        }
+        for (int i = 0; i < 10; i++) {
+            Product product = createProduct("PROD00" + i, "Product " + i, 5 + random.nextInt(60));
+            for (int j = 0; j < materials.size(); j++) {
+                if (random.nextBoolean() || j == i % materials.size()) {
+                    addComposition(product, materials.get(j), 1 + random.nextInt(20));
+                }
+            }
+        }
+
+        SolverOptions sequential = service.defaultOptions();
+        sequential.parallelism = 1;
+        SolverOptions parallel = service.defaultOptions();
+        parallel.parallelism = 4;
+
+        OptimizationResultDTO expected = service.optimize(sequential);
+        OptimizationResultDTO actual = service.optimize(parallel);
+
+        assertTrue(expected.totalRevenue.signum() > 0);
+        assertEquals(0, expected.totalRevenue.compareTo(actual.totalRevenue));
+    }
+
+    @Test
+    @Transactional
+    void testOptimization_unchangedCatalog_servedFromCache() {
+        // PT-BR: Sem nenhuma escrita entre as chamadas, a segunda vem do cache com o
+        //        mesmo plano.
+        // EN-US: With no writes between the calls, the second one comes from the cache
+        //        with the same plan.
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+
+        long hitsBefore = resultCache.stats().hits;
+        OptimizationResultDTO first = service.optimize();
+        OptimizationResultDTO second = service.optimize();
+
+        assertFalse(first.cached);
+        assertTrue(second.cached);
+        assertEquals(hitsBefore + 1, resultCache.stats().hits);
+        assertEquals(0, first.totalRevenue.compareTo(second.totalRevenue));
+        assertEquals(5, second.productionPlan.get(0).quantityToProduce);
+        assertNotNull(second.diagnostics);
+        assertEquals(TerminationReason.OPTIMAL, second.diagnostics.terminationReason);
+        assertEquals(first.diagnostics.nodesExplored, second.diagnostics.nodesExplored);
+        assertEquals(0, first.diagnostics.bestBound.compareTo(second.diagnostics.bestBound));
+        assertEquals(0.0, second.diagnostics.optimalityGap);
+    }
+
+    @Test
+    @Transactional
+    void testOptimization_stockChange_bypassesCache() {
+        // PT-BR: Uma escrita pelo RawMaterialService muda a versao do catalogo, entao a
+        //        chamada seguinte gera um novo calculo.
+        // EN-US: A write through RawMaterialService changes the catalog version, so the
+        //        next call triggers a new computation.
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+
+        OptimizationResultDTO before = service.optimize();
+        RawMaterialDTO update = new RawMaterialDTO();
+        update.code = flour.code;
+        update.name = flour.name;
+        update.stockQuantity = BigDecimal.valueOf(300);
+        update.unit = flour.unit;
+        rawMaterialService.update(flour.id, update);
+        OptimizationResultDTO after = service.optimize();
+
+        assertEquals(5, before.productionPlan.get(0).quantityToProduce);
+        assertFalse(after.cached);
+        assertEquals(3, after.productionPlan.get(0).quantityToProduce);
+    }
+
+    @Test
+    @Transactional
+    void testOptimization_cachedResult_isIsolatedFromCallers() {
+        // PT-BR: Alterar um resultado devolvido (o primeiro, que foi guardado, ou um acerto)
+        //        nao muda o que o cache entrega depois.
+        // EN-US: Changing a returned result (the first one, which was stored, or a hit)
+        //        doesn't change what the cache hands out later.
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+
+        OptimizationResultDTO first = service.optimize();
+        first.productionPlan.get(0).quantityToProduce = 99;
+        OptimizationResultDTO hit = service.optimize();
+        hit.productionPlan.clear();
+        hit.materialUsage.get(0).usagePercentage = -1;
+        hit.diagnostics.nodesExplored = -1;
+        OptimizationResultDTO again = service.optimize();
+
+        assertTrue(again.cached);
+        assertEquals(5, again.productionPlan.get(0).quantityToProduce);
+        assertEquals(100.0, again.materialUsage.get(0).usagePercentage);
+        assertTrue(again.diagnostics.nodesExplored >= 0);
+    }
+
+    @Test
+    @Transactional
+    void testOptimization_cancelledSearch_isNotCached() {
+        // PT-BR: Uma busca cancelada devolve o que tinha (aqui, so o plano das heuristicas)
+        //        e nao pode ficar no cache, senao a proxima chamada receberia um plano parcial.
+        // EN-US: A cancelled search returns what it had (here, only the heuristics' plan)
+        //        and must not stay in the cache, otherwise the next call would get a
+        //        partial plan.
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+
+        SolverOptions options = service.defaultOptions();
+        options.progress = new SearchProgress();
+        options.progress.cancel();
+        OptimizationResultDTO cancelled = service.optimize(options);
+        OptimizationResultDTO complete = service.optimize();
+
+        assertNotNull(cancelled.totalRevenue);
+        assertEquals(0, options.progress.nodesExplored());
+        assertFalse(complete.cached);
+        assertEquals(0, new BigDecimal("225.00").compareTo(complete.totalRevenue));
+    }
+
+    @Test
+    @Transactional
+    void testOptimization_limitedSearch_isNotCached() {
+        // PT-BR: Um plano que parou no limite de nos nao e comprovadamente otimo, entao a
+        //        mesma chamada roda de novo em vez de repetir o plano parcial.
+        // EN-US: A plan that stopped at the node limit isn't proven optimal, so the same
+        //        call runs again instead of repeating the partial plan.
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        RawMaterial sugar = createMaterial("MP002", "Sugar", 300, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+        addComposition(cake, sugar, 70);
+        Product cookie = createProduct("PROD002", "Cookie", 12.00);
+        addComposition(cookie, flour, 20);
+        addComposition(cookie, sugar, 30);
+
+        SolverOptions options = service.options(1, null);
+        options.heuristics = EnumSet.noneOf(PrimalHeuristic.class);
+        options.dynamicProgramming = false;
+        OptimizationResultDTO first = service.optimize(options);
+        OptimizationResultDTO second = service.optimize(options);
+
+        assertEquals(TerminationReason.NODE_LIMIT, first.diagnostics.terminationReason);
+        assertFalse(second.cached);
+    }
+
+    @Test
+    @Transactional
+    void testOptimization_completeSearch_reportsOptimalDiagnostics() {
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+
+        OptimizationResultDTO result = service.optimize();
+
+        assertEquals(TerminationReason.OPTIMAL, result.diagnostics.terminationReason);
+        assertEquals(0, result.totalRevenue.compareTo(result.diagnostics.bestBound));
+        assertEquals(0.0, result.diagnostics.optimalityGap);
+    }
+
+    @Test
+    @Transactional
+    void testOptimization_nodeBudget_reportsLimitAndGap() {
+        // PT-BR: Sem heuristicas, sem programacao dinamica e com um unico no, a busca para
+        //        logo depois da raiz: o plano nao e comprovadamente otimo e o diagnostico
+        //        tem que dizer isso.
+        // EN-US: Without heuristics, without dynamic programming and with a single node,
+        //        the search stops right after the root: the plan isn't proven optimal and
+        //        the diagnostics must say so.
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        RawMaterial sugar = createMaterial("MP002", "Sugar", 300, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+        addComposition(cake, sugar, 70);
+        Product cookie = createProduct("PROD002", "Cookie", 12.00);
+        addComposition(cookie, flour, 20);
+        addComposition(cookie, sugar, 30);
+
+        SolverOptions options = service.options(1, null);
+        options.heuristics = EnumSet.noneOf(PrimalHeuristic.class);
+        options.dynamicProgramming = false;
+        OptimizationResultDTO result = service.optimize(options);
+
+        assertEquals(TerminationReason.NODE_LIMIT, result.diagnostics.terminationReason);
+        assertEquals(1, result.diagnostics.nodesExplored);
+        assertTrue(result.diagnostics.bestBound.compareTo(result.totalRevenue) > 0);
+        assertTrue(result.diagnostics.optimalityGap > 0);
+    }
+
+    @Test
+    @Transactional
+    void testMetrics_nodeBudget_countsExhaustedSolve() {
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        RawMaterial sugar = createMaterial("MP002", "Sugar", 300, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+        addComposition(cake, sugar, 70);
+        Product cookie = createProduct("PROD002", "Cookie", 12.00);
+        addComposition(cookie, flour, 20);
+        addComposition(cookie, sugar, 30);
+        double exhaustedBefore = meterRegistry.get("optimization.budget.exhausted")
+            .tag("reason", "NODE_LIMIT").counter().count();
+        long solvesBefore = meterRegistry.find("optimization.solve.duration")
+            .tag("termination", "NODE_LIMIT").timers().stream().mapToLong(timer -> timer.count()).sum();
+
+        SolverOptions options = service.options(2, null);
+        options.heuristics = EnumSet.noneOf(PrimalHeuristic.class);
+        options.dynamicProgramming = false;
+        service.optimize(options);
+
+        assertEquals(exhaustedBefore + 1, meterRegistry.get("optimization.budget.exhausted")
+            .tag("reason", "NODE_LIMIT").counter().count());
+        assertEquals(solvesBefore + 1, meterRegistry.get("optimization.solve.duration")
+            .tag("termination", "NODE_LIMIT").timers().stream().mapToLong(timer -> timer.count()).sum());
+        assertTrue(meterRegistry.get("optimization.nodes.explored").summary().count() > 0);
+    }
+
+    @Test
+    void testOptimization_budgetOutsideLimits_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.options(0, null));
+        assertThrows(IllegalArgumentException.class, () -> service.options(null, -5L));
+    }
+
+    @Test
+    @Transactional
+    void testOptimization_incumbentListener_receivesImprovingPlans() {
+        // PT-BR: Cada plano parcial entregue durante a busca e melhor que o anterior, e o
+        //        ultimo e o proprio resultado final.
+        // EN-US: Each partial plan delivered during the search is better than the previous
+        //        one, and the last one is the final result itself.
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        RawMaterial sugar = createMaterial("MP002", "Sugar", 300, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+        addComposition(cake, sugar, 50);
+        Product cookie = createProduct("PROD002", "Cookie", 12.00);
+        addComposition(cookie, flour, 20);
+        addComposition(cookie, sugar, 30);
+
+        List<BigDecimal> revenues = new ArrayList<>();
+        SolverOptions options = service.defaultOptions();
+        OptimizationResultDTO result = service.optimize(options, partial -> revenues.add(partial.totalRevenue));
+
+        assertFalse(revenues.isEmpty());
+        for (int i = 1; i < revenues.size(); i++) {
+            assertTrue(revenues.get(i).compareTo(revenues.get(i - 1)) > 0);
+        }
+        assertEquals(0, result.totalRevenue.compareTo(revenues.get(revenues.size() - 1)));
+        assertNull(options.progress);
+    }
+
+    @Test
+    @Transactional
+    void testScenarios_overridesChangeTheOptimum() {
+        // PT-BR: Mesmo catalogo do teste de produtos concorrentes (otimo atual: 5 B = R$150).
+        //        Com o dobro de farinha: 10 B = R$300. Com A a R$80: 2 A + 1 B = R$190.
+        //        Os resultados voltam na ordem do pedido.
+        // EN-US: Same catalog as the competing products test (current optimum: 5 B = $150).
+        //        With twice the flour: 10 B = $300. With A at $80: 2 A + 1 B = $190.
+        //        The results come back in request order.
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        Product productA = createProduct("PROD001", "Product A", 50.00);
+        addComposition(productA, flour, 200);
+        Product productB = createProduct("PROD002", "Product B", 30.00);
+        addComposition(productB, flour, 100);
+
+        OptimizationScenarioDTO.StockOverride moreFlour = new OptimizationScenarioDTO.StockOverride();
+        moreFlour.rawMaterialId = flour.id;
+        moreFlour.factor = new BigDecimal("2");
+        OptimizationScenarioDTO.PriceOverride pricierA = new OptimizationScenarioDTO.PriceOverride();
+        pricierA.productId = productA.id;
+        pricierA.salePrice = new BigDecimal("80.00");
+
+        OptimizationScenarioBatchDTO batch = new OptimizationScenarioBatchDTO();
+        batch.scenarios = List.of(
+            scenario("double flour", List.of(moreFlour), null),
+            scenario("current", null, null),
+            scenario("pricier A", null, List.of(pricierA)));
+
+        List<OptimizationScenarioResultDTO> results = scenarioService.optimize(batch, null, null);
+
+        assertEquals(3, results.size());
+        assertEquals("double flour", results.get(0).name);
+        assertEquals(0, new BigDecimal("300.00").compareTo(results.get(0).result.totalRevenue));
+        assertEquals(0, new BigDecimal("1000.0000").compareTo(results.get(0).result.materialUsage.get(0).totalAvailable));
+        assertEquals(0, new BigDecimal("150.00").compareTo(results.get(1).result.totalRevenue));
+        assertEquals(0, new BigDecimal("190.00").compareTo(results.get(2).result.totalRevenue));
+        assertEquals(0, new BigDecimal("80.00").compareTo(results.get(2).result.productionPlan.get(0).unitPrice));
+        assertEquals(TerminationReason.OPTIMAL, results.get(2).result.diagnostics.terminationReason);
+    }
+
+    @Test
+    @Transactional
+    void testScenarios_invalidOverride_isRejected() {
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+
+        OptimizationScenarioDTO.StockOverride both = new OptimizationScenarioDTO.StockOverride();
+        both.rawMaterialId = flour.id;
+        both.stockQuantity = new BigDecimal("100");
+        both.factor = new BigDecimal("2");
+        OptimizationScenarioDTO.StockOverride unknown = new OptimizationScenarioDTO.StockOverride();
+        unknown.rawMaterialId = flour.id + 1000;
+        unknown.factor = new BigDecimal("2");
+
+        OptimizationScenarioBatchDTO valueAndFactor = new OptimizationScenarioBatchDTO();
+        valueAndFactor.scenarios = List.of(scenario("both", List.of(both), null));
+        OptimizationScenarioBatchDTO unknownMaterial = new OptimizationScenarioBatchDTO();
+        unknownMaterial.scenarios = List.of(scenario("unknown", List.of(unknown), null));
+
+        assertThrows(IllegalArgumentException.class, () -> scenarioService.optimize(valueAndFactor, null, null));
+        assertThrows(IllegalArgumentException.class, () -> scenarioService.optimize(unknownMaterial, null, null));
+    }
+
+    @Test
+    @Transactional
+    void testScenarios_fullQueue_isRejected() {
+        // PT-BR: Uma thread e fila de um cenario: um lote de dez nao cabe e responde 503
+        //        (CapacityExceededException) em vez de esperar numa fila sem fim.
+        // EN-US: One thread and a one-scenario queue: a batch of ten doesn't fit and answers
+        //        503 (CapacityExceededException) instead of waiting on an endless queue.
+        RawMaterial flour = createMaterial("MP001", "Flour", 500, "g");
+        Product cake = createProduct("PROD001", "Cake", 45.00);
+        addComposition(cake, flour, 100);
+
+        ScenarioOptimizationService small = new ScenarioOptimizationService();
+        small.optimizationService = service;
+        small.threads = 1;
+        small.queueCapacity = 1;
+        small.maxBatch = 50;
+        small.init();
+        try {
+            OptimizationScenarioBatchDTO batch = new OptimizationScenarioBatchDTO();
+            batch.scenarios = new ArrayList<>();
+            for (int s = 0; s < 10; s++) {
+                batch.scenarios.add(scenario("scenario " + s, null, null));
+            }
+
+            assertThrows(CapacityExceededException.class, () -> small.optimize(batch, null, null));
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void testScenarios_abortedBatch_cancelsRunningSearches() throws InterruptedException {
+        // PT-BR: O solve de mentira so termina quando a sua busca e cancelada (ou em 30 s).
+        //        O terceiro cenario so e montado depois que o primeiro comecou a rodar; ele
+        //        nao cabe na fila, o lote e abortado e o cenario que ja rodava tem que
+        //        liberar a thread na hora, em vez de gastar o orcamento inteiro.
+        // EN-US: The fake solve only ends when its search is cancelled (or after 30 s).
+        //        The third scenario is only built once the first one is running; it doesn't
+        //        fit the queue, the batch is aborted and the scenario already running has
+        //        to free the thread right away, instead of spending its whole budget.
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger optionCalls = new AtomicInteger();
+        CountDownLatch cancelled = new CountDownLatch(1);
+        ProductionOptimizationService stuck = new ProductionOptimizationService() {
+            @Override
+            OptimizationCatalog loadCatalog() {
+                return service.loadCatalog();
+            }
+
+            @Override
+            public SolverOptions options(Integer maxNodes, Long maxTimeMs) {
+                // PT-BR: Chamadas: validacao, cenario 1, cenario 2, cenario 3.
+                // EN-US: Calls: validation, scenario 1, scenario 2, scenario 3.
+                if (optionCalls.incrementAndGet() == 4) {
+                    try {
+                        started.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return service.options(maxNodes, maxTimeMs);
+            }
+
+            @Override
+            OptimizationResultDTO solve(OptimizationCatalog catalog, SolverOptions options,
+                                        Consumer<OptimizationResultDTO> onImprovement, long startTime) {
+                started.countDown();
+                long deadline = System.currentTimeMillis() + 30_000;
+                while (!options.progress.isCancelled() && System.currentTimeMillis() < deadline) {
+                    Thread.onSpinWait();
+                }
+                if (options.progress.isCancelled()) {
+                    cancelled.countDown();
+                }
+                return new OptimizationResultDTO();
+            }
+        };
+
+        ScenarioOptimizationService small = new ScenarioOptimizationService();
+        small.optimizationService = stuck;
+        small.threads = 1;
+        small.queueCapacity = 1;
+        small.maxBatch = 50;
+        small.init();
+        try {
+            OptimizationScenarioBatchDTO batch = new OptimizationScenarioBatchDTO();
+            batch.scenarios = new ArrayList<>();
+            for (int s = 0; s < 3; s++) {
+                batch.scenarios.add(scenario("scenario " + s, null, null));
+            }
+
+            assertThrows(CapacityExceededException.class, () -> small.optimize(batch, null, 300_000L));
+            assertEquals(0, started.getCount());
+            assertTrue(cancelled.await(2, TimeUnit.SECONDS));
+        } finally {
+            small.shutdown();
+        }
+    }
+
     // PT-BR: Metodos auxiliares para criar dados de teste de forma limpa e legivel
     // EN-US: Helper methods to create test data in a clean and readable way
     private RawMaterial createMaterial(String code, String name, double quantity, String unit) {
@@ -249,4 +814,13 @@ class ProductionOptimizationServiceTest {
         product.compositions.add(composition);
         productRepository.persist(product);
     }
+
+    private OptimizationScenarioDTO scenario(String name, List<OptimizationScenarioDTO.StockOverride> stock,
+                                             List<OptimizationScenarioDTO.PriceOverride> prices) {
+        OptimizationScenarioDTO scenario = new OptimizationScenarioDTO();
+        scenario.name = name;
+        scenario.stockOverrides = stock;
+        scenario.priceOverrides = prices;
+        return scenario;
+    }
 }
@@ -0,0 +1,79 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: Equivalencia entre a programacao dinamica e o Branch and Bound, direto no solver
+//        (sem Quarkus). Os consumos tem casas decimais (0.25, 0.5) para exercitar a
+//        escala inteira, e os insumos extras sobram para que so um ou dois limitem.
+// EN-US: Equivalence between dynamic programming and Branch and Bound, straight on the
+//        solver (no Quarkus). The consumptions have decimals (0.25, 0.5) to exercise the
+//        integer scaling, and the extra inputs are left over so only one or two bind.
+class BoundedKnapsackTest {
+
+    @Test
+    void testDynamicProgramming_sameOptimumAsBranchAndBound() {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            int binding = 1 + round % 2;
+            OptimizationProblem problem = randomProblem(8, binding, random);
+
+            SolverOptions treeOptions = new SolverOptions();
+            treeOptions.branchingMode = BranchingMode.INTERVAL;
+            treeOptions.boundStrategy = BoundStrategy.LP_RELAXATION;
+            SolverOptions dpOptions = new SolverOptions();
+            dpOptions.dynamicProgramming = true;
+
+            SolverResult expected = new BranchAndBoundSolver(problem, treeOptions).solve(System.currentTimeMillis());
+            SolverResult actual = new BranchAndBoundSolver(problem, dpOptions).solve(System.currentTimeMillis());
+
+            assertEquals(SolverEngine.BRANCH_AND_BOUND, expected.engine);
+            assertEquals(SolverEngine.DYNAMIC_PROGRAMMING, actual.engine);
+            assertEquals(TerminationReason.OPTIMAL, expected.terminationReason);
+            assertEquals(TerminationReason.OPTIMAL, actual.terminationReason);
+            assertEquals(expected.revenue, actual.revenue, 1e-6);
+            assertTrue(problem.isFeasible(actual.solution));
+        }
+    }
+
+    @Test
+    void testPrepare_threeBindingInputs_fallsBack() {
+        OptimizationProblem problem = randomProblem(6, 3, new Random(3));
+
+        assertNull(BoundedKnapsack.prepare(problem));
+
+        SolverOptions options = new SolverOptions();
+        options.dynamicProgramming = true;
+        SolverResult result = new BranchAndBoundSolver(problem, options).solve(System.currentTimeMillis());
+        assertEquals(SolverEngine.BRANCH_AND_BOUND, result.engine);
+        assertEquals(TerminationReason.OPTIMAL, result.terminationReason);
+    }
+
+    // PT-BR: Os primeiros "binding" insumos sao escassos; os outros dois tem estoque de sobra.
+    // EN-US: The first "binding" inputs are scarce; the other two have plenty of stock.
+    private static OptimizationProblem randomProblem(int n, int binding, Random random) {
+        int m = binding + 2;
+        double[] prices = new double[n];
+        double[] stock = new double[m];
+        double[][] consumption = new double[m][n];
+        for (int i = 0; i < n; i++) {
+            prices[i] = 1 + random.nextInt(100);
+            for (int j = 0; j < binding; j++) {
+                consumption[j][i] = (1 + random.nextInt(40)) * 0.25;
+            }
+            for (int j = binding; j < m; j++) {
+                consumption[j][i] = random.nextInt(3) * 0.5;
+            }
+        }
+        for (int j = 0; j < binding; j++) {
+            stock[j] = 20 + random.nextInt(40) + 0.75;
+        }
+        for (int j = binding; j < m; j++) {
+            stock[j] = 10_000;
+        }
+        return new OptimizationProblem(prices, stock, consumption);
+    }
+}
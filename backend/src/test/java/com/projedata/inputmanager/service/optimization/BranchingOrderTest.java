@@ -0,0 +1,47 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: A ordem de ramificacao e a ordem dos valores mudam o caminho da busca, nao o
+//        otimo. Comparamos cada combinacao com a ordem do catalogo, nos dois limites e nos
+//        dois modos de ramificacao (direto no solver, sem Quarkus).
+// EN-US: The branching order and the value order change the search path, not the optimum.
+//        We compare each combination with the catalog order, under both bounds and both
+//        branching modes (straight on the solver, no Quarkus).
+class BranchingOrderTest {
+
+    @Test
+    void testBranchingOrders_sameOptimumAsCatalogOrder() {
+        Random random = new Random(7);
+        for (int round = 0; round < 4; round++) {
+            OptimizationProblem problem = TestProblems.random(7, 3, 0.5, 40, 100, random);
+            BranchingMode mode = round % 2 == 0 ? BranchingMode.INTERVAL : BranchingMode.ENUMERATE;
+            BoundStrategy bound = round < 2 ? BoundStrategy.LP_RELAXATION : BoundStrategy.INDEPENDENT;
+
+            SolverResult expected = solve(problem, mode, bound, BranchingOrder.CATALOG, ValueOrder.ASCENDING);
+            assertEquals(TerminationReason.OPTIMAL, expected.terminationReason);
+            for (BranchingOrder order : BranchingOrder.values()) {
+                for (ValueOrder values : ValueOrder.values()) {
+                    SolverResult actual = solve(problem, mode, bound, order, values);
+                    assertEquals(TerminationReason.OPTIMAL, actual.terminationReason, order + "/" + values);
+                    assertEquals(expected.revenue, actual.revenue, 1e-6, order + "/" + values);
+                    assertTrue(problem.isFeasible(actual.solution));
+                }
+            }
+        }
+    }
+
+    private static SolverResult solve(OptimizationProblem problem, BranchingMode mode, BoundStrategy bound,
+                                      BranchingOrder order, ValueOrder values) {
+        SolverOptions options = new SolverOptions();
+        options.branchingMode = mode;
+        options.boundStrategy = bound;
+        options.branchingOrder = order;
+        options.valueOrder = values;
+        return new BranchAndBoundSolver(problem, options).solve(System.currentTimeMillis());
+    }
+}
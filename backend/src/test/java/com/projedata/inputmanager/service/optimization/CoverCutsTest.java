@@ -0,0 +1,75 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: Os cortes nunca removem um plano inteiro viavel, apertam a raiz quando a
+//        relaxacao e fracionaria e nao mudam o otimo.
+// EN-US: The cuts never remove a feasible integer plan, tighten the root when the
+//        relaxation is fractional and don't change the optimum.
+class CoverCutsTest {
+
+    @Test
+    void testSeparate_fractionalRoot_tightensBound() {
+        // PT-BR: 10.5 kg de farinha, 3 kg por bolo e 4 kg por torta: a relaxacao faz 3 bolos
+        //        e 0.375 torta (103.125); o otimo inteiro e 2 bolos e 1 torta (95).
+        // EN-US: 10.5 kg of flour, 3 kg per cake and 4 kg per pie: the relaxation makes 3
+        //        cakes and 0.375 pie (103.125); the integer optimum is 2 cakes and 1 pie (95).
+        OptimizationProblem problem = new OptimizationProblem(new double[] {30, 35}, new double[] {10.5},
+            new double[][] {{3, 4}});
+
+        CoverCuts cuts = CoverCuts.separate(problem);
+
+        assertTrue(cuts.cutCount > 0);
+        assertEquals(103.125, cuts.rootBound, 1e-6);
+        assertTrue(cuts.strengthenedBound < cuts.rootBound - 1e-6);
+        assertTrue(cuts.strengthenedBound >= 95.0 - 1e-6);
+        assertEquals(problem.materialCount + cuts.cutCount, cuts.strengthened.materialCount);
+    }
+
+    @Test
+    void testStrengthened_keepsEveryFeasiblePlan() {
+        Random random = new Random(23);
+        for (int round = 0; round < 30; round++) {
+            OptimizationProblem problem = TestProblems.random(3, 2, 1.0, 10, 30, random);
+            OptimizationProblem strengthened = CoverCuts.separate(problem).strengthened;
+
+            int[] plan = new int[3];
+            for (plan[0] = 0; plan[0] <= problem.maxUnits[0]; plan[0]++) {
+                for (plan[1] = 0; plan[1] <= problem.maxUnits[1]; plan[1]++) {
+                    for (plan[2] = 0; plan[2] <= problem.maxUnits[2]; plan[2]++) {
+                        if (problem.isFeasible(plan)) {
+                            assertTrue(strengthened.isFeasible(plan));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCoverCuts_sameOptimum() {
+        Random random = new Random(29);
+        for (int round = 0; round < 20; round++) {
+            OptimizationProblem problem = TestProblems.random(8, 3, 1.0, 10, 30, random);
+
+            SolverOptions plain = new SolverOptions();
+            plain.branchingMode = BranchingMode.INTERVAL;
+            plain.boundStrategy = BoundStrategy.LP_RELAXATION;
+            SolverOptions cut = plain.copy();
+            cut.coverCuts = true;
+
+            SolverResult expected = new BranchAndBoundSolver(problem, plain).solve(System.currentTimeMillis());
+            SolverResult actual = new BranchAndBoundSolver(problem, cut).solve(System.currentTimeMillis());
+
+            assertEquals(TerminationReason.OPTIMAL, actual.terminationReason);
+            assertEquals(expected.revenue, actual.revenue, 1e-6);
+            assertTrue(problem.isFeasible(actual.solution));
+            assertTrue(actual.rootBoundWithCuts <= actual.rootBound + 1e-6);
+            assertTrue(actual.rootBoundWithCuts >= actual.revenue - 1e-6);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: A Decomposition separa catalogos com linhas independentes e o solve por partes
+//        chega ao mesmo otimo que a arvore unica, em sequencia e em paralelo.
+// EN-US: Decomposition splits catalogs with independent lines and the per-part solve
+//        reaches the same optimum as the single tree, sequentially and in parallel.
+class DecompositionTest {
+
+    @Test
+    void testSplit_independentClusters_oneComponentEach() {
+        OptimizationProblem problem = clusteredProblem(3, 4, 2, new Random(5));
+
+        Decomposition decomposition = Decomposition.split(problem);
+
+        assertNotNull(decomposition);
+        assertEquals(3, decomposition.components.length);
+        for (OptimizationProblem component : decomposition.components) {
+            assertEquals(4, component.productCount);
+            assertEquals(2, component.materialCount);
+        }
+    }
+
+    @Test
+    void testSplit_sharedInput_returnsNull() {
+        double[][] consumption = {{1, 0, 2}, {0, 1, 1}};
+        OptimizationProblem problem = new OptimizationProblem(new double[] {3, 4, 5}, new double[] {10, 10},
+            consumption);
+
+        assertNull(Decomposition.split(problem));
+    }
+
+    @Test
+    void testDecompose_sameOptimumAsSingleTree() {
+        Random random = new Random(17);
+        for (int round = 0; round < 10; round++) {
+            OptimizationProblem problem = clusteredProblem(2 + round % 3, 5, 3, random);
+
+            SolverOptions single = new SolverOptions();
+            single.branchingMode = BranchingMode.INTERVAL;
+            single.boundStrategy = BoundStrategy.LP_RELAXATION;
+            SolverOptions decomposed = single.copy();
+            decomposed.decompose = true;
+            decomposed.parallelism = 1 + round % 2;
+
+            SolverResult expected = new BranchAndBoundSolver(problem, single).solve(System.currentTimeMillis());
+            SolverResult actual = new BranchAndBoundSolver(problem, decomposed).solve(System.currentTimeMillis());
+
+            assertEquals(1, expected.components);
+            assertEquals(2 + round % 3, actual.components);
+            assertEquals(TerminationReason.OPTIMAL, actual.terminationReason);
+            assertEquals(expected.revenue, actual.revenue, 1e-6);
+            assertEquals(actual.revenue, actual.bestBound, 1e-6);
+            assertEquals(actual.revenue, problem.revenueOf(actual.solution), 1e-6);
+            assertTrue(problem.isFeasible(actual.solution));
+        }
+    }
+
+    // PT-BR: O maxNodes vale para o pedido inteiro, nao para cada componente, e o bound
+    //        de um componente que nem chegou a rodar continua finito.
+    // EN-US: maxNodes applies to the whole request, not to each component, and the bound
+    //        of a component that never got to run stays finite.
+    @Test
+    void testDecompose_componentsShareNodeBudget() {
+        for (int parallelism = 1; parallelism <= 2; parallelism++) {
+            OptimizationProblem problem = clusteredProblem(4, 12, 3, new Random(23));
+            SolverOptions options = new SolverOptions();
+            options.maxNodes = 40;
+            options.decompose = true;
+            options.parallelism = parallelism;
+
+            SolverResult result = new BranchAndBoundSolver(problem, options).solve(System.currentTimeMillis());
+
+            assertEquals(4, result.components);
+            assertEquals(TerminationReason.NODE_LIMIT, result.terminationReason);
+            assertTrue(result.nodesExplored <= options.maxNodes + parallelism - 1);
+            assertTrue(Double.isFinite(result.bestBound));
+            assertTrue(result.bestBound >= result.revenue);
+            assertTrue(problem.isFeasible(result.solution));
+        }
+    }
+
+    // PT-BR: "clusters" grupos de produtos, cada um consumindo so os seus proprios insumos.
+    // EN-US: "clusters" groups of products, each consuming only its own inputs.
+    private static OptimizationProblem clusteredProblem(int clusters, int productsPerCluster,
+                                                        int materialsPerCluster, Random random) {
+        int n = clusters * productsPerCluster;
+        int m = clusters * materialsPerCluster;
+        double[] prices = new double[n];
+        double[] stock = new double[m];
+        double[][] consumption = new double[m][n];
+        for (int i = 0; i < n; i++) {
+            prices[i] = 1 + random.nextInt(50);
+            int cluster = i / productsPerCluster;
+            for (int j = cluster * materialsPerCluster; j < (cluster + 1) * materialsPerCluster; j++) {
+                consumption[j][i] = 1 + random.nextInt(8);
+            }
+        }
+        for (int j = 0; j < m; j++) {
+            stock[j] = 15 + random.nextInt(30);
+        }
+        return new OptimizationProblem(prices, stock, consumption);
+    }
+}
@@ -0,0 +1,132 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: O deposito devolve os nos intactos e na ordem do bound, respeita o limite de
+//        bytes e, na busca, transforma o FRONTIER_LIMIT de uma fronteira minuscula em
+//        prova de otimalidade.
+// EN-US: The store gives nodes back intact and in bound order, respects the byte limit
+//        and, in the search, turns a tiny frontier's FRONTIER_LIMIT into a proof of
+//        optimality.
+class FrontierSpillTest {
+
+    @Test
+    void testReload_restoresNodesBestBoundFirst() {
+        NodePool pool = new NodePool(3, 2, true, true);
+        FrontierSpill spill = FrontierSpill.create(1 << 20, 3, 2, true, true);
+        try (spill) {
+            int low = node(pool, 1, 10.0, 40.0);
+            int high = node(pool, 2, 15.0, 55.0);
+            assertTrue(spill.spill(pool, low));
+            assertTrue(spill.spill(pool, high));
+            assertEquals(55.0, spill.peekBound());
+            assertEquals(2, spill.size());
+
+            NodePool target = new NodePool(3, 2, true, true);
+            int first = spill.reload(target);
+            assertSameNode(pool, high, target, first);
+            int second = spill.reload(target);
+            assertSameNode(pool, low, target, second);
+            assertTrue(spill.isEmpty());
+            assertEquals(2, spill.nodesSpilled());
+        }
+    }
+
+    @Test
+    void testSpill_fullStoreRefusesAndReusesRecords() {
+        assertNull(FrontierSpill.create(8, 3, 2, false, false));
+        NodePool pool = new NodePool(3, 2, true, true);
+        // PT-BR: Dois registros: 8 * (2 + 2) + 4 * (2 + 3) = 52, alinhado em 56 bytes.
+        // EN-US: Two records: 8 * (2 + 2) + 4 * (2 + 3) = 52, aligned to 56 bytes.
+        FrontierSpill spill = FrontierSpill.create(2 * 56, 3, 2, false, false);
+        try (spill) {
+            int node = node(pool, 1, 10.0, 20.0);
+            assertTrue(spill.spill(pool, node));
+            assertTrue(spill.spill(pool, node));
+            assertFalse(spill.spill(pool, node));
+            spill.reload(pool);
+            assertTrue(spill.spill(pool, node));
+        }
+    }
+
+    @Test
+    void testSearch_spillKeepsOptimalityWithTinyFrontier() {
+        Random random = new Random(17);
+        int limited = 0;
+        long spilled = 0;
+        for (int round = 0; round < 20; round++) {
+            OptimizationProblem problem = TestProblems.random(10, 4, 1.0, 20, 50, random);
+            SolverOptions reference = new SolverOptions();
+            reference.maxNodes = Integer.MAX_VALUE;
+            reference.boundStrategy = BoundStrategy.LP_RELAXATION;
+            reference.branchingMode = BranchingMode.INTERVAL;
+            SolverResult expected = new BranchAndBoundSolver(problem, reference).solve(System.currentTimeMillis());
+
+            SolverOptions evicting = new SolverOptions();
+            evicting.maxNodes = Integer.MAX_VALUE;
+            evicting.maxFrontierNodes = 4;
+            evicting.parallelism = round % 4 == 3 ? 2 : 1;
+            evicting.branchingOrder = round % 2 == 0 ? BranchingOrder.CATALOG : BranchingOrder.MOST_FRACTIONAL;
+            SolverOptions spilling = evicting.copy();
+            spilling.frontierSpillBytes = 1 << 20;
+
+            SolverResult plain = new BranchAndBoundSolver(problem, evicting).solve(System.currentTimeMillis());
+            SolverResult actual = new BranchAndBoundSolver(problem, spilling).solve(System.currentTimeMillis());
+
+            if (plain.terminationReason == TerminationReason.FRONTIER_LIMIT) {
+                limited++;
+            }
+            assertEquals(TerminationReason.OPTIMAL, actual.terminationReason);
+            assertEquals(0, actual.nodesEvicted);
+            assertEquals(expected.revenue, actual.revenue, 1e-6);
+            assertTrue(problem.isFeasible(actual.solution));
+            spilled += actual.nodesSpilled;
+        }
+        assertTrue(limited > 0);
+        assertTrue(spilled > 0);
+    }
+
+    private static int node(NodePool pool, int seed, double revenue, double bound) {
+        int node = pool.allocate();
+        pool.level[node] = seed;
+        pool.upper[node] = 7 * seed;
+        pool.revenue[node] = revenue;
+        pool.bound[node] = bound;
+        pool.relaxed[node] = seed + 0.5;
+        pool.reducedCost[node] = -seed * 0.25;
+        for (int i = 0; i < 3; i++) {
+            pool.production[node * 3 + i] = seed + i;
+            pool.atUpper[node * 3 + i] = (seed + i) % 2 == 0;
+            pool.order[node * 3 + i] = (seed + i) % 3;
+        }
+        for (int j = 0; j < 2; j++) {
+            pool.remaining[node * 2 + j] = 1_000_000L * seed + j;
+            pool.basis[node * 2 + j] = seed + 3 + j;
+        }
+        return node;
+    }
+
+    private static void assertSameNode(NodePool expected, int from, NodePool actual, int to) {
+        assertEquals(expected.level[from], actual.level[to]);
+        assertEquals(expected.upper[from], actual.upper[to]);
+        assertEquals(expected.revenue[from], actual.revenue[to]);
+        assertEquals(expected.bound[from], actual.bound[to]);
+        assertEquals(expected.relaxed[from], actual.relaxed[to]);
+        assertEquals(expected.reducedCost[from], actual.reducedCost[to]);
+        assertArrayEquals(Arrays.copyOfRange(expected.production, from * 3, from * 3 + 3),
+            Arrays.copyOfRange(actual.production, to * 3, to * 3 + 3));
+        assertArrayEquals(Arrays.copyOfRange(expected.atUpper, from * 3, from * 3 + 3),
+            Arrays.copyOfRange(actual.atUpper, to * 3, to * 3 + 3));
+        assertArrayEquals(Arrays.copyOfRange(expected.order, from * 3, from * 3 + 3),
+            Arrays.copyOfRange(actual.order, to * 3, to * 3 + 3));
+        assertArrayEquals(Arrays.copyOfRange(expected.remaining, from * 2, from * 2 + 2),
+            Arrays.copyOfRange(actual.remaining, to * 2, to * 2 + 2));
+        assertArrayEquals(Arrays.copyOfRange(expected.basis, from * 2, from * 2 + 2),
+            Arrays.copyOfRange(actual.basis, to * 2, to * 2 + 2));
+    }
+}
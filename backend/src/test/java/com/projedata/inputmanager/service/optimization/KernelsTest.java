@@ -0,0 +1,142 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// PT-BR: Os lacos vetorizados dao exatamente o que os escalares dao (inclusive nas sobras
+//        que nao enchem um vetor), e a busca inteira nao muda com o modo. As comparacoes
+//        so rodam no build com -Pvector; sem ele VECTOR tem que voltar para SCALAR.
+// EN-US: The vectorized loops give exactly what the scalar ones give (including the
+//        leftovers that don't fill a vector), and the whole search doesn't change with
+//        the mode. The comparisons only run in the -Pvector build; without it VECTOR
+//        must fall back to SCALAR.
+class KernelsTest {
+
+    private final KernelMode previous = Kernels.mode();
+
+    @AfterEach
+    void restore() {
+        Kernels.select(previous);
+    }
+
+    @Test
+    void testVectorKernels_matchScalarBitForBit() {
+        assumeTrue(Kernels.select(KernelMode.VECTOR) == KernelMode.VECTOR);
+        ArrayKernels scalar = new ScalarKernels();
+        ArrayKernels vector = Kernels.current();
+        Random random = new Random(11);
+        for (int length = 0; length < 40; length++) {
+            int from = random.nextInt(5);
+            double[] values = randomDoubles(from + length, random);
+            double[] expected = values.clone();
+            double[] source = randomDoubles(length + 3, random);
+            double divisor = random.nextDouble() * 7 - 3.5;
+            double factor = random.nextDouble() * 5 - 2.5;
+
+            scalar.divide(expected, from, length, divisor);
+            vector.divide(values, from, length, divisor);
+            assertArrayEquals(expected, values);
+            scalar.subtractScaled(expected, from, source, 3, length, factor);
+            vector.subtractScaled(values, from, source, 3, length, factor);
+            assertArrayEquals(expected, values);
+
+            long[] units = randomLongs(from + length, random);
+            double[] expectedDecimal = new double[length];
+            double[] decimal = new double[length];
+            scalar.toDecimal(units, from, expectedDecimal, length, OptimizationProblem.UNIT_SCALE);
+            vector.toDecimal(units, from, decimal, length, OptimizationProblem.UNIT_SCALE);
+            assertArrayEquals(expectedDecimal, decimal);
+
+            int[] index = new int[length];
+            for (int k = 0; k < length; k++) {
+                index[k] = k;
+            }
+            shuffle(index, random);
+            long[] amounts = randomLongs(length, random);
+            for (int k = 0; k < length; k++) {
+                amounts[k] = 1 + Math.abs(amounts[k]) % 50_000;
+            }
+            long[] expectedRemaining = randomLongs(from + length, random);
+            long[] remaining = expectedRemaining.clone();
+            scalar.subtractScattered(expectedRemaining, from, index, amounts, 0, length, 3);
+            vector.subtractScattered(remaining, from, index, amounts, 0, length, 3);
+            assertArrayEquals(expectedRemaining, remaining);
+            assertEquals(scalar.minQuotient(remaining, from, index, amounts, 0, length, 1e9),
+                vector.minQuotient(remaining, from, index, amounts, 0, length, 1e9));
+
+            long[] limit = randomLongs(length, random);
+            long[] used = limit.clone();
+            assertTrue(vector.fitsWithin(used, limit, length));
+            if (length > 0) {
+                used[random.nextInt(length)]++;
+                assertFalse(vector.fitsWithin(used, limit, length));
+            }
+            assertEquals(scalar.fitsWithin(used, limit, length), vector.fitsWithin(used, limit, length));
+        }
+    }
+
+    @Test
+    void testSelect_vectorOnlyWithModule() {
+        KernelMode expected = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            ? KernelMode.VECTOR
+            : KernelMode.SCALAR;
+        assertEquals(expected, Kernels.select(KernelMode.VECTOR));
+        assertEquals(expected, Kernels.mode());
+        assertEquals(KernelMode.SCALAR, Kernels.select(KernelMode.SCALAR));
+        assertEquals(KernelMode.SCALAR, Kernels.mode());
+    }
+
+    @Test
+    void testSearch_sameTreeInBothModes() {
+        assumeTrue(Kernels.select(KernelMode.VECTOR) == KernelMode.VECTOR);
+        Random random = new Random(5);
+        for (int round = 0; round < 6; round++) {
+            OptimizationProblem problem = TestProblems.random(12, 10, 0.75, 15, 45, random);
+            SolverOptions options = new SolverOptions();
+            options.branchingMode = round % 2 == 0 ? BranchingMode.INTERVAL : BranchingMode.ENUMERATE;
+            options.boundStrategy = round % 2 == 0 ? BoundStrategy.LP_RELAXATION : BoundStrategy.INDEPENDENT;
+            options.branchingOrder = round % 3 == 0 ? BranchingOrder.PSEUDO_COST : BranchingOrder.MOST_FRACTIONAL;
+
+            Kernels.select(KernelMode.SCALAR);
+            SolverResult expected = new BranchAndBoundSolver(problem, options).solve(System.currentTimeMillis());
+            Kernels.select(KernelMode.VECTOR);
+            SolverResult actual = new BranchAndBoundSolver(problem, options).solve(System.currentTimeMillis());
+
+            assertEquals(TerminationReason.OPTIMAL, actual.terminationReason);
+            assertEquals(expected.revenue, actual.revenue);
+            assertEquals(expected.bestBound, actual.bestBound);
+            assertEquals(expected.nodesExplored, actual.nodesExplored);
+            assertArrayEquals(expected.solution, actual.solution);
+        }
+    }
+
+    private static double[] randomDoubles(int length, Random random) {
+        double[] values = new double[length];
+        for (int k = 0; k < length; k++) {
+            values[k] = random.nextDouble() * 200 - 100;
+        }
+        return values;
+    }
+
+    private static long[] randomLongs(int length, Random random) {
+        long[] values = new long[length];
+        for (int k = 0; k < length; k++) {
+            values[k] = random.nextInt(2_000_000) - 100_000;
+        }
+        return values;
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int k = values.length - 1; k > 0; k--) {
+            int other = random.nextInt(k + 1);
+            int swap = values[k];
+            values[k] = values[other];
+            values[other] = swap;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: Casos de fronteira do ponto fixo. Em double, 8520968.1968 - 8520967.5021 da
+//        0.6946999989..., um pouco abaixo de 0.6947 (mais que a antiga tolerancia de
+//        1e-9), e o plano que usa o estoque exato era descartado. Em unidades de 0.0001 as
+//        contas sao exatas.
+// EN-US: Fixed-point boundary cases. In double, 8520968.1968 - 8520967.5021 gives
+//        0.6946999989..., slightly below 0.6947 (more than the old 1e-9 tolerance), and
+//        the plan that uses the exact stock was discarded. In 0.0001 units the
+//        arithmetic is exact.
+class OptimizationProblemTest {
+
+    @Test
+    void testFixedPoint_exactBoundaryIsFeasible() {
+        double[] prices = {100.0, 10.0};
+        double[] stock = {8520968.1968, 1.0};
+        double[][] consumption = {
+            {8520967.5021, 0.6947},
+            {0.0, 1.0}
+        };
+
+        OptimizationProblem problem = new OptimizationProblem(prices, stock, consumption);
+
+        assertArrayEquals(new int[] {1, 1}, problem.maxUnits);
+        assertTrue(problem.isFeasible(new int[] {1, 1}));
+
+        SolverResult result = new BranchAndBoundSolver(problem, new SolverOptions()).solve(System.currentTimeMillis());
+        assertEquals(110.0, result.revenue, 1e-9);
+        assertArrayEquals(new int[] {1, 1}, result.solution);
+    }
+
+    @Test
+    void testFixedPoint_tinyConsumptionIsNeverFree() {
+        double[] prices = {5.0};
+        double[] stock = {0.001};
+        double[][] consumption = {{0.00001}};
+
+        OptimizationProblem problem = new OptimizationProblem(prices, stock, consumption);
+
+        assertEquals(1, problem.columnUnits[0]);
+        assertEquals(10, problem.maxUnits[0]);
+    }
+}
@@ -0,0 +1,98 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: Testes do presolve, direto no solver (sem Quarkus). A reducao nunca pode mudar a
+//        receita otima, e a solucao expandida tem que voltar aos indices originais.
+// EN-US: Tests for presolve, straight on the solver (no Quarkus). The reduction must never
+//        change the optimal revenue, and the expanded solution has to go back to the
+//        original indices.
+class PresolveTest {
+
+    // PT-BR: Produto 0 e 1 tem a mesma receita (duplicata, fica o 0); o produto 2 usa mais
+    //        de tudo e vale menos (dominado pelo 0); o insumo 1 sobra mesmo com todos os
+    //        produtos no teto.
+    // EN-US: Products 0 and 1 have the same recipe (duplicate, 0 stays); product 2 uses
+    //        more of everything and is worth less (dominated by 0); input 1 is left over
+    //        even with every product at its cap.
+    private static final double[] PRICES = {30, 30, 20, 25};
+    private static final double[] STOCK = {100, 1000, 60};
+    private static final double[][] CONSUMPTION = {
+        {10, 10, 12, 5},
+        {1, 1, 2, 3},
+        {2, 2, 3, 7}
+    };
+
+    @Test
+    void testPresolve_dropsDuplicatesDominatedProductsAndSlackInputs() {
+        Presolve presolve = Presolve.reduce(new OptimizationProblem(PRICES, STOCK, CONSUMPTION));
+
+        assertEquals(2, presolve.removedProducts);
+        assertEquals(1, presolve.removedMaterials);
+        assertEquals(2, presolve.reduced.productCount);
+        assertEquals(2, presolve.reduced.materialCount);
+        assertArrayEquals(new int[] {10, 0, 0, 8}, presolve.expand(new int[] {10, 8}));
+    }
+
+    @Test
+    void testPresolve_sameOptimumAsFullProblem() {
+        OptimizationProblem problem = new OptimizationProblem(PRICES, STOCK, CONSUMPTION);
+
+        SolverOptions plain = new SolverOptions();
+        plain.branchingMode = BranchingMode.INTERVAL;
+        plain.boundStrategy = BoundStrategy.LP_RELAXATION;
+        SolverOptions reduced = new SolverOptions();
+        reduced.branchingMode = BranchingMode.INTERVAL;
+        reduced.boundStrategy = BoundStrategy.LP_RELAXATION;
+        reduced.presolve = true;
+
+        SolverResult expected = new BranchAndBoundSolver(problem, plain).solve(System.currentTimeMillis());
+        SolverResult actual = new BranchAndBoundSolver(problem, reduced).solve(System.currentTimeMillis());
+
+        assertEquals(expected.revenue, actual.revenue, 1e-6);
+        assertEquals(PRICES.length, actual.solution.length);
+        assertEquals(0, actual.solution[1]);
+        assertEquals(0, actual.solution[2]);
+        assertEquals(2, actual.presolveRemovedProducts);
+    }
+
+    // PT-BR: A sensibilidade sai da raiz do problema reduzido que o solver resolveu. Os
+    //        duais mapeados de volta tem que ser otimos no problema completo: estoque *
+    //        preco sombra mais teto * custo reduzido positivo dos produtos que ficaram da
+    //        exatamente a receita relaxada completa. O insumo que saiu nao limita e os
+    //        produtos que sairam ficam com o custo reduzido de quem os domina.
+    // EN-US: Sensitivity comes from the root of the reduced problem the solver solved. The
+    //        duals mapped back have to be optimal for the full problem: stock * shadow
+    //        price plus cap * positive reduced cost of the kept products gives exactly the
+    //        full relaxed revenue. The dropped input doesn't bind and the dropped products
+    //        get the reduced cost of the one dominating them.
+    @Test
+    void testSensitivity_presolvedRootMatchesFullRelaxation() {
+        OptimizationProblem problem = new OptimizationProblem(PRICES, STOCK, CONSUMPTION);
+        BoundedSimplex full = new BoundedSimplex(problem);
+        full.factorSlackBasis();
+        double relaxed = full.solve(problem.stock, BoundedSimplex.caps(problem));
+
+        SolverOptions options = new SolverOptions();
+        options.presolve = true;
+        options.sensitivity = true;
+        Sensitivity sensitivity = new BranchAndBoundSolver(problem, options)
+            .solve(System.currentTimeMillis()).sensitivity;
+
+        double dual = 0;
+        for (int j = 0; j < problem.materialCount; j++) {
+            assertTrue(sensitivity.shadowPrices[j] >= 0);
+            dual += sensitivity.shadowPrices[j] * problem.stock[j];
+        }
+        for (int i : new int[] {0, 3}) {
+            dual += Math.max(0.0, sensitivity.reducedCosts[i]) * problem.maxUnits[i];
+        }
+        assertEquals(relaxed, dual, 1e-6);
+        assertEquals(0.0, sensitivity.shadowPrices[1]);
+        assertFalse(sensitivity.binding[1]);
+        assertEquals(sensitivity.reducedCosts[0], sensitivity.reducedCosts[1]);
+        assertEquals(sensitivity.reducedCosts[0], sensitivity.reducedCosts[2]);
+    }
+}
@@ -0,0 +1,58 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: Testes das heuristicas primais, direto no solver (sem Quarkus). As heuristicas
+//        so podem gerar solucoes viaveis e nunca podem mudar a receita otima -- o ganho
+//        esperado e apenas em nos explorados.
+// EN-US: Tests for the primal heuristics, straight on the solver (no Quarkus). The
+//        heuristics may only produce feasible solutions and must never change the optimal
+//        revenue -- the expected gain is only in explored nodes.
+class PrimalHeuristicsTest {
+
+    @Test
+    void testHeuristics_produceFeasibleSolutions() {
+        OptimizationProblem problem = TestProblems.random(20, 10, 0.5, 80, 200, new Random(7));
+        PrimalHeuristics heuristics = new PrimalHeuristics(problem);
+
+        int[] greedy = heuristics.greedy();
+        assertFeasible(problem, greedy);
+        assertFeasible(problem, heuristics.roundRelaxation());
+        assertFeasible(problem, heuristics.localSearch(greedy));
+    }
+
+    @Test
+    void testHeuristics_sameOptimumWithFewerNodes() {
+        OptimizationProblem problem = TestProblems.random(20, 10, 0.5, 80, 200, new Random(2));
+
+        SolverOptions plain = new SolverOptions();
+        plain.branchingMode = BranchingMode.INTERVAL;
+        plain.boundStrategy = BoundStrategy.LP_RELAXATION;
+        SolverOptions seeded = new SolverOptions();
+        seeded.branchingMode = BranchingMode.INTERVAL;
+        seeded.boundStrategy = BoundStrategy.LP_RELAXATION;
+        seeded.heuristics = EnumSet.allOf(PrimalHeuristic.class);
+
+        SolverResult expected = new BranchAndBoundSolver(problem, plain).solve(System.currentTimeMillis());
+        SolverResult actual = new BranchAndBoundSolver(problem, seeded).solve(System.currentTimeMillis());
+
+        assertEquals(expected.revenue, actual.revenue, 1e-6);
+        assertTrue(actual.heuristicRevenue > 0);
+        assertTrue(actual.nodesExplored < expected.nodesExplored);
+    }
+
+    private static void assertFeasible(OptimizationProblem problem, int[] solution) {
+        for (int j = 0; j < problem.materialCount; j++) {
+            double used = 0;
+            for (int i = 0; i < problem.productCount; i++) {
+                used += problem.consumption(j, i) * solution[i];
+            }
+            assertTrue(used <= problem.stock[j] + 1e-9, "material " + j + " over stock");
+        }
+    }
+}
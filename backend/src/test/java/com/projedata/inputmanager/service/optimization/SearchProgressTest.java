@@ -0,0 +1,47 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: O ouvinte do incumbente roda fora do lock: um ouvinte lento nao segura quem
+//        melhora a solucao, e as entregas continuam crescentes e terminam na melhor.
+// EN-US: The incumbent listener runs outside the lock: a slow listener doesn't hold up
+//        whoever improves the solution, and deliveries stay increasing and end on the best.
+class SearchProgressTest {
+
+    @Test
+    void testListener_slowDeliveryDoesNotBlockOffers() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Double> delivered = new CopyOnWriteArrayList<>();
+        SearchProgress progress = new SearchProgress();
+        progress.setIncumbentListener((revenue, production) -> {
+            delivered.add(revenue);
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Incumbent incumbent = new Incumbent(2, progress);
+
+        Thread slow = new Thread(() -> incumbent.offer(10.0, new int[] {1, 0}, 0));
+        slow.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertTrue(incumbent.offer(20.0, new int[] {1, 1}, 0));
+        assertTrue(incumbent.offer(30.0, new int[] {2, 1}, 0));
+        assertEquals(30.0, incumbent.revenue());
+
+        release.countDown();
+        slow.join(5000);
+        assertEquals(List.of(10.0, 30.0), delivered);
+    }
+}
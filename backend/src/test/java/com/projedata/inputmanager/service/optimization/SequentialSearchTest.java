@@ -0,0 +1,121 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: Testes da fronteira limitada, direto no solver (sem Quarkus). Mergulhar quando o
+//        heap enche muda a ordem dos nos, mas enquanto nada e descartado a busca continua
+//        exata.
+// EN-US: Tests for the bounded frontier, straight on the solver (no Quarkus). Diving when
+//        the heap fills up changes the node order, but as long as nothing is evicted the
+//        search stays exact.
+class SequentialSearchTest {
+
+    @Test
+    void testBoundedFrontier_sameOptimumAsUnbounded() {
+        OptimizationProblem problem = TestProblems.random(12, 6, 0.5, 80, 200, new Random(5));
+
+        SolverOptions unbounded = new SolverOptions();
+        unbounded.branchingMode = BranchingMode.INTERVAL;
+        unbounded.boundStrategy = BoundStrategy.LP_RELAXATION;
+        SolverOptions bounded = new SolverOptions();
+        bounded.branchingMode = BranchingMode.INTERVAL;
+        bounded.boundStrategy = BoundStrategy.LP_RELAXATION;
+        bounded.maxFrontierNodes = 64;
+
+        SolverResult expected = new BranchAndBoundSolver(problem, unbounded).solve(System.currentTimeMillis());
+        SolverResult actual = new BranchAndBoundSolver(problem, bounded).solve(System.currentTimeMillis());
+
+        assertEquals(TerminationReason.OPTIMAL, expected.terminationReason);
+        assertEquals(TerminationReason.OPTIMAL, actual.terminationReason);
+        assertEquals(0, actual.nodesEvicted);
+        assertEquals(expected.revenue, actual.revenue, 1e-6);
+    }
+
+    @Test
+    void testNodeHeap_evictLowest_keepsTheBestNodes() {
+        NodeHeap heap = new NodeHeap(2);
+        double[] keys = {5, 1, 9, 3, 7};
+        for (int node = 0; node < keys.length; node++) {
+            heap.push(node, keys[node]);
+        }
+
+        int[] evicted = heap.evictLowest(2);
+        Arrays.sort(evicted);
+
+        assertArrayEquals(new int[] {1, 3}, evicted);
+        assertEquals(3, heap.size());
+        assertEquals(2, heap.poll());
+        assertEquals(4, heap.poll());
+        assertEquals(0, heap.poll());
+    }
+
+    // PT-BR: O aperto dos dominios (estoque do no e custo reduzido) so descarta
+    //        quantidades que nao podem melhorar o plano: comparamos com a enumeracao
+    //        completa em instancias pequenas.
+    // EN-US: Domain tightening (node stock and reduced cost) only discards quantities that
+    //        can't improve the plan: we compare with full enumeration on small instances.
+    @Test
+    void testDomainTightening_matchesBruteForce() {
+        Random random = new Random(17);
+        for (int round = 0; round < 30; round++) {
+            OptimizationProblem problem = smallProblem(4, 3, random);
+            double expected = bruteForce(problem, 0, problem.stock.clone());
+            for (BranchingMode mode : BranchingMode.values()) {
+                SolverOptions options = new SolverOptions();
+                options.branchingMode = mode;
+                options.boundStrategy = BoundStrategy.LP_RELAXATION;
+                options.branchingOrder = BranchingOrder.PSEUDO_COST;
+                SolverResult result = new BranchAndBoundSolver(problem, options).solve(System.currentTimeMillis());
+
+                assertEquals(TerminationReason.OPTIMAL, result.terminationReason);
+                assertEquals(expected, result.revenue, 1e-6);
+            }
+        }
+    }
+
+    private static double bruteForce(OptimizationProblem problem, int product, double[] remaining) {
+        if (product == problem.productCount) {
+            return 0.0;
+        }
+        double best = 0.0;
+        for (int qty = 0; qty <= problem.maxUnits[product]; qty++) {
+            double[] next = remaining.clone();
+            boolean fits = true;
+            for (int k = problem.columnStart[product]; k < problem.columnStart[product + 1]; k++) {
+                next[problem.columnMaterial[k]] -= problem.columnAmount[k] * qty;
+                fits &= next[problem.columnMaterial[k]] >= -1e-9;
+            }
+            if (!fits) {
+                break;
+            }
+            best = Math.max(best, problem.prices[product] * qty + bruteForce(problem, product + 1, next));
+        }
+        return best;
+    }
+
+    // PT-BR: Consumos com meias unidades e estoque curto, para a enumeracao ser rapida.
+    // EN-US: Consumptions with half units and short stock, so enumeration stays fast.
+    private static OptimizationProblem smallProblem(int n, int m, Random random) {
+        double[] prices = new double[n];
+        double[] stock = new double[m];
+        double[][] consumption = new double[m][n];
+        for (int i = 0; i < n; i++) {
+            prices[i] = 1 + random.nextInt(50);
+            for (int j = 0; j < m; j++) {
+                if (random.nextBoolean()) {
+                    consumption[j][i] = 0.5 + random.nextInt(8);
+                }
+            }
+            consumption[random.nextInt(m)][i] = 1 + random.nextInt(8);
+        }
+        for (int j = 0; j < m; j++) {
+            stock[j] = 10 + random.nextInt(30);
+        }
+        return new OptimizationProblem(prices, stock, consumption);
+    }
+}
@@ -0,0 +1,40 @@
+package com.projedata.inputmanager.service.optimization;
+
+import java.util.Random;
+
+// PT-BR: Problemas aleatorios para os testes do solver. Precos de 1 a 60, consumos
+//        multiplos de 0,5 (de 0,5 a 8) presentes com a probabilidade 'density' (todo
+//        produto usa ao menos um insumo) e estoques em [stockFrom, stockTo) com um quarto
+//        de unidade a mais, para exercitar a escala inteira do OptimizationProblem.
+// EN-US: Random problems for the solver tests. Prices from 1 to 60, consumptions that
+//        are multiples of 0.5 (from 0.5 to 8) present with probability 'density' (every
+//        product uses at least one input) and stocks in [stockFrom, stockTo) plus a
+//        quarter unit, to exercise OptimizationProblem's integer scale.
+final class TestProblems {
+
+    private TestProblems() {
+    }
+
+    static OptimizationProblem random(int n, int m, double density, int stockFrom, int stockTo, Random random) {
+        double[] prices = new double[n];
+        double[] stock = new double[m];
+        double[][] consumption = new double[m][n];
+        for (int i = 0; i < n; i++) {
+            prices[i] = 1 + random.nextInt(60);
+            boolean used = false;
+            for (int j = 0; j < m; j++) {
+                if (random.nextDouble() < density) {
+                    consumption[j][i] = (1 + random.nextInt(16)) * 0.5;
+                    used = true;
+                }
+            }
+            if (!used) {
+                consumption[random.nextInt(m)][i] = (1 + random.nextInt(16)) * 0.5;
+            }
+        }
+        for (int j = 0; j < m; j++) {
+            stock[j] = stockFrom + random.nextInt(stockTo - stockFrom) + 0.25;
+        }
+        return new OptimizationProblem(prices, stock, consumption);
+    }
+}
@@ -0,0 +1,84 @@
+package com.projedata.inputmanager.service.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// PT-BR: A tabela so poda estados identicos com receita menor ou igual, respeita o limite
+//        de memoria e nao muda o otimo em receitas que repetem estados.
+// EN-US: The table only prunes identical states with lower or equal revenue, respects the
+//        memory limit and doesn't change the optimum on recipes that repeat states.
+class TranspositionTableTest {
+
+    @Test
+    void testDominated_sameStateOnlyWithLowerOrEqualRevenue() {
+        TranspositionTable table = TranspositionTable.create(1 << 16, 3, 2, false);
+        long[] stock = {40_000, 70_000};
+        long[] otherStock = {40_000, 60_000};
+
+        assertFalse(table.dominated(1, 1, 5, 20.0, stock, 0, null, 0));
+        assertTrue(table.dominated(1, 1, 5, 18.0, stock, 0, null, 0));
+        assertTrue(table.dominated(1, 1, 5, 20.0, stock, 0, null, 0));
+        assertFalse(table.dominated(1, 1, 4, 10.0, stock, 0, null, 0));
+        assertFalse(table.dominated(1, 1, 5, 10.0, otherStock, 0, null, 0));
+        assertFalse(table.dominated(1, 1, 5, 25.0, stock, 0, null, 0));
+        assertTrue(table.dominated(1, 1, 5, 22.0, stock, 0, null, 0));
+
+        assertEquals(7, table.lookups());
+        assertEquals(4, table.hits());
+        assertEquals(3, table.prunes());
+    }
+
+    @Test
+    void testCreate_limitTooSmall_returnsNull() {
+        assertNull(TranspositionTable.create(64, 10, 10, true));
+        assertNotNull(TranspositionTable.create(1 << 20, 10, 10, true));
+    }
+
+    @Test
+    void testTransposition_sameOptimum() {
+        Random random = new Random(31);
+        long prunes = 0;
+        for (int round = 0; round < 15; round++) {
+            OptimizationProblem problem = repeatedRecipes(10, 3, random);
+
+            SolverOptions plain = new SolverOptions();
+            plain.branchingMode = BranchingMode.ENUMERATE;
+            plain.boundStrategy = BoundStrategy.INDEPENDENT;
+            plain.branchingOrder = round % 2 == 0 ? BranchingOrder.CATALOG : BranchingOrder.MOST_FRACTIONAL;
+            SolverOptions table = plain.copy();
+            table.transpositionTableBytes = 1 << 20;
+
+            SolverResult expected = new BranchAndBoundSolver(problem, plain).solve(System.currentTimeMillis());
+            SolverResult actual = new BranchAndBoundSolver(problem, table).solve(System.currentTimeMillis());
+
+            assertEquals(TerminationReason.OPTIMAL, actual.terminationReason);
+            assertEquals(expected.revenue, actual.revenue, 1e-6);
+            assertTrue(problem.isFeasible(actual.solution));
+            assertTrue(actual.transpositionHits <= actual.transpositionLookups);
+            prunes += actual.transpositionPrunes;
+        }
+        assertTrue(prunes > 0);
+    }
+
+    // PT-BR: Consumos inteiros pequenos, para que caminhos diferentes gastem o mesmo estoque.
+    // EN-US: Small integer consumptions, so different paths use up the same stock.
+    private static OptimizationProblem repeatedRecipes(int n, int m, Random random) {
+        double[] prices = new double[n];
+        double[] stock = new double[m];
+        double[][] consumption = new double[m][n];
+        for (int i = 0; i < n; i++) {
+            prices[i] = 5 + random.nextInt(40);
+            for (int j = 0; j < m; j++) {
+                consumption[j][i] = random.nextInt(3);
+            }
+            consumption[random.nextInt(m)][i] = 1 + random.nextInt(3);
+        }
+        for (int j = 0; j < m; j++) {
+            stock[j] = 8 + random.nextInt(10);
+        }
+        return new OptimizationProblem(prices, stock, consumption);
+    }
+}
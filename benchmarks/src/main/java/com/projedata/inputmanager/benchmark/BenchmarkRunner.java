@@ -0,0 +1,29 @@
+package com.projedata.inputmanager.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// PT-BR: Ponto de entrada do benchmarks.jar. Aceita os mesmos argumentos do JMH
+//        (-p products=200, -f 2, -rf json...) e sempre liga o profiler gc, para que a taxa
+//        de alocacao (gc.alloc.rate.norm = bytes por solve) saia junto com o tempo.
+// EN-US: Entry point of benchmarks.jar. Takes the same arguments as JMH (-p products=200,
+//        -f 2, -rf json...) and always turns on the gc profiler, so the allocation rate
+//        (gc.alloc.rate.norm = bytes per solve) comes out along with the time.
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .build())
+            .run();
+    }
+}
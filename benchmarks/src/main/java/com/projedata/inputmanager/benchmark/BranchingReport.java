@@ -0,0 +1,85 @@
+package com.projedata.inputmanager.benchmark;
+
+import com.projedata.inputmanager.service.optimization.BoundStrategy;
+import com.projedata.inputmanager.service.optimization.BranchAndBoundSolver;
+import com.projedata.inputmanager.service.optimization.BranchingMode;
+import com.projedata.inputmanager.service.optimization.BranchingOrder;
+import com.projedata.inputmanager.service.optimization.OptimizationProblem;
+import com.projedata.inputmanager.service.optimization.PrimalHeuristic;
+import com.projedata.inputmanager.service.optimization.SolverOptions;
+import com.projedata.inputmanager.service.optimization.SolverResult;
+import com.projedata.inputmanager.service.optimization.TerminationReason;
+import com.projedata.inputmanager.service.optimization.ValueOrder;
+
+import java.util.EnumSet;
+
+// PT-BR: Nos ate o otimo por ordem de ramificacao e ordem de valores. Numero de nos e
+//        deterministico, entao aqui nao ha JMH: cada combinacao resolve as mesmas
+//        instancias uma vez e a tabela mostra a media de nos, quantas provaram o otimo e
+//        o tempo total. A programacao dinamica fica desligada para que a arvore sempre
+//        rode; o resto segue o application.properties.
+//          java -cp target/benchmarks.jar com.projedata.inputmanager.benchmark.BranchingReport [produtos insumos instancias]
+// EN-US: Nodes to optimal per branching order and value order. The node count is
+//        deterministic, so there is no JMH here: each combination solves the same
+//        instances once and the table shows the average node count, how many proved the
+//        optimum and the total time. Dynamic programming is off so the tree always runs;
+//        the rest follows application.properties.
+//          java -cp target/benchmarks.jar com.projedata.inputmanager.benchmark.BranchingReport [products materials instances]
+public final class BranchingReport {
+
+    private static final double DENSITY = 0.3;
+    private static final double[] TIGHTNESS = {0.2, 0.5};
+
+    private BranchingReport() {
+    }
+
+    public static void main(String[] args) {
+        int products = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int materials = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+        int instances = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        OptimizationProblem[] problems = new OptimizationProblem[instances * TIGHTNESS.length];
+        for (int t = 0; t < TIGHTNESS.length; t++) {
+            for (int seed = 0; seed < instances; seed++) {
+                problems[t * instances + seed] =
+                    InstanceGenerator.generate(products, materials, DENSITY, TIGHTNESS[t], seed);
+            }
+        }
+
+        System.out.printf("%d products x %d materials, %d instances%n", products, materials, problems.length);
+        System.out.printf("%-20s %-11s %12s %8s %10s%n", "order", "values", "avg nodes", "optimal", "time ms");
+        for (BranchingOrder order : BranchingOrder.values()) {
+            for (ValueOrder values : ValueOrder.values()) {
+                long nodes = 0;
+                int optimal = 0;
+                long start = System.nanoTime();
+                for (OptimizationProblem problem : problems) {
+                    SolverResult result = new BranchAndBoundSolver(problem, options(order, values))
+                        .solve(System.currentTimeMillis());
+                    nodes += result.nodesExplored;
+                    if (result.terminationReason == TerminationReason.OPTIMAL) {
+                        optimal++;
+                    }
+                }
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                System.out.printf("%-20s %-11s %12d %5d/%-2d %10d%n", order, values,
+                    nodes / problems.length, optimal, problems.length, elapsedMs);
+            }
+        }
+    }
+
+    private static SolverOptions options(BranchingOrder order, ValueOrder values) {
+        SolverOptions options = new SolverOptions();
+        options.branchingMode = BranchingMode.INTERVAL;
+        options.boundStrategy = BoundStrategy.LP_RELAXATION;
+        options.branchingOrder = order;
+        options.valueOrder = values;
+        options.heuristics = EnumSet.of(PrimalHeuristic.GREEDY, PrimalHeuristic.RELAXATION_ROUNDING,
+            PrimalHeuristic.LOCAL_SEARCH);
+        options.presolve = true;
+        options.maxFrontierNodes = 20_000;
+        options.maxNodes = 2_000_000;
+        options.maxTimeMs = 60_000;
+        return options;
+    }
+}
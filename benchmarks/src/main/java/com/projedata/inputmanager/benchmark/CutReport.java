@@ -0,0 +1,87 @@
+package com.projedata.inputmanager.benchmark;
+
+import com.projedata.inputmanager.service.optimization.BoundStrategy;
+import com.projedata.inputmanager.service.optimization.BranchAndBoundSolver;
+import com.projedata.inputmanager.service.optimization.BranchingMode;
+import com.projedata.inputmanager.service.optimization.BranchingOrder;
+import com.projedata.inputmanager.service.optimization.OptimizationProblem;
+import com.projedata.inputmanager.service.optimization.PrimalHeuristic;
+import com.projedata.inputmanager.service.optimization.SolverOptions;
+import com.projedata.inputmanager.service.optimization.SolverResult;
+import com.projedata.inputmanager.service.optimization.TerminationReason;
+
+import java.util.EnumSet;
+
+// PT-BR: Efeito dos cortes de cobertura: para cada instancia, o gap da raiz (bound da
+//        relaxacao contra o otimo) sem e com os cortes, quantos cortes entraram no pool
+//        e os nos ate o otimo nas duas configuracoes. Como no BranchingReport, sem JMH e
+//        sem programacao dinamica.
+//          java -cp target/benchmarks.jar com.projedata.inputmanager.benchmark.CutReport [produtos insumos instancias]
+// EN-US: Effect of the cover cuts: for each instance, the root gap (relaxation bound
+//        against the optimum) without and with the cuts, how many cuts went into the pool
+//        and the nodes to optimal in both configurations. As in BranchingReport, no JMH
+//        and no dynamic programming.
+//          java -cp target/benchmarks.jar com.projedata.inputmanager.benchmark.CutReport [products materials instances]
+public final class CutReport {
+
+    private static final double DENSITY = 0.3;
+    private static final double[] TIGHTNESS = {0.2, 0.5};
+
+    private CutReport() {
+    }
+
+    public static void main(String[] args) {
+        int products = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int materials = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+        int instances = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        System.out.printf("%d products x %d materials, %d instances%n", products, materials,
+            instances * TIGHTNESS.length);
+        System.out.printf("%-10s %5s %10s %10s %5s %10s %10s %8s %10s%n", "tightness", "seed",
+            "root gap", "with cuts", "cuts", "nodes", "with cuts", "ms", "with cuts");
+        long totalNodes = 0;
+        long totalCutNodes = 0;
+        long totalMs = 0;
+        long totalCutMs = 0;
+        for (double tightness : TIGHTNESS) {
+            for (int seed = 0; seed < instances; seed++) {
+                OptimizationProblem problem = InstanceGenerator.generate(products, materials, DENSITY, tightness, seed);
+                long start = System.nanoTime();
+                SolverResult plain = new BranchAndBoundSolver(problem, options(false)).solve(System.currentTimeMillis());
+                long plainMs = (System.nanoTime() - start) / 1_000_000;
+                start = System.nanoTime();
+                SolverResult cut = new BranchAndBoundSolver(problem, options(true)).solve(System.currentTimeMillis());
+                long cutMs = (System.nanoTime() - start) / 1_000_000;
+                double optimum = plain.terminationReason == TerminationReason.OPTIMAL ? plain.revenue : cut.revenue;
+                totalNodes += plain.nodesExplored;
+                totalCutNodes += cut.nodesExplored;
+                totalMs += plainMs;
+                totalCutMs += cutMs;
+                System.out.printf("%-10.1f %5d %9.3f%% %9.3f%% %5d %10d %10d %8d %10d%n", tightness, seed,
+                    gap(cut.rootBound, optimum), gap(cut.rootBoundWithCuts, optimum), cut.coverCuts,
+                    plain.nodesExplored, cut.nodesExplored, plainMs, cutMs);
+            }
+        }
+        System.out.printf("total: %d nodes / %d ms without cuts, %d nodes / %d ms with cuts%n",
+            totalNodes, totalMs, totalCutNodes, totalCutMs);
+    }
+
+    private static double gap(double bound, double optimum) {
+        return bound > 0 ? 100.0 * (bound - optimum) / bound : 0.0;
+    }
+
+    private static SolverOptions options(boolean coverCuts) {
+        SolverOptions options = new SolverOptions();
+        options.branchingMode = BranchingMode.INTERVAL;
+        options.boundStrategy = BoundStrategy.LP_RELAXATION;
+        options.branchingOrder = BranchingOrder.PSEUDO_COST;
+        options.heuristics = EnumSet.of(PrimalHeuristic.GREEDY, PrimalHeuristic.RELAXATION_ROUNDING,
+            PrimalHeuristic.LOCAL_SEARCH);
+        options.presolve = true;
+        options.coverCuts = coverCuts;
+        options.maxFrontierNodes = 20_000;
+        options.maxNodes = 2_000_000;
+        options.maxTimeMs = 60_000;
+        return options;
+    }
+}
@@ -0,0 +1,72 @@
+package com.projedata.inputmanager.benchmark;
+
+import com.projedata.inputmanager.service.optimization.OptimizationProblem;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// PT-BR: Gera catalogos aleatorios reproduziveis (mesma semente, mesma instancia) para os
+//        benchmarks. Os valores seguem o banco: consumos e estoques com 4 casas decimais,
+//        precos com 2.
+//          - density: chance de cada produto usar cada insumo (todo produto usa ao menos um);
+//          - tightness: fracao do estoque necessario para fabricar UNITS_PER_PRODUCT
+//            unidades de todos os produtos. Valores baixos deixam os insumos disputados e a
+//            arvore funda; perto de 1 quase nada limita.
+// EN-US: Generates reproducible random catalogs (same seed, same instance) for the
+//        benchmarks. Values follow the database: consumptions and stocks with 4 decimals,
+//        prices with 2.
+//          - density: chance that each product uses each input (every product uses at
+//            least one);
+//          - tightness: fraction of the stock needed to make UNITS_PER_PRODUCT units of
+//            every product. Low values make the inputs contended and the tree deep; near 1
+//            almost nothing binds.
+public final class InstanceGenerator {
+
+    static final int UNITS_PER_PRODUCT = 10;
+
+    private InstanceGenerator() {
+    }
+
+    public static OptimizationProblem generate(int products, int materials, double density,
+                                               double tightness, long seed) {
+        if (products <= 0 || materials <= 0) {
+            throw new IllegalArgumentException("products and materials must be positive");
+        }
+        if (density <= 0 || density > 1 || tightness <= 0) {
+            throw new IllegalArgumentException("density must be in (0, 1] and tightness positive");
+        }
+        Random random = new Random(seed);
+
+        double[] prices = new double[products];
+        double[] demand = new double[materials];
+        int[] columnStart = new int[products + 1];
+        int[] material = new int[products * materials];
+        double[] amount = new double[products * materials];
+        int nonZeros = 0;
+        for (int i = 0; i < products; i++) {
+            prices[i] = round(1 + random.nextDouble() * 99, 2);
+            int forced = random.nextInt(materials);
+            for (int j = 0; j < materials; j++) {
+                if (j == forced || random.nextDouble() < density) {
+                    material[nonZeros] = j;
+                    amount[nonZeros] = round(0.1 + random.nextDouble() * 9.9, 4);
+                    demand[j] += amount[nonZeros] * UNITS_PER_PRODUCT;
+                    nonZeros++;
+                }
+            }
+            columnStart[i + 1] = nonZeros;
+        }
+
+        double[] stock = new double[materials];
+        for (int j = 0; j < materials; j++) {
+            stock[j] = round(demand[j] * tightness, 4);
+        }
+        return new OptimizationProblem(prices, stock, columnStart,
+            Arrays.copyOf(material, nonZeros), Arrays.copyOf(amount, nonZeros));
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+}
@@ -0,0 +1,98 @@
+package com.projedata.inputmanager.benchmark;
+
+import com.projedata.inputmanager.service.optimization.BoundStrategy;
+import com.projedata.inputmanager.service.optimization.BranchAndBoundSolver;
+import com.projedata.inputmanager.service.optimization.BranchingMode;
+import com.projedata.inputmanager.service.optimization.BranchingOrder;
+import com.projedata.inputmanager.service.optimization.KernelMode;
+import com.projedata.inputmanager.service.optimization.Kernels;
+import com.projedata.inputmanager.service.optimization.OptimizationProblem;
+import com.projedata.inputmanager.service.optimization.SolverOptions;
+import com.projedata.inputmanager.service.optimization.SolverResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// PT-BR: Os dois caminhos dos lacos densos (Kernels) na mesma busca, com o mesmo limite de
+//        nos: lp usa a relaxacao linear (operacoes de linha do tableau) e independent o
+//        bound por produto (estoque restante e unidades fracionarias por gather/scatter).
+//        Como os modos dao a mesma arvore, a diferenca de tempo e so dos lacos. O fork
+//        ja sobe com --add-modules jdk.incubator.vector; se o modo VECTOR nao pegar, o
+//        setup falha em vez de medir o escalar duas vezes.
+//          java -jar target/benchmarks.jar KernelBenchmark
+// EN-US: Both paths of the dense loops (Kernels) in the same search, with the same node
+//        limit: lp uses the linear relaxation (tableau row operations) and independent
+//        the per-product bound (remaining stock and fractional units by gather/scatter).
+//        Since the modes give the same tree, the time difference comes from the loops
+//        alone. The fork already starts with --add-modules jdk.incubator.vector; if
+//        VECTOR mode doesn't take, setup fails instead of measuring scalar twice.
+//          java -jar target/benchmarks.jar KernelBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class KernelBenchmark {
+
+    @Param({"SCALAR", "VECTOR"})
+    KernelMode mode;
+
+    @Param({"60"})
+    int products;
+
+    @Param({"40"})
+    int materials;
+
+    @Param({"0.3"})
+    double density;
+
+    @Param({"0.2"})
+    double tightness;
+
+    @Param({"42"})
+    long seed;
+
+    private OptimizationProblem problem;
+    private SolverOptions lp;
+    private SolverOptions independent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (Kernels.select(mode) != mode) {
+            throw new IllegalStateException(mode + " kernels unavailable");
+        }
+        problem = InstanceGenerator.generate(products, materials, density, tightness, seed);
+        lp = new SolverOptions();
+        lp.branchingMode = BranchingMode.INTERVAL;
+        lp.boundStrategy = BoundStrategy.LP_RELAXATION;
+        lp.branchingOrder = BranchingOrder.PSEUDO_COST;
+        lp.maxNodes = 2_000;
+        lp.maxTimeMs = Long.MAX_VALUE;
+        independent = new SolverOptions();
+        independent.maxNodes = 200_000;
+        independent.maxFrontierNodes = 20_000;
+        independent.maxTimeMs = Long.MAX_VALUE;
+    }
+
+    @Benchmark
+    public SolverResult lp() {
+        return new BranchAndBoundSolver(problem, lp).solve(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public SolverResult independent() {
+        return new BranchAndBoundSolver(problem, independent).solve(System.currentTimeMillis());
+    }
+}
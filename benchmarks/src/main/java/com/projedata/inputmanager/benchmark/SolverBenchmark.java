@@ -0,0 +1,83 @@
+package com.projedata.inputmanager.benchmark;
+
+import com.projedata.inputmanager.service.optimization.BoundStrategy;
+import com.projedata.inputmanager.service.optimization.BranchAndBoundSolver;
+import com.projedata.inputmanager.service.optimization.BranchingMode;
+import com.projedata.inputmanager.service.optimization.BranchingOrder;
+import com.projedata.inputmanager.service.optimization.OptimizationProblem;
+import com.projedata.inputmanager.service.optimization.PrimalHeuristic;
+import com.projedata.inputmanager.service.optimization.SolverOptions;
+import com.projedata.inputmanager.service.optimization.SolverResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+// PT-BR: Mede uma otimizacao completa (presolve, heuristicas, arvore) sobre um catalogo
+//        gerado, sem Quarkus nem banco. Throughput da solves por segundo e SampleTime da
+//        os percentis de latencia (p50, p90, p99...); a taxa de alocacao vem do profiler
+//        gc, que o BenchmarkRunner liga por padrao. As opcoes reproduzem o
+//        application.properties, para que o numero seja o do endpoint.
+// EN-US: Measures a full optimization (presolve, heuristics, tree) over a generated
+//        catalog, without Quarkus or the database. Throughput gives solves per second and
+//        SampleTime gives the latency percentiles (p50, p90, p99...); the allocation rate
+//        comes from the gc profiler, which BenchmarkRunner turns on by default. The
+//        options reproduce application.properties, so the number is the endpoint's.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"20", "60"})
+    int products;
+
+    @Param({"10", "40"})
+    int materials;
+
+    @Param({"0.3"})
+    double density;
+
+    @Param({"0.2", "0.5"})
+    double tightness;
+
+    @Param({"42"})
+    long seed;
+
+    private OptimizationProblem problem;
+    private SolverOptions options;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        problem = InstanceGenerator.generate(products, materials, density, tightness, seed);
+        options = new SolverOptions();
+        options.branchingMode = BranchingMode.INTERVAL;
+        options.boundStrategy = BoundStrategy.LP_RELAXATION;
+        options.branchingOrder = BranchingOrder.PSEUDO_COST;
+        options.heuristics = EnumSet.of(PrimalHeuristic.GREEDY, PrimalHeuristic.RELAXATION_ROUNDING,
+            PrimalHeuristic.LOCAL_SEARCH);
+        options.presolve = true;
+        options.maxFrontierNodes = 20_000;
+        options.dynamicProgramming = true;
+        options.decompose = true;
+        options.coverCuts = true;
+    }
+
+    @Benchmark
+    public SolverResult solve() {
+        return new BranchAndBoundSolver(problem, options).solve(System.currentTimeMillis());
+    }
+}
@@ -1,7 +1,10 @@
 import apiClient from './client'
 
-// PT-BR: Modulo de API para otimizacao de producao.
-// EN-US: API module for production optimization.
+// PT-BR: Modulo de API para otimizacao de producao. O stream usa EventSource (SSE), que
+//        nao passa pelo axios, entao exportamos apenas a URL.
+// EN-US: API module for production optimization. The stream uses EventSource (SSE),
+//        which doesn't go through axios, so we only export the URL.
 export default {
-  optimize: () => apiClient.post('/optimization/optimize')
+  optimize: () => apiClient.post('/optimization/optimize'),
+  streamUrl: '/api/optimization/optimize/stream'
 }
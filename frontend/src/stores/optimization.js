@@ -14,14 +14,73 @@ export const useOptimizationStore = defineStore('optimization', () => {
   const result = ref(null)
   const loading = ref(false)
   const error = ref(null)
+  const provisional = ref(false)
+  const gap = ref(null)
+  let source = null
 
-  async function runOptimization() {
+  // PT-BR: Abre o stream SSE: cada evento INCUMBENT ja traz um plano utilizavel, que
+  //        aparece na tela enquanto a prova de otimalidade continua (provisional = true).
+  //        O evento final (COMPLETED ou CANCELLED) fecha o stream. Se o navegador nao
+  //        suporta EventSource ou o stream falha antes de qualquer evento, caimos no
+  //        POST bloqueante de sempre.
+  // EN-US: Opens the SSE stream: each INCUMBENT event already carries a usable plan,
+  //        which shows up on screen while the optimality proof continues
+  //        (provisional = true). The final event (COMPLETED or CANCELLED) closes the
+  //        stream. If the browser doesn't support EventSource or the stream fails before
+  //        any event, we fall back to the usual blocking POST.
+  function runOptimization() {
+    closeStream()
+    if (typeof EventSource === 'undefined') {
+      return runBlockingOptimization()
+    }
+
+    loading.value = true
+    error.value = null
+    result.value = null
+    gap.value = null
+    let received = false
+    source = new EventSource(optimizationApi.streamUrl)
+
+    source.onmessage = (message) => {
+      received = true
+      const event = JSON.parse(message.data)
+      if (event.result) {
+        result.value = event.result
+      }
+      gap.value = event.gap
+      provisional.value = event.type === 'INCUMBENT'
+      if (event.type !== 'INCUMBENT') {
+        closeStream()
+        loading.value = false
+      }
+    }
+
+    source.onerror = () => {
+      closeStream()
+      if (!received) {
+        runBlockingOptimization()
+      } else if (loading.value) {
+        loading.value = false
+        error.value = 'The connection to the server was lost during the optimization.'
+      }
+    }
+  }
+
+  function closeStream() {
+    if (source) {
+      source.close()
+      source = null
+    }
+  }
+
+  async function runBlockingOptimization() {
     loading.value = true
     error.value = null
     result.value = null
     try {
       const response = await optimizationApi.optimize()
       result.value = response.data
+      provisional.value = false
     } catch (e) {
       // PT-BR: Mostramos a mensagem real do servidor (se disponivel) ou a mensagem
       //        de rede do axios. Isso ajuda o usuario a entender o que deu errado
@@ -42,9 +101,12 @@ export const useOptimizationStore = defineStore('optimization', () => {
   }
 
   function clearResult() {
+    closeStream()
     result.value = null
     error.value = null
+    provisional.value = false
+    gap.value = null
   }
 
-  return { result, loading, error, runOptimization, clearResult }
+  return { result, loading, error, provisional, gap, runOptimization, clearResult }
 })